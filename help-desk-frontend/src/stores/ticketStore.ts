@@ -48,8 +48,13 @@ export const useTicketStore = defineStore('ticket', () => {
 
   const dashboardStats = ref({ abertos: 0, emAndamento: 0, fechados: 0, total: 0, slaViolado: 0 })
 
+  // Stream SSE (/api/events): com ele aberto, as ações não precisam recarregar as listas
+  let eventSource: EventSource | null = null
+  let reconexao: ReturnType<typeof setTimeout> | null = null
+
   if (token.value) {
     decodeToken(token.value)
+    conectarEventos()
   }
 
   function decodeToken(tk: string) {
@@ -86,9 +91,12 @@ export const useTicketStore = defineStore('ticket', () => {
     token.value = response.data.token
     localStorage.setItem('token', token.value)
     decodeToken(token.value)
+    conectarEventos()
   }
 
   function logout() {
+    desconectarEventos()
+    ticketsWatermark = null
     token.value = ''
     currentUser.value = { name: '', email: '', role: '', login: '' }
     localStorage.removeItem('token')
@@ -106,31 +114,31 @@ export const useTicketStore = defineStore('ticket', () => {
       .normalize('NFD')
       .replace(/[\u0300-\u036f]/g, '')
 
+  // Marca d'água da última sincronização (GET /api/tickets/changes)
+  let ticketsWatermark: string | null = null
+
   async function fetchTickets() {
     if (!token.value) return
     try {
-      const response = await api.get('/api/tickets')
-      const all: Ticket[] = response.data
+      const params = ticketsWatermark ? { since: ticketsWatermark } : {}
+      const response = await api.get('/api/tickets/changes', { params })
+      const changes: { alterados: Ticket[]; removidos: number[]; watermark: string; cargaCompleta: boolean } =
+        response.data
+
+      if (ticketsWatermark && !changes.cargaCompleta) {
+        // Incremental: aplica só o que mudou desde a última chamada
+        changes.removidos.forEach(removerTicket)
+        changes.alterados.forEach(aplicarTicket)
+        ticketsWatermark = changes.watermark
+        return
+      }
+      ticketsWatermark = changes.watermark
+      const all: Ticket[] = changes.alterados
 
       openTickets.value = all.filter((t) => t.status === 'Aberto')
       const emAndamento = all.filter((t) => t.status === 'Em Andamento')
 
-      const userRole = normalize(currentUser.value.role)
-      const userLogin = normalize(currentUser.value.login)
-      const userName = normalize(currentUser.value.name)
-
-      if (userRole.includes('technician') || userRole.includes('tecnico')) {
-        inProgressTickets.value = emAndamento.filter((t) => {
-          if (t.tecnicoAtribuido && typeof t.tecnicoAtribuido === 'object') {
-            const techLogin = normalize(t.tecnicoAtribuido.login)
-            const techName = normalize(t.tecnicoAtribuido.nome)
-            return techLogin === userLogin || techName === userName
-          }
-          return false
-        })
-      } else {
-        inProgressTickets.value = emAndamento
-      }
+      inProgressTickets.value = emAndamento.filter(isEmAndamentoVisivel)
 
       closedTickets.value = all.filter((t) =>
         ['Resolvido', 'Fechado', 'Encerrado', 'Cancelado'].includes(t.status),
@@ -140,6 +148,95 @@ export const useTicketStore = defineStore('ticket', () => {
     }
   }
 
+  function isEmAndamentoVisivel(t: Ticket) {
+    const userRole = normalize(currentUser.value.role)
+    if (!(userRole.includes('technician') || userRole.includes('tecnico'))) return true
+    if (t.tecnicoAtribuido && typeof t.tecnicoAtribuido === 'object') {
+      const techLogin = normalize(t.tecnicoAtribuido.login)
+      const techName = normalize(t.tecnicoAtribuido.nome)
+      return techLogin === normalize(currentUser.value.login) || techName === normalize(currentUser.value.name)
+    }
+    return false
+  }
+
+  function eventosAtivos() {
+    return eventSource !== null && eventSource.readyState === EventSource.OPEN
+  }
+
+  function removerTicket(id: number) {
+    for (const lista of [openTickets, inProgressTickets, closedTickets, myOpenTickets, myClosedTickets]) {
+      lista.value = lista.value.filter((t) => t.id !== id)
+    }
+  }
+
+  // Aplica um ticket recebido pelo stream nas mesmas listas montadas por fetchTickets/fetchMyTickets
+  function aplicarTicket(t: Ticket) {
+    removerTicket(t.id)
+    const s = normalize(t.status)
+    const fechado = ['resolvido', 'fechado', 'encerrado', 'cancelado'].includes(s)
+    if (currentUser.value.role === 'user') {
+      if (fechado) myClosedTickets.value.unshift(t)
+      else myOpenTickets.value.unshift(t)
+    } else if (t.status === 'Aberto') {
+      openTickets.value.unshift(t)
+    } else if (t.status === 'Em Andamento') {
+      if (isEmAndamentoVisivel(t)) inProgressTickets.value.unshift(t)
+    } else if (fechado) {
+      closedTickets.value.unshift(t)
+    }
+    if (activeTicket.value?.id === t.id) activeTicket.value = t
+  }
+
+  // A credencial da URL vale para uma única conexão: a reconexão automática do EventSource seria recusada,
+  // então em caso de erro o stream é fechado e reaberto com uma credencial nova
+  async function conectarEventos() {
+    if (!token.value || eventSource) return
+    let credencial: string
+    try {
+      credencial = (await api.post('/api/events/credencial')).data.credencial
+    } catch (error) {
+      console.error(error)
+      agendarReconexao()
+      return
+    }
+    if (!token.value || eventSource) return
+    eventSource = new EventSource(
+      `${api.defaults.baseURL}/api/events?credencial=${encodeURIComponent(credencial)}`,
+    )
+    // Ao (re)conectar, busca o que mudou enquanto o stream esteve fora
+    eventSource.onopen = () => {
+      if (currentUser.value.role !== 'user' && ticketsWatermark) fetchTickets()
+    }
+    eventSource.onerror = () => {
+      desconectarEventos()
+      agendarReconexao()
+    }
+    eventSource.addEventListener('ticket-changed', (e) =>
+      aplicarTicket(JSON.parse((e as MessageEvent).data)),
+    )
+    eventSource.addEventListener('ticket-removed', (e) =>
+      removerTicket(JSON.parse((e as MessageEvent).data).id),
+    )
+    eventSource.addEventListener('stats-delta', (e) => {
+      const delta: Record<string, number> = JSON.parse((e as MessageEvent).data)
+      const stats = dashboardStats.value as Record<string, number>
+      for (const campo of Object.keys(delta)) stats[campo] = (stats[campo] || 0) + (delta[campo] || 0)
+    })
+  }
+
+  function agendarReconexao() {
+    if (reconexao) return
+    reconexao = setTimeout(() => {
+      reconexao = null
+      conectarEventos()
+    }, 3000)
+  }
+
+  function desconectarEventos() {
+    eventSource?.close()
+    eventSource = null
+  }
+
   async function fetchMyTickets() {
     if (!token.value) return
     try {
@@ -195,6 +292,7 @@ export const useTicketStore = defineStore('ticket', () => {
       }
     }
     await api.post('/api/tickets', data, { headers: { 'Content-Type': 'multipart/form-data' } })
+    if (eventosAtivos()) return
     if (currentUser.value.role === 'user') await fetchMyTickets()
     else await fetchTickets()
   }
@@ -227,6 +325,7 @@ export const useTicketStore = defineStore('ticket', () => {
 
   async function updateTicketClassification(id: number, category: string, priority: string) {
     await api.put(`/api/tickets/${id}/classification`, { category, priority })
+    if (eventosAtivos()) return
     if (activeTicket.value && activeTicket.value.id === id) await fetchTicketById(id)
     await fetchTickets()
   }
@@ -268,18 +367,45 @@ export const useTicketStore = defineStore('ticket', () => {
 
   async function assignTicketToSelf(ticketId: number) {
     await api.post(`/api/tickets/${ticketId}/assign-self`)
+    if (eventosAtivos()) return
     await fetchTickets()
     if (activeTicket.value?.id === ticketId) await fetchTicketById(ticketId)
   }
 
+  // Captura o próximo chamado da fila da equipe (null quando a fila está vazia)
+  async function claimNextTicket(): Promise<Ticket | null> {
+    const response = await api.post('/api/tickets/claim-next')
+    if (response.status === 204) return null
+    if (!eventosAtivos()) await fetchTickets()
+    return response.data
+  }
+
+  // Entradas anteriores do histórico do chamado aberto (o detalhe traz só as mais recentes)
+  async function fetchOlderHistory() {
+    const t = activeTicket.value
+    if (!t?.cursorHistorico) return
+    const response = await api.get(`/api/tickets/${t.id}/historico`, {
+      params: { cursor: t.cursorHistorico },
+    })
+    if (activeTicket.value?.id !== t.id) return
+    const anteriores = [...response.data.itens].reverse()
+    activeTicket.value = {
+      ...t,
+      historico: [...anteriores, ...(t.historico || [])],
+      cursorHistorico: response.data.proximoCursor,
+    }
+  }
+
   async function assignTicket(ticketId: number, technicianId: number) {
     await api.post(`/api/tickets/${ticketId}/assign/${technicianId}`)
+    if (eventosAtivos()) return
     await fetchTickets()
     if (activeTicket.value?.id === ticketId) await fetchTicketById(ticketId)
   }
 
   async function closeTicket(ticketId: number, solution: string) {
     await api.post(`/api/tickets/${ticketId}/close`, { solucao: solution })
+    if (eventosAtivos()) return
     if (currentUser.value.role === 'user') await fetchMyTickets()
     else await fetchTickets()
     if (activeTicket.value?.id === ticketId) await fetchTicketById(ticketId)
@@ -287,6 +413,7 @@ export const useTicketStore = defineStore('ticket', () => {
 
   async function reopenTicket(ticketId: number, reason: string) {
     await api.post(`/api/tickets/${ticketId}/reopen`, { motivo: reason })
+    if (eventosAtivos()) return
     if (currentUser.value.role === 'user') await fetchMyTickets()
     else await fetchTickets()
     if (activeTicket.value?.id === ticketId) await fetchTicketById(ticketId)
@@ -331,6 +458,7 @@ export const useTicketStore = defineStore('ticket', () => {
     fetchTickets,
     fetchMyTickets,
     fetchTicketById,
+    fetchOlderHistory,
     fetchDashboardStats,
     createTicket,
     createCategory,
@@ -344,10 +472,13 @@ export const useTicketStore = defineStore('ticket', () => {
     downloadAnexo,
     addCommentToTicket,
     assignTicketToSelf,
+    claimNextTicket,
     assignTicket,
     closeTicket,
     reopenTicket,
     fetchFormData,
     fetchAnalysts,
+    conectarEventos,
+    desconectarEventos,
   }
 })
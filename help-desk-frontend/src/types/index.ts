@@ -62,4 +62,6 @@ export interface Ticket {
   anexos: Anexo[]
   historico: Historico[]
   history?: Historico[]
+  totalHistorico?: number
+  cursorHistorico?: string | null // Entradas anteriores via /api/tickets/{id}/historico
 }
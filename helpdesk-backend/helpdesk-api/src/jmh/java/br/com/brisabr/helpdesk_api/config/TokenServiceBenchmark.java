@@ -0,0 +1,41 @@
+package br.com.brisabr.helpdesk_api.config;
+
+import br.com.brisabr.helpdesk_api.ticket.ChamadosDeExemplo;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+// Validação do JWT: roda no SecurityFilter em toda requisição autenticada
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TokenServiceBenchmark {
+
+    private TokenService tokenService;
+    private String tokenValido;
+    private String tokenAdulterado;
+
+    @Setup
+    public void preparar() {
+        tokenService = new TokenService();
+        Field secret = ReflectionUtils.findField(TokenService.class, "secret");
+        ReflectionUtils.makeAccessible(secret);
+        ReflectionUtils.setField(secret, tokenService, "segredo-do-benchmark");
+
+        tokenValido = tokenService.generateToken(ChamadosDeExemplo.usuario(1L, "tecnico", null));
+        tokenAdulterado = tokenValido.substring(0, tokenValido.length() - 4) + "AAAA";
+    }
+
+    @Benchmark
+    public String validateToken() {
+        return tokenService.validateToken(tokenValido);
+    }
+
+    // Assinatura inválida: caminho da exceção (JWTVerificationException)
+    @Benchmark
+    public String validateTokenAdulterado() {
+        return tokenService.validateToken(tokenAdulterado);
+    }
+}
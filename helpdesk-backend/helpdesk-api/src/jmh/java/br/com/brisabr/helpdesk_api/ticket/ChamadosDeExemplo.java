@@ -0,0 +1,86 @@
+package br.com.brisabr.helpdesk_api.ticket;
+
+import br.com.brisabr.helpdesk_api.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Massa fixa (semente constante) para os benchmarks: mesma distribuição de status/prioridade em toda execução
+public final class ChamadosDeExemplo {
+
+    private static final String[] STATUS = {"Aberto", "Em Andamento", "Em Andamento", "Fechado", "Resolvido"};
+    private static final String[] PRIORIDADES = {"Crítica", "Elevada", "Média", "Baixa", null};
+
+    private ChamadosDeExemplo() {
+    }
+
+    public static List<Ticket> gerar(int quantidade) {
+        Random random = new Random(42);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 8, 0);
+
+        List<Equipe> equipes = new ArrayList<>();
+        for (long i = 1; i <= 5; i++) {
+            Equipe e = new Equipe();
+            e.setId(i);
+            e.setNomeEquipe("Equipe " + i);
+            equipes.add(e);
+        }
+        List<User> usuarios = new ArrayList<>();
+        for (long i = 1; i <= 50; i++) {
+            usuarios.add(usuario(i, i <= 10 ? "tecnico" : "user", equipes.get((int) (i % equipes.size()))));
+        }
+        List<Categoria> categorias = new ArrayList<>();
+        List<Problema> problemas = new ArrayList<>();
+        for (long i = 1; i <= 8; i++) {
+            Categoria c = new Categoria();
+            c.setId(i);
+            c.setNome("Categoria " + i);
+            categorias.add(c);
+            Problema p = new Problema();
+            p.setId(i);
+            p.setNome("Problema " + i);
+            problemas.add(p);
+        }
+
+        List<Ticket> tickets = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            Ticket t = new Ticket();
+            t.setId((long) i + 1);
+            t.setVersao(0L);
+            t.setNumeroChamado(String.format("2024-%06d", i + 1));
+            t.setDescricao("Chamado de exemplo " + i + ": impressora do setor não imprime após atualização do driver");
+            t.setStatus(STATUS[random.nextInt(STATUS.length)]);
+            t.setPrioridade(PRIORIDADES[random.nextInt(PRIORIDADES.length)]);
+            t.setCategoria(categorias.get(random.nextInt(categorias.size())));
+            t.setProblema(problemas.get(random.nextInt(problemas.size())));
+            t.setSolicitante(usuarios.get(10 + random.nextInt(40)));
+            t.setDataAbertura(base.plusMinutes(random.nextInt(60 * 24 * 365)));
+            if (!"Aberto".equals(t.getStatus())) {
+                t.setTecnicoAtribuido(usuarios.get(random.nextInt(10)));
+            }
+            if ("Fechado".equals(t.getStatus()) || "Resolvido".equals(t.getStatus())) {
+                t.setDataFechamento(t.getDataAbertura().plusHours(1 + random.nextInt(72)));
+                t.setSolucao("Driver reinstalado");
+            }
+            // Parte dos chamados sem prazo gravado, como os anteriores à coluna prazo_sla
+            if (random.nextInt(4) != 0) {
+                t.setPrazoSla(Ticket.calculateSlaDeadline(t.getDataAbertura(), t.getPrioridade()));
+            }
+            tickets.add(t);
+        }
+        return tickets;
+    }
+
+    public static User usuario(long id, String perfil, Equipe equipe) {
+        User u = new User();
+        u.setId(id);
+        u.setLogin("usuario" + id);
+        u.setNome("Usuário " + id);
+        u.setEmail("usuario" + id + "@brisabr.com.br");
+        u.setPerfil(perfil);
+        u.setEquipe(equipe);
+        return u;
+    }
+}
@@ -0,0 +1,47 @@
+package br.com.brisabr.helpdesk_api.ticket;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cálculo de prazo (chamado a cada gravação do chamado) e verificação de violação (dashboard, chamado a chamado)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SlaBenchmark {
+
+    private List<Ticket> tickets;
+    private LocalDateTime agora;
+    private int proximo;
+
+    @Setup
+    public void preparar() {
+        tickets = ChamadosDeExemplo.gerar(1024);
+        agora = LocalDateTime.of(2024, 7, 1, 12, 0);
+    }
+
+    @Benchmark
+    public LocalDateTime calculateSlaDeadline() {
+        Ticket t = tickets.get(proximo++ & 1023);
+        return Ticket.calculateSlaDeadline(t.getDataAbertura(), t.getPrioridade());
+    }
+
+    @Benchmark
+    public boolean isSlaViolado() {
+        return tickets.get(proximo++ & 1023).isSlaViolado(agora);
+    }
+
+    // Mesma varredura do getDashboardStats sobre 1024 chamados
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void varreduraDashboard(Blackhole bh) {
+        int violados = 0;
+        for (Ticket t : tickets) {
+            if (t.isSlaViolado(agora)) violados++;
+        }
+        bh.consume(violados);
+    }
+}
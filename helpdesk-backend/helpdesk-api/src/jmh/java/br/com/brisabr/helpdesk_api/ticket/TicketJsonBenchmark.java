@@ -0,0 +1,32 @@
+package br.com.brisabr.helpdesk_api.ticket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serialização da resposta de GET /api/tickets com o ObjectMapper montado como o do Spring Boot
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TicketJsonBenchmark {
+
+    @Param({"50", "500"})
+    public int tamanho;
+
+    private ObjectMapper objectMapper;
+    private List<TicketResponseDTO> pagina;
+
+    @Setup
+    public void preparar() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        pagina = ChamadosDeExemplo.gerar(tamanho).stream().map(TicketResponseDTO::new).toList();
+    }
+
+    @Benchmark
+    public byte[] serializarLista() throws Exception {
+        return objectMapper.writeValueAsBytes(pagina);
+    }
+}
@@ -0,0 +1,36 @@
+package br.com.brisabr.helpdesk_api.ticket;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Montagem do DTO da listagem (sem histórico): roda uma vez por chamado em toda página de GET /api/tickets
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TicketResponseDTOBenchmark {
+
+    private List<Ticket> tickets;
+    private int proximo;
+
+    @Setup
+    public void preparar() {
+        tickets = ChamadosDeExemplo.gerar(1024);
+    }
+
+    @Benchmark
+    public TicketResponseDTO umChamado() {
+        Ticket t = tickets.get(proximo++ & 1023);
+        return new TicketResponseDTO(t);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void paginaDe50(Blackhole bh) {
+        for (int i = 0; i < 50; i++) {
+            bh.consume(new TicketResponseDTO(tickets.get(i)));
+        }
+    }
+}
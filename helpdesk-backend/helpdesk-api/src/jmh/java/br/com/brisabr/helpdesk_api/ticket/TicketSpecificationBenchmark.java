@@ -0,0 +1,81 @@
+package br.com.brisabr.helpdesk_api.ticket;
+
+import br.com.brisabr.helpdesk_api.user.User;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// Montagem dos predicados da listagem no CriteriaBuilder do Hibernate (sem banco: só o metamodelo é usado).
+// Cada invocação cria query/root novos, como acontece a cada requisição.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TicketSpecificationBenchmark {
+
+    @Param({"user", "manager", "tecnico", "admin"})
+    public String perfil;
+
+    private StandardServiceRegistry registry;
+    private SessionFactory sessionFactory;
+    private CriteriaBuilder cb;
+    private User usuario;
+
+    @Setup
+    public void preparar() {
+        registry = new StandardServiceRegistryBuilder()
+                .applySetting("hibernate.dialect", PostgreSQLDialect.class.getName())
+                .applySetting("hibernate.boot.allow_jdbc_metadata_access", "false")
+                .applySetting("hibernate.cache.use_second_level_cache", "false")
+                .applySetting("hibernate.hbm2ddl.auto", "none")
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClasses(Ticket.class, Categoria.class, Problema.class, Equipe.class,
+                        User.class, Anexo.class, Historico.class)
+                .buildMetadata()
+                .buildSessionFactory();
+        cb = sessionFactory.getCriteriaBuilder();
+
+        Equipe equipe = new Equipe();
+        equipe.setId(3L);
+        usuario = ChamadosDeExemplo.usuario(7L, perfil, equipe);
+    }
+
+    @TearDown
+    public void encerrar() {
+        sessionFactory.close();
+        StandardServiceRegistryBuilder.destroy(registry);
+    }
+
+    // Listagem sem filtros: só as regras de perfil
+    @Benchmark
+    public Predicate semFiltros() {
+        return montar(TicketSpecification.withFilters(null, null, null, null, null, null, null,
+                null, null, null, null, usuario));
+    }
+
+    // Filtro completo da tela de chamados: período, status fechado (OR de três), busca e técnico
+    @Benchmark
+    public Predicate filtrosCompletos() {
+        return montar(TicketSpecification.withFilters(
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 6, 30), "fechamento",
+                "Fechado", null, null, null,
+                null, 4L, "impressora", "descricao", usuario));
+    }
+
+    private Predicate montar(Specification<Ticket> spec) {
+        CriteriaQuery<Ticket> query = cb.createQuery(Ticket.class);
+        Root<Ticket> root = query.from(Ticket.class);
+        return spec.toPredicate(root, query, cb);
+    }
+}
@@ -0,0 +1,132 @@
+package br.com.brisabr.helpdesk_api.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Tempo de subida da API empacotada até o readiness responder 200, em JVMs separadas, em cada modo:
+//   padrao       java -jar (perfil padrão: ddl-auto=update, schema-postgresql.sql, todos os beans na subida)
+//   startup      perfil 'startup' com o código gerado pelo Spring AOT (-Dspring.aot.enabled=true)
+//   startup-cds  o anterior com o arquivo AppCDS da tarefa startupCds
+// Sem --jdbc-url usa um Postgres embutido com massa do GeradorDados (mesmos parâmetros), para o ddl-auto e os
+// scripts de inicialização do modo padrão trabalharem sobre tabelas com volume. Não roda como root.
+//   ./gradlew startupBenchmark --args="--repeticoes=10 --chamados=200000"
+public class BenchmarkStartup {
+
+    private static final Pattern STARTED = Pattern.compile("Started \\S+ in ([\\d.]+) seconds \\(process running for ([\\d.]+)\\)");
+
+    private final Parametros p;
+    private final Path app;
+    private final Path arquivoCds;
+    private final Path logs;
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    record Medicao(long prontoMs, Double springSegundos, Double jvmSegundos, long rssKb) {}
+
+    BenchmarkStartup(Parametros p) {
+        this.p = p;
+        this.app = Path.of(p.texto("app", "build/startup/helpdesk-api.jar"));
+        this.arquivoCds = Path.of(p.texto("arquivo", "build/startup/helpdesk-api.jsa"));
+        this.logs = Path.of(p.texto("logs", "build/startup/logs"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Parametros p = new Parametros(args);
+        BenchmarkStartup benchmark = new BenchmarkStartup(p);
+        String jdbcUrl = p.texto("jdbc-url", null);
+        if (jdbcUrl != null) {
+            benchmark.executar(new ProcessoApi(benchmark.app, jdbcUrl, p.texto("jdbc-usuario", "postgres"), p.texto("jdbc-senha", "")));
+            return;
+        }
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            ProcessoApi api = new ProcessoApi(benchmark.app, postgres.getJdbcUrl("postgres", "postgres"), "postgres", "");
+            api.executarAteORefresh(List.of(), List.of(), benchmark.logs.resolve("schema.log"));
+            try (Connection c = postgres.getPostgresDatabase().getConnection()) {
+                new GeradorDados(p).gerar(c);
+            }
+            benchmark.executar(api);
+        }
+    }
+
+    void executar(ProcessoApi api) throws Exception {
+        int repeticoes = p.inteiro("repeticoes", 5);
+        Map<String, List<String>> modos = new LinkedHashMap<>();
+        modos.put("padrao", List.of());
+        modos.put("startup", List.of("-Dspring.aot.enabled=true"));
+        if (Files.exists(arquivoCds)) {
+            modos.put("startup-cds", List.of("-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=" + arquivoCds.toAbsolutePath()));
+        } else {
+            System.out.println("Sem " + arquivoCds + ": modo startup-cds ignorado (rode ./gradlew startupCds)");
+        }
+
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        System.out.printf("%-12s %10s %10s %10s %10s %10s%n", "modo", "pronto p50", "min", "max", "spring p50", "rss MB p50");
+        for (Map.Entry<String, List<String>> modo : modos.entrySet()) {
+            List<String> argsApp = new ArrayList<>(List.of("--management.endpoint.health.probes.enabled=true"));
+            if (!modo.getKey().equals("padrao")) argsApp.add("--spring.profiles.active=startup");
+
+            medir(api, modo.getKey(), modo.getValue(), argsApp, 0); // aquece o cache de disco do SO
+            List<Medicao> medicoes = new ArrayList<>();
+            for (int i = 1; i <= repeticoes; i++) {
+                medicoes.add(medir(api, modo.getKey(), modo.getValue(), argsApp, i));
+            }
+
+            long[] pronto = medicoes.stream().mapToLong(Medicao::prontoMs).sorted().toArray();
+            double spring = mediana(medicoes.stream().map(Medicao::springSegundos).filter(v -> v != null).mapToDouble(v -> v).sorted().toArray());
+            double rssMb = mediana(medicoes.stream().mapToDouble(m -> m.rssKb() / 1024.0).sorted().toArray());
+            System.out.printf("%-12s %8d ms %7d ms %7d ms %8.2f s %10.0f%n",
+                    modo.getKey(), pronto[pronto.length / 2], pronto[0], pronto[pronto.length - 1], spring, rssMb);
+
+            Map<String, Object> resumo = new LinkedHashMap<>();
+            resumo.put("opcoesJvm", modo.getValue());
+            resumo.put("prontoMsMediana", pronto[pronto.length / 2]);
+            resumo.put("prontoMsMin", pronto[0]);
+            resumo.put("prontoMsMax", pronto[pronto.length - 1]);
+            resumo.put("springSegundosMediana", spring);
+            resumo.put("rssMbMediana", rssMb);
+            resumo.put("medicoes", medicoes);
+            resultado.put(modo.getKey(), resumo);
+        }
+
+        Path saida = Path.of(p.texto("saida", "build/loadtest/startup.json"));
+        if (saida.getParent() != null) Files.createDirectories(saida.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(saida.toFile(), resultado);
+        System.out.println("Relatório: " + saida.toAbsolutePath());
+    }
+
+    private Medicao medir(ProcessoApi api, String modo, List<String> opcoesJvm, List<String> argsApp, int vez) throws Exception {
+        int porta = ProcessoApi.portaLivre();
+        List<String> args = new ArrayList<>(argsApp);
+        args.add("--server.port=" + porta);
+        Path log = logs.resolve(modo + "-" + vez + ".log");
+
+        long inicio = System.nanoTime();
+        Process processo = api.iniciar(opcoesJvm, args, log);
+        try {
+            ProcessoApi.aguardarPronto(processo, http, porta, log);
+            long prontoMs = (System.nanoTime() - inicio) / 1_000_000;
+            long rss = ProcessoApi.rssKb(processo);
+            Matcher m = STARTED.matcher(Files.readString(log));
+            return m.find()
+                    ? new Medicao(prontoMs, Double.parseDouble(m.group(1)), Double.parseDouble(m.group(2)), rss)
+                    : new Medicao(prontoMs, null, null, rss);
+        } finally {
+            ProcessoApi.encerrar(processo);
+        }
+    }
+
+    private static double mediana(double[] ordenados) {
+        return ordenados.length == 0 ? Double.NaN : ordenados[ordenados.length / 2];
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.brisabr.helpdesk_api.loadtest;
+
+import br.com.brisabr.helpdesk_api.HelpdeskApiApplication;
+import br.com.brisabr.helpdesk_api.analytics.PercentilAtendimentoService;
+import br.com.brisabr.helpdesk_api.routing.MotorRoteamento;
+import br.com.brisabr.helpdesk_api.ticket.ReferenciaCache;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+// Postgres embutido + API no mesmo processo: sobe a aplicação (o Hibernate cria o schema), gera a massa,
+// recarrega o que a API lê só na subida e roda o cenário. Não precisa de banco instalado.
+// Como a API divide a JVM com o gerador de carga, use para comparar versões, não como número absoluto.
+public class CargaEmbutida {
+
+    public static void main(String[] args) throws Exception {
+        Parametros p = new Parametros(args);
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            String jdbcUrl = postgres.getJdbcUrl("postgres", "postgres");
+
+            ConfigurableApplicationContext api = subirApi(jdbcUrl);
+            try {
+                try (Connection c = postgres.getPostgresDatabase().getConnection()) {
+                    new GeradorDados(p).gerar(c);
+                }
+                recarregarEstado(api);
+
+                String porta = api.getEnvironment().getProperty("local.server.port");
+                List<String> argsCenario = new ArrayList<>(List.of(args));
+                argsCenario.removeIf(a -> a.startsWith("--url="));
+                argsCenario.add("--url=http://localhost:" + porta);
+                new CenarioCarga(new Parametros(argsCenario.toArray(String[]::new))).executar();
+            } finally {
+                api.close();
+            }
+        }
+    }
+
+    // Como argumentos de linha de comando para terem precedência sobre o application.properties
+    static ConfigurableApplicationContext subirApi(String jdbcUrl, Class<?>... fontesExtras) {
+        List<Class<?>> fontes = new ArrayList<>(List.of(HelpdeskApiApplication.class));
+        fontes.addAll(List.of(fontesExtras));
+        return new SpringApplicationBuilder(fontes.toArray(Class<?>[]::new)).run(
+                "--spring.datasource.url=" + jdbcUrl + "&reWriteBatchedInserts=true",
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=",
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--helpdesk.log.formato=texto",
+                "--logging.level.root=WARN");
+    }
+
+    // A massa entrou por fora da API: recarrega caches e estado em memória montados na subida
+    static void recarregarEstado(ConfigurableApplicationContext api) {
+        api.getBean(ReferenciaCache.class).carregar();
+        api.getBean(MotorRoteamento.class).reconciliar();
+        api.getBean(PercentilAtendimentoService.class).reconstruir();
+    }
+}
@@ -0,0 +1,266 @@
+package br.com.brisabr.helpdesk_api.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Cenário de carga em modelo fechado: cada usuário virtual faz login como um usuário da massa (GeradorDados)
+// e repete operações do seu perfil com uma pausa exponencial entre elas.
+//   solicitante: meus chamados, listagem, busca, detalhe, abertura
+//   técnico:     fila de trabalho, captura (assign-self), fechamento, detalhe + histórico, listagem
+//   gestor:      dashboard, relatórios, listagem do período
+// Relata vazão e percentis por endpoint a cada intervalo e no fim (também em JSON).
+public class CenarioCarga {
+
+    private static final String[] TERMOS_BUSCA = {"impressora", "vpn", "senha", "e-mail", "lento", "erp", "wi-fi", "backup"};
+
+    private final Parametros p;
+    private final String url;
+    private final int duracaoSegundos;
+    private final int usuariosVirtuais;
+    private final int rampaSegundos;
+    private final double pausaMs;
+    private final int reloginACada;
+    private final String prefixo;
+    private final String senha;
+    private final int tecnicos;
+    private final int gestores;
+    private final int solicitantes;
+    private final Sorteio<String> perfis;
+    private final Metricas metricas = new Metricas();
+
+    private List<Long> categorias = List.of();
+    private List<Long> problemas = List.of();
+
+    public CenarioCarga(Parametros p) {
+        this.p = p;
+        this.url = p.texto("url", "http://localhost:8080");
+        this.duracaoSegundos = p.inteiro("duracao", 60);
+        this.usuariosVirtuais = p.inteiro("usuarios-virtuais", 20);
+        this.rampaSegundos = p.inteiro("rampa", 10);
+        this.pausaMs = p.decimal("pausa-ms", 500);
+        this.reloginACada = p.inteiro("relogin-a-cada", 50);
+        this.prefixo = p.texto("prefixo", "carga");
+        this.senha = p.texto("senha-usuarios", "Carga@123");
+        this.tecnicos = p.inteiro("tecnicos", 60);
+        this.gestores = p.inteiro("gestores", 8);
+        this.solicitantes = p.inteiro("solicitantes", 2000);
+        this.perfis = Sorteio.porPesos(p.pesos("perfis", "solicitante:60,tecnico:30,gestor:10"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        new CenarioCarga(new Parametros(args)).executar();
+    }
+
+    public List<Metricas.Linha> executar() throws Exception {
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        Duration timeout = Duration.ofMillis(p.longo("timeout-ms", 30_000));
+        carregarReferencias(new ClienteApi(http, url, timeout, new Metricas()));
+
+        SplittableRandom semente = new SplittableRandom(p.longo("semente", 7));
+        long fimNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(duracaoSegundos + rampaSegundos);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < usuariosVirtuais; i++) {
+            UsuarioVirtual vu = new UsuarioVirtual(new ClienteApi(http, url, timeout, metricas), semente.split(),
+                    (long) i * rampaSegundos * 1000 / Math.max(1, usuariosVirtuais), fimNanos);
+            Thread t = new Thread(vu, "vu-" + i);
+            t.setDaemon(true);
+            threads.add(t);
+            t.start();
+        }
+
+        int intervalo = p.inteiro("intervalo-relatorio", 10);
+        ScheduledExecutorService relator = Executors.newSingleThreadScheduledExecutor();
+        relator.scheduleAtFixedRate(() -> System.out.print("\n" + Metricas.formatar(metricas.fecharIntervalo())),
+                intervalo, intervalo, TimeUnit.SECONDS);
+        for (Thread t : threads) t.join();
+        relator.shutdownNow();
+        relator.awaitTermination(5, TimeUnit.SECONDS);
+
+        List<Metricas.Linha> totais = metricas.totais();
+        System.out.println("\n=== Resultado (" + usuariosVirtuais + " usuários virtuais, " + duracaoSegundos + "s + rampa "
+                + rampaSegundos + "s) ===");
+        System.out.print(Metricas.formatar(totais));
+
+        Map<String, Object> cenario = new LinkedHashMap<>();
+        cenario.put("url", url);
+        cenario.put("usuariosVirtuais", usuariosVirtuais);
+        cenario.put("duracaoSegundos", duracaoSegundos);
+        cenario.put("rampaSegundos", rampaSegundos);
+        cenario.put("pausaMs", pausaMs);
+        cenario.put("perfis", p.texto("perfis", "solicitante:60,tecnico:30,gestor:10"));
+        Path saida = Path.of(p.texto("saida", "build/loadtest/relatorio.json"));
+        Metricas.salvar(saida, cenario, totais);
+        System.out.println("Relatório: " + saida.toAbsolutePath());
+        return totais;
+    }
+
+    private void carregarReferencias(ClienteApi cliente) {
+        if (!cliente.login(prefixo + ".sol00001", senha)) {
+            throw new IllegalStateException("Login de " + prefixo + ".sol00001 falhou: a massa do GeradorDados foi gerada?");
+        }
+        categorias = ids(cliente.get("GET /api/categorias", "/api/categorias", Map.of()));
+        problemas = ids(cliente.get("GET /api/problemas", "/api/problemas", Map.of()));
+    }
+
+    private static List<Long> ids(ClienteApi.Resposta r) {
+        List<Long> ids = new ArrayList<>();
+        if (r.corpo() != null) r.corpo().forEach(n -> ids.add(n.path("id").asLong()));
+        return ids;
+    }
+
+    private class UsuarioVirtual implements Runnable {
+
+        private final ClienteApi api;
+        private final SplittableRandom random;
+        private final long atrasoInicialMs;
+        private final long fimNanos;
+        private final String perfil;
+        private final String login;
+        // Chamados que este usuário conhece (vistos em listagens) e, no técnico, os que capturou
+        private final List<Long> conhecidos = new ArrayList<>();
+        private final Deque<Long> capturados = new ArrayDeque<>();
+
+        UsuarioVirtual(ClienteApi api, SplittableRandom random, long atrasoInicialMs, long fimNanos) {
+            this.api = api;
+            this.random = random;
+            this.atrasoInicialMs = atrasoInicialMs;
+            this.fimNanos = fimNanos;
+            this.perfil = perfis.sortear(random);
+            this.login = switch (perfil) {
+                case "tecnico" -> String.format("%s.tec%04d", prefixo, 1 + random.nextInt(tecnicos));
+                case "gestor" -> String.format("%s.ges%02d", prefixo, 1 + random.nextInt(gestores));
+                default -> String.format("%s.sol%05d", prefixo, 1 + random.nextInt(solicitantes));
+            };
+        }
+
+        @Override
+        public void run() {
+            try {
+                Thread.sleep(atrasoInicialMs);
+                for (long iteracao = 0; System.nanoTime() < fimNanos; iteracao++) {
+                    if ((iteracao % reloginACada == 0 || !api.autenticado()) && !api.login(login, senha)) {
+                        pausar();
+                        continue;
+                    }
+                    switch (perfil) {
+                        case "tecnico" -> tecnico();
+                        case "gestor" -> gestor();
+                        default -> solicitante();
+                    }
+                    pausar();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void solicitante() {
+            int sorteio = random.nextInt(100);
+            if (sorteio < 30) {
+                lembrar(api.get("GET /api/tickets/me", "/api/tickets/me", Map.of()).corpo());
+            } else if (sorteio < 45) {
+                lembrar(api.get("GET /api/tickets?status", "/api/tickets", Map.of("status", "Aberto")).corpo());
+            } else if (sorteio < 65) {
+                api.get("GET /api/tickets?search", "/api/tickets", Map.of(
+                        "search", TERMOS_BUSCA[random.nextInt(TERMOS_BUSCA.length)], "searchType", "descricao"));
+            } else if (sorteio < 80 && !conhecidos.isEmpty()) {
+                detalhe(false);
+            } else {
+                Map<String, Object> dto = new LinkedHashMap<>();
+                dto.put("descricao", "Chamado de carga: " + TERMOS_BUSCA[random.nextInt(TERMOS_BUSCA.length)] + " com problema");
+                if (!categorias.isEmpty()) dto.put("idCategoria", categorias.get(random.nextInt(categorias.size())));
+                if (!problemas.isEmpty()) dto.put("idProblema", problemas.get(random.nextInt(problemas.size())));
+                ClienteApi.Resposta r = api.postMultipart("POST /api/tickets", "/api/tickets", "ticket", dto);
+                if (r.ok() && r.corpo() != null) conhecidos.add(0, r.corpo().path("id").asLong());
+            }
+        }
+
+        private void tecnico() {
+            int sorteio = random.nextInt(100);
+            if (sorteio < 30 || (sorteio < 50 && conhecidos.isEmpty())) {
+                JsonNode fila = api.get("GET /api/tickets/work-queue", "/api/tickets/work-queue", Map.of("limit", "50")).corpo();
+                if (fila != null) {
+                    conhecidos.clear();
+                    for (JsonNode item : fila.path("itens")) {
+                        if ("Aberto".equals(item.path("ticket").path("status").asText())) {
+                            conhecidos.add(item.path("ticket").path("id").asLong());
+                        }
+                    }
+                }
+            } else if (sorteio < 50) {
+                // Outro técnico pode ter capturado antes: 409/erro entra na contagem do endpoint
+                long id = conhecidos.remove(random.nextInt(conhecidos.size()));
+                ClienteApi.Resposta r = api.postJson("POST /api/tickets/{id}/assign-self",
+                        "/api/tickets/" + id + "/assign-self", Map.of());
+                if (r.ok()) capturados.add(id);
+            } else if (sorteio < 70 && !capturados.isEmpty()) {
+                long id = capturados.poll();
+                api.postJson("POST /api/tickets/{id}/close", "/api/tickets/" + id + "/close",
+                        Map.of("solucao", "Resolvido durante o teste de carga"));
+            } else if (sorteio < 85 && !(conhecidos.isEmpty() && capturados.isEmpty())) {
+                detalhe(true);
+            } else {
+                lembrar(api.get("GET /api/tickets?status", "/api/tickets", Map.of("status", "Em Andamento")).corpo());
+            }
+        }
+
+        private void gestor() {
+            int sorteio = random.nextInt(100);
+            if (sorteio < 40) {
+                api.get("GET /api/dashboard/stats", "/api/dashboard/stats", Map.of());
+            } else if (sorteio < 60) {
+                api.get("GET /api/reports/percentis", "/api/reports/percentis", Map.of());
+            } else if (sorteio < 75) {
+                api.get("GET /api/reports/mensal", "/api/reports/mensal",
+                        Map.of("year", String.valueOf(LocalDate.now().getYear())));
+            } else {
+                LocalDate hoje = LocalDate.now();
+                api.get("GET /api/tickets?periodo", "/api/tickets", Map.of(
+                        "dataInicial", hoje.minusDays(30).toString(), "dataFinal", hoje.toString(),
+                        "tipoData", "abertura", "status", "Aberto"));
+            }
+        }
+
+        private void detalhe(boolean comHistorico) {
+            Long id = !capturados.isEmpty() ? capturados.peekFirst()
+                    : !conhecidos.isEmpty() ? conhecidos.get(random.nextInt(conhecidos.size())) : null;
+            if (id == null) return;
+            api.get("GET /api/tickets/{id}", "/api/tickets/" + id, Map.of());
+            if (comHistorico) {
+                api.get("GET /api/tickets/{id}/historico", "/api/tickets/" + id + "/historico", Map.of("limit", "50"));
+            }
+        }
+
+        // Guarda até 50 ids da última listagem para as operações de detalhe
+        private void lembrar(JsonNode lista) {
+            if (lista == null || !lista.isArray()) return;
+            conhecidos.clear();
+            for (JsonNode t : lista) {
+                conhecidos.add(t.path("id").asLong());
+                if (conhecidos.size() >= 50) break;
+            }
+        }
+
+        private void pausar() throws InterruptedException {
+            long ms = (long) Sorteio.exponencial(random, pausaMs);
+            if (ms > 0) Thread.sleep(ms);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package br.com.brisabr.helpdesk_api.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Um por usuário virtual (guarda o token); o HttpClient é compartilhado. A latência medida vai do envio
+// até o corpo inteiro recebido; o parse do JSON fica de fora.
+public class ClienteApi {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final Duration timeout;
+    private final Metricas metricas;
+    private String token;
+
+    public record Resposta(int status, JsonNode corpo) {
+        public boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    public ClienteApi(HttpClient http, String baseUrl, Duration timeout, Metricas metricas) {
+        this.http = http;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeout = timeout;
+        this.metricas = metricas;
+    }
+
+    public boolean login(String login, String senha) {
+        Resposta r = postJson("POST /api/auth/login", "/api/auth/login", Map.of("login", login, "senha", senha));
+        token = (r.ok() && r.corpo() != null) ? r.corpo().path("token").asText(null) : null;
+        return token != null;
+    }
+
+    public boolean autenticado() {
+        return token != null;
+    }
+
+    public Resposta get(String rotulo, String caminho, Map<String, String> query) {
+        String qs = query.isEmpty() ? "" : "?" + query.entrySet().stream()
+                .map(e -> e.getKey() + "=" + URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+        return enviar(rotulo, requisicao(caminho + qs).GET());
+    }
+
+    public Resposta postJson(String rotulo, String caminho, Object corpo) {
+        return enviar(rotulo, requisicao(caminho)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(serializar(corpo))));
+    }
+
+    // Mesmo formato do front: parte "ticket" em JSON (TicketController.createTicket)
+    public Resposta postMultipart(String rotulo, String caminho, String parte, Object json) {
+        String boundary = "carga-" + UUID.randomUUID();
+        String corpo = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + parte + "\"\r\n"
+                + "Content-Type: application/json\r\n\r\n"
+                + new String(serializar(json), StandardCharsets.UTF_8) + "\r\n"
+                + "--" + boundary + "--\r\n";
+        return enviar(rotulo, requisicao(caminho)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofString(corpo, StandardCharsets.UTF_8)));
+    }
+
+    private HttpRequest.Builder requisicao(String caminho) {
+        HttpRequest.Builder b = HttpRequest.newBuilder(URI.create(baseUrl + caminho)).timeout(timeout);
+        if (token != null) b.header("Authorization", "Bearer " + token);
+        return b;
+    }
+
+    private Resposta enviar(String rotulo, HttpRequest.Builder requisicao) {
+        long inicio = System.nanoTime();
+        HttpResponse<byte[]> resposta;
+        try {
+            resposta = http.send(requisicao.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            metricas.registrar(rotulo, System.nanoTime() - inicio, 0);
+            return new Resposta(0, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Resposta(0, null);
+        }
+        metricas.registrar(rotulo, System.nanoTime() - inicio, resposta.statusCode());
+
+        JsonNode corpo = null;
+        String tipo = resposta.headers().firstValue("Content-Type").orElse("");
+        if (tipo.contains("json") && resposta.body().length > 0) {
+            try {
+                corpo = JSON.readTree(resposta.body());
+            } catch (IOException ignorado) {
+                // Corpo inválido conta só pelo status
+            }
+        }
+        return new Resposta(resposta.statusCode(), corpo);
+    }
+
+    private static byte[] serializar(Object corpo) {
+        try {
+            return JSON.writeValueAsBytes(corpo);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package br.com.brisabr.helpdesk_api.loadtest;
+
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// COPY ... FROM STDIN no formato texto do Postgres (tab entre colunas, \N para nulo), enviado em blocos de ~1 MB
+public class EscritorCopy implements AutoCloseable {
+
+    private static final int TAMANHO_BLOCO = 1 << 20;
+    private static final DateTimeFormatter DATA_HORA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final CopyIn copy;
+    private final StringBuilder buffer = new StringBuilder(TAMANHO_BLOCO + 4096);
+    private boolean inicioDaLinha = true;
+    private long linhas;
+
+    public EscritorCopy(CopyManager copyManager, String tabela, String colunas) throws SQLException {
+        this.copy = copyManager.copyIn("COPY " + tabela + " (" + colunas + ") FROM STDIN");
+    }
+
+    public EscritorCopy coluna(Object valor) {
+        if (!inicioDaLinha) buffer.append('\t');
+        inicioDaLinha = false;
+        if (valor == null) {
+            buffer.append("\\N");
+        } else if (valor instanceof LocalDateTime dataHora) {
+            buffer.append(DATA_HORA.format(dataHora));
+        } else if (valor instanceof Boolean b) {
+            buffer.append(b ? 't' : 'f');
+        } else if (valor instanceof Number) {
+            buffer.append(valor);
+        } else {
+            escapar(valor.toString());
+        }
+        return this;
+    }
+
+    public void fimDaLinha() throws SQLException {
+        buffer.append('\n');
+        inicioDaLinha = true;
+        linhas++;
+        if (buffer.length() >= TAMANHO_BLOCO) descarregar();
+    }
+
+    public long getLinhas() {
+        return linhas;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        descarregar();
+        copy.endCopy();
+    }
+
+    private void descarregar() throws SQLException {
+        if (buffer.length() == 0) return;
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copy.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    private void escapar(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '\\' -> buffer.append("\\\\");
+                case '\t' -> buffer.append("\\t");
+                case '\n' -> buffer.append("\\n");
+                case '\r' -> buffer.append("\\r");
+                default -> buffer.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,505 @@
+package br.com.brisabr.helpdesk_api.loadtest;
+
+import br.com.brisabr.helpdesk_api.ticket.NumeroChamadoGenerator;
+import br.com.brisabr.helpdesk_api.ticket.Ticket;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+// Massa sintética com volume de produção: equipes, técnicos, gestores, solicitantes, categorias, problemas,
+// chamados, histórico e anexos. Chamados, histórico e anexos vão por COPY, em lotes com commit próprio.
+// Os ids vêm das mesmas sequências das entidades (blocos do otimizador pooled), então a API pode
+// continuar gravando depois sem colisão. Rodar com a API parada: o NumeroChamadoGenerator e o
+// ReferenciaCache leem o banco só na subida.
+public class GeradorDados {
+
+    static final String URL_PADRAO = "jdbc:postgresql://localhost:5432/helpdesk_db";
+
+    private static final String[] NOMES_CATEGORIAS = {"Hardware", "Software", "Rede", "Acesso", "E-mail", "Impressão",
+            "Telefonia", "ERP", "Segurança", "Banco de Dados", "Mobile", "Infraestrutura"};
+    private static final String[] NOMES_PROBLEMAS = {"Impressora não imprime", "Sem acesso à VPN", "Senha expirada",
+            "E-mail não sincroniza", "Computador lento", "Sistema fora do ar", "Erro no ERP", "Monitor sem imagem",
+            "Wi-Fi instável", "Instalação de software", "Permissão de pasta", "Telefone sem linha", "Backup falhou",
+            "Certificado vencido", "Celular corporativo", "Licença expirada"};
+    private static final String[] DETALHES = {"desde a atualização de ontem", "somente no período da manhã",
+            "após trocar de estação de trabalho", "para todo o setor financeiro", "ao acessar pelo notebook",
+            "com mensagem de erro intermitente", "depois da queda de energia", "só em reuniões remotas"};
+    private static final String[] COMENTARIOS = {"Poderia verificar novamente?", "Reiniciei e o problema persiste",
+            "Enviei o print do erro", "Aguardando retorno do fornecedor", "Acesso remoto agendado para a tarde",
+            "Testado em outra máquina, mesmo comportamento", "Ok, vou acompanhar"};
+    private static final String[] SOLUCOES = {"Driver reinstalado", "Senha redefinida", "Permissão concedida",
+            "Serviço reiniciado", "Equipamento substituído", "Configuração corrigida", "Cache limpo"};
+
+    private final int numEquipes;
+    private final int numTecnicos;
+    private final int numGestores;
+    private final int numSolicitantes;
+    private final int numCategorias;
+    private final int numProblemas;
+    private final long numChamados;
+    private final int meses;
+    private final int diasRecentes;
+    private final double historicoMedio;
+    private final double fracaoAnexos;
+    private final int bytesAnexo;
+    private final double fracaoReabertos;
+    private final double fatorResolucao;
+    private final double sigmaResolucao;
+    private final double zipfSolicitantes;
+    private final double zipfCategorias;
+    private final int tamanhoLote;
+    private final String prefixo;
+    private final String senhaUsuarios;
+    private final Sorteio<String> statusRecentes;
+    private final Sorteio<String> prioridades;
+    private final SplittableRandom random;
+
+    private final Map<Integer, Integer> ultimoSequencialPorAno = new HashMap<>();
+    private final Map<String, Long> incrementoPorSequencia = new HashMap<>();
+
+    public GeradorDados(Parametros p) {
+        this.numEquipes = p.inteiro("equipes", 8);
+        this.numTecnicos = p.inteiro("tecnicos", 60);
+        this.numGestores = p.inteiro("gestores", 8);
+        this.numSolicitantes = p.inteiro("solicitantes", 2000);
+        this.numCategorias = p.inteiro("categorias", 12);
+        this.numProblemas = p.inteiro("problemas", 40);
+        this.numChamados = p.longo("chamados", 50_000);
+        this.meses = p.inteiro("meses", 24);
+        this.diasRecentes = p.inteiro("dias-recentes", 30);
+        this.historicoMedio = p.decimal("historico-medio", 10);
+        this.fracaoAnexos = p.decimal("anexos", 0.15);
+        this.bytesAnexo = p.inteiro("anexo-bytes", 4096);
+        this.fracaoReabertos = p.decimal("reabertos", 0.03);
+        this.fatorResolucao = p.decimal("resolucao-fator", 0.6);
+        this.sigmaResolucao = p.decimal("resolucao-sigma", 1.0);
+        this.zipfSolicitantes = p.decimal("zipf-solicitantes", 1.0);
+        this.zipfCategorias = p.decimal("zipf-categorias", 0.8);
+        this.tamanhoLote = p.inteiro("lote", 20_000);
+        this.prefixo = p.texto("prefixo", "carga");
+        this.senhaUsuarios = p.texto("senha-usuarios", "Carga@123");
+        // Só os chamados dos últimos 'dias-recentes' dias podem estar em aberto; os mais antigos estão fechados
+        this.statusRecentes = Sorteio.porPesos(p.pesos("status-recentes", "Aberto:25,Em Andamento:30,Fechado:45"));
+        this.prioridades = Sorteio.porPesos(p.pesos("prioridades", "Crítica:5,Elevada:20,Média:50,Baixa:25"));
+        this.random = new SplittableRandom(p.longo("semente", 42));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Parametros p = new Parametros(args);
+        try (Connection c = DriverManager.getConnection(p.texto("jdbc-url", URL_PADRAO),
+                p.texto("jdbc-usuario", "postgres"), p.texto("jdbc-senha", "admin"))) {
+            new GeradorDados(p).gerar(c);
+        }
+    }
+
+    record Usuario(long id, String nome, Long equipeId) {}
+
+    record Referencia(long id, String nome) {}
+
+    static class Chamado {
+        long id;
+        String numero;
+        String descricao;
+        String status;
+        String prioridade;
+        long categoriaId;
+        Referencia problema;
+        Usuario solicitante;
+        Usuario tecnico;
+        LocalDateTime abertura;
+        LocalDateTime primeiraResposta;
+        LocalDateTime fechamento;
+        String solucao;
+        boolean reaberto;
+        int historicos;
+        boolean comAnexo;
+    }
+
+    record Entrada(long chamadoId, Long autorId, LocalDateTime dataHora, String acao, String comentario) {}
+
+    public void gerar(Connection c) throws SQLException {
+        if (!tabelaExiste(c, "chamados")) {
+            throw new IllegalStateException("Tabela 'chamados' não existe: suba a API uma vez para o Hibernate criar o schema");
+        }
+        long inicio = System.nanoTime();
+        c.setAutoCommit(false);
+
+        List<Long> equipes = garantirEquipes(c);
+        List<Referencia> categorias = garantirReferencias(c, "categorias", NOMES_CATEGORIAS, numCategorias, false);
+        List<Referencia> problemas = garantirReferencias(c, "problemas", NOMES_PROBLEMAS, numProblemas, true);
+        Map<String, List<Usuario>> usuarios = garantirUsuarios(c, equipes);
+        long oidAnexo = criarConteudoAnexo(c);
+        c.commit();
+
+        List<Usuario> tecnicos = usuarios.get("tecnico");
+        List<Usuario> solicitantes = usuarios.get("user");
+        Map<Long, List<Usuario>> tecnicosPorEquipe = new HashMap<>();
+        for (Usuario t : tecnicos) tecnicosPorEquipe.computeIfAbsent(t.equipeId(), k -> new ArrayList<>()).add(t);
+
+        Sorteio<Usuario> sorteioSolicitante = Sorteio.zipf(solicitantes, zipfSolicitantes);
+        Sorteio<Referencia> sorteioCategoria = Sorteio.zipf(categorias, zipfCategorias);
+        Sorteio<Referencia> sorteioProblema = Sorteio.zipf(problemas, zipfCategorias);
+
+        LocalDateTime agora = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime primeiraAbertura = agora.minusMonths(meses);
+        long periodoSegundos = Duration.between(primeiraAbertura, agora).getSeconds();
+        LocalDateTime limiteRecentes = agora.minusDays(diasRecentes);
+
+        CopyManager copyManager = c.unwrap(PGConnection.class).getCopyAPI();
+        long historicos = 0, anexos = 0;
+        for (long gerados = 0; gerados < numChamados; ) {
+            int tamanho = (int) Math.min(tamanhoLote, numChamados - gerados);
+            List<Chamado> lote = new ArrayList<>(tamanho);
+            for (int i = 0; i < tamanho; i++, gerados++) {
+                // Aberturas crescentes ao longo do período, para a numeração anual seguir a ordem cronológica
+                long segundos = (long) (periodoSegundos * ((gerados + random.nextDouble()) / numChamados));
+                Chamado ch = novoChamado(primeiraAbertura.plusSeconds(segundos), agora, limiteRecentes,
+                        sorteioSolicitante, sorteioCategoria, sorteioProblema, tecnicos, tecnicosPorEquipe);
+                lote.add(ch);
+            }
+            numerar(c, lote);
+            long[] idsChamados = reservarIds(c, "chamados_id_seq", lote.size());
+            for (int i = 0; i < lote.size(); i++) lote.get(i).id = idsChamados[i];
+
+            List<Entrada> entradas = new ArrayList<>();
+            for (Chamado ch : lote) montarHistorico(ch, agora, entradas);
+            long[] idsHistorico = reservarIds(c, "historico_chamados_id_seq", entradas.size());
+            int comAnexo = (int) lote.stream().filter(ch -> ch.comAnexo).count();
+            long[] idsAnexos = reservarIds(c, "anexos_chamados_id_seq", comAnexo);
+
+            copiarChamados(c, copyManager, lote);
+            historicos += copiarHistorico(copyManager, entradas, idsHistorico);
+            anexos += copiarAnexos(copyManager, lote, idsAnexos, oidAnexo);
+            c.commit();
+
+            double segundosDecorridos = (System.nanoTime() - inicio) / 1e9;
+            System.out.printf("chamados %,d/%,d | histórico %,d | anexos %,d | %.0f chamados/s%n",
+                    gerados, numChamados, historicos, anexos, gerados / segundosDecorridos);
+        }
+
+        c.setAutoCommit(true);
+        try (Statement st = c.createStatement()) {
+            st.execute("ANALYZE usuarios, equipes, categorias, problemas, chamados, historico_chamados, anexos_chamados");
+        }
+        System.out.printf("Massa gerada em %.1fs. Logins '%s.*' com a senha '%s'. " +
+                        "Reconstrua os percentis com POST /api/reports/percentis/reconstruir.%n",
+                (System.nanoTime() - inicio) / 1e9, prefixo, senhaUsuarios);
+    }
+
+    private Chamado novoChamado(LocalDateTime abertura, LocalDateTime agora, LocalDateTime limiteRecentes,
+                                Sorteio<Usuario> sorteioSolicitante, Sorteio<Referencia> sorteioCategoria,
+                                Sorteio<Referencia> sorteioProblema, List<Usuario> tecnicos,
+                                Map<Long, List<Usuario>> tecnicosPorEquipe) {
+        Chamado ch = new Chamado();
+        ch.abertura = abertura;
+        ch.solicitante = sorteioSolicitante.sortear(random);
+        ch.categoriaId = sorteioCategoria.sortear(random).id();
+        ch.problema = sorteioProblema.sortear(random);
+        ch.prioridade = prioridades.sortear(random);
+        ch.descricao = ch.problema.nome() + " " + DETALHES[random.nextInt(DETALHES.length)]
+                + ". Patrimônio " + (10000 + random.nextInt(90000)) + ".";
+        ch.status = abertura.isAfter(limiteRecentes) ? statusRecentes.sortear(random) : "Fechado";
+
+        if (!"Aberto".equals(ch.status)) {
+            // Técnico da equipe do solicitante, como faz o roteamento; sem equipe, qualquer técnico
+            List<Usuario> daEquipe = tecnicosPorEquipe.getOrDefault(ch.solicitante.equipeId(), tecnicos);
+            ch.tecnico = daEquipe.get(random.nextInt(daEquipe.size()));
+
+            long janelaSla = Duration.between(abertura, Ticket.calculateSlaDeadline(abertura, ch.prioridade)).toMinutes();
+            long resolucao = Math.max(5, (long) Sorteio.logNormal(random, janelaSla * fatorResolucao, sigmaResolucao));
+            ch.primeiraResposta = abertura.plusMinutes(Math.max(1, (long) (resolucao * (0.05 + 0.3 * random.nextDouble()))));
+            if (ch.primeiraResposta.isAfter(agora)) ch.primeiraResposta = agora;
+
+            LocalDateTime fechamento = abertura.plusMinutes(resolucao);
+            if ("Fechado".equals(ch.status) && fechamento.isBefore(agora)) {
+                ch.fechamento = fechamento;
+                ch.solucao = SOLUCOES[random.nextInt(SOLUCOES.length)];
+                ch.reaberto = random.nextDouble() < fracaoReabertos;
+            } else {
+                ch.status = "Em Andamento";
+            }
+        }
+        ch.historicos = Sorteio.geometrica(random, historicoMedio);
+        ch.comAnexo = random.nextDouble() < fracaoAnexos;
+        return ch;
+    }
+
+    // Mesmas ações que o TicketService grava, na ordem em que aconteceriam; o restante são comentários
+    private void montarHistorico(Chamado ch, LocalDateTime agora, List<Entrada> entradas) {
+        Long solicitanteId = ch.solicitante.id();
+        Long tecnicoId = ch.tecnico != null ? ch.tecnico.id() : null;
+        int obrigatorias = 1 + (ch.tecnico != null ? 1 : 0) + (ch.fechamento != null ? 1 : 0) + (ch.reaberto ? 1 : 0);
+
+        entradas.add(new Entrada(ch.id, solicitanteId, ch.abertura, "Chamado Aberto", "Chamado Aberto"));
+        LocalDateTime inicio = ch.abertura;
+        if (ch.tecnico != null) {
+            String acao = "Atribuído para: " + ch.tecnico.nome();
+            entradas.add(new Entrada(ch.id, tecnicoId, ch.primeiraResposta, acao, acao));
+            inicio = ch.primeiraResposta;
+        }
+
+        // Comentários (e a reabertura) espalhados entre o atendimento e o fechamento
+        long janela = Math.max(1, Duration.between(inicio, ch.fechamento != null ? ch.fechamento : agora).getSeconds());
+        List<Entrada> meio = new ArrayList<>();
+        if (ch.reaberto) {
+            meio.add(new Entrada(ch.id, solicitanteId, inicio.plusSeconds(random.nextLong(janela)),
+                    "Reaberto", "Motivo: o problema voltou a ocorrer"));
+        }
+        for (int i = obrigatorias; i < ch.historicos; i++) {
+            Long autor = (tecnicoId != null && random.nextBoolean()) ? tecnicoId : solicitanteId;
+            meio.add(new Entrada(ch.id, autor, inicio.plusSeconds(random.nextLong(janela)),
+                    "Comentário", COMENTARIOS[random.nextInt(COMENTARIOS.length)]));
+        }
+        meio.sort(Comparator.comparing(Entrada::dataHora));
+        entradas.addAll(meio);
+
+        if (ch.fechamento != null) {
+            entradas.add(new Entrada(ch.id, tecnicoId, ch.fechamento, "Fechado", "Solução: " + ch.solucao));
+        }
+    }
+
+    private void numerar(Connection c, List<Chamado> lote) throws SQLException {
+        for (Chamado ch : lote) {
+            int ano = ch.abertura.getYear();
+            Integer ultimo = ultimoSequencialPorAno.get(ano);
+            if (ultimo == null) ultimo = maiorSequencialDoAno(c, ano);
+            ultimoSequencialPorAno.put(ano, ultimo + 1);
+            ch.numero = NumeroChamadoGenerator.formatar(ano, ultimo + 1);
+        }
+    }
+
+    // Mesma consulta de TicketRepository.findMaiorSequencialDoAno
+    private int maiorSequencialDoAno(Connection c, int ano) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(
+                "SELECT MAX(CAST(split_part(numero_chamado, '-', 2) AS INTEGER)) FROM chamados " +
+                "WHERE numero_chamado LIKE ? AND split_part(numero_chamado, '-', 2) ~ '^[0-9]{1,9}$'")) {
+            ps.setString(1, ano + "-%");
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private void copiarChamados(Connection c, CopyManager copyManager, List<Chamado> lote) throws SQLException {
+        // A marca d'água é gravada pelo gatilho do banco; a massa pede para manter a do passado (só nesta transação)
+        try (Statement st = c.createStatement()) {
+            st.execute("SELECT set_config('helpdesk.carga_massa', 'on', true)");
+        }
+        try (EscritorCopy copy = new EscritorCopy(copyManager, "chamados",
+                "id, versao, numero_chamado, descricao, status, prioridade, id_categoria, id_problema, id_solicitante, " +
+                "id_tecnico_atribuido, data_abertura, data_fechamento, data_primeira_resposta, solucao, foi_reaberto, " +
+                "prazo_sla, ultima_modificacao")) {
+            for (Chamado ch : lote) {
+                copy.coluna(ch.id).coluna(0).coluna(ch.numero).coluna(ch.descricao).coluna(ch.status)
+                        .coluna(ch.prioridade).coluna(ch.categoriaId).coluna(ch.problema.id()).coluna(ch.solicitante.id())
+                        .coluna(ch.tecnico != null ? ch.tecnico.id() : null).coluna(ch.abertura).coluna(ch.fechamento)
+                        .coluna(ch.primeiraResposta).coluna(ch.solucao).coluna(ch.reaberto)
+                        .coluna(Ticket.calculateSlaDeadline(ch.abertura, ch.prioridade))
+                        .coluna(ch.fechamento != null ? ch.fechamento : ch.primeiraResposta != null ? ch.primeiraResposta : ch.abertura)
+                        .fimDaLinha();
+            }
+        }
+    }
+
+    private long copiarHistorico(CopyManager copyManager, List<Entrada> entradas, long[] ids) throws SQLException {
+        try (EscritorCopy copy = new EscritorCopy(copyManager, "historico_chamados",
+                "id, id_chamado, id_autor, data_ocorrencia, acao, comentario")) {
+            for (int i = 0; i < entradas.size(); i++) {
+                Entrada e = entradas.get(i);
+                copy.coluna(ids[i]).coluna(e.chamadoId()).coluna(e.autorId()).coluna(e.dataHora())
+                        .coluna(e.acao()).coluna(e.comentario()).fimDaLinha();
+            }
+            return copy.getLinhas();
+        }
+    }
+
+    private long copiarAnexos(CopyManager copyManager, List<Chamado> lote, long[] ids, long oidAnexo) throws SQLException {
+        try (EscritorCopy copy = new EscritorCopy(copyManager, "anexos_chamados",
+                "id, nome_arquivo, tipo_arquivo, dados, data_upload, id_chamado")) {
+            int i = 0;
+            for (Chamado ch : lote) {
+                if (!ch.comAnexo) continue;
+                copy.coluna(ids[i++]).coluna("print-" + ch.numero + ".png").coluna("image/png")
+                        .coluna(String.valueOf(oidAnexo)).coluna(ch.abertura).coluna(ch.id).fimDaLinha();
+            }
+            return copy.getLinhas();
+        }
+    }
+
+    // Anexo.dados é @Lob: o Hibernate grava um large object e guarda o OID na coluna.
+    // Todos os anexos sintéticos apontam para o mesmo large object.
+    private long criarConteudoAnexo(Connection c) throws SQLException {
+        byte[] conteudo = new byte[bytesAnexo];
+        random.nextBytes(conteudo);
+        try (PreparedStatement ps = c.prepareStatement("SELECT lo_from_bytea(0, ?)")) {
+            ps.setBytes(1, Base64.getEncoder().encode(conteudo));
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    // Blocos do otimizador pooled: cada nextval 'hi' libera os ids (hi - incremento, hi]
+    private long[] reservarIds(Connection c, String sequencia, int quantidade) throws SQLException {
+        long[] ids = new long[quantidade];
+        if (quantidade == 0) return ids;
+        long incremento = incrementoPorSequencia.computeIfAbsent(sequencia, s -> lerIncremento(c, s));
+        long blocos = (quantidade + incremento - 1) / incremento;
+        try (PreparedStatement ps = c.prepareStatement("SELECT nextval(?::regclass) FROM generate_series(1, ?)")) {
+            ps.setString(1, sequencia);
+            ps.setLong(2, blocos);
+            try (ResultSet rs = ps.executeQuery()) {
+                int i = 0;
+                while (rs.next() && i < quantidade) {
+                    long hi = rs.getLong(1);
+                    for (long id = Math.max(1, hi - incremento + 1); id <= hi && i < quantidade; id++) ids[i++] = id;
+                }
+                if (i < quantidade) return completar(c, sequencia, ids, i);
+            }
+        }
+        return ids;
+    }
+
+    // Sequência recém-criada: o primeiro bloco vem incompleto (ids a partir de 1)
+    private long[] completar(Connection c, String sequencia, long[] ids, int preenchidos) throws SQLException {
+        long[] resto = reservarIds(c, sequencia, ids.length - preenchidos);
+        System.arraycopy(resto, 0, ids, preenchidos, resto.length);
+        return ids;
+    }
+
+    private static long lerIncremento(Connection c, String sequencia) {
+        try (PreparedStatement ps = c.prepareStatement(
+                "SELECT increment_by FROM pg_sequences WHERE schemaname = current_schema() AND sequencename = ?")) {
+            ps.setString(1, sequencia);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) throw new IllegalStateException("Sequência " + sequencia + " não existe");
+                return rs.getLong(1);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<Long> garantirEquipes(Connection c) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 1; i <= numEquipes; i++) {
+            String nome = String.format("Carga Equipe %02d", i);
+            Long id = null;
+            try (PreparedStatement ps = c.prepareStatement("SELECT id FROM equipes WHERE nome_equipe = ?")) {
+                ps.setString(1, nome);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) id = rs.getLong(1);
+                }
+            }
+            if (id == null) {
+                try (PreparedStatement ps = c.prepareStatement("INSERT INTO equipes (nome_equipe) VALUES (?) RETURNING id")) {
+                    ps.setString(1, nome);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        rs.next();
+                        id = rs.getLong(1);
+                    }
+                }
+            }
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    private List<Referencia> garantirReferencias(Connection c, String tabela, String[] nomesBase, int quantidade,
+                                                 boolean comPrioridade) throws SQLException {
+        String sql = comPrioridade
+                ? "INSERT INTO problemas (nome, prioridade_padrao) VALUES (?, ?) " +
+                  "ON CONFLICT (nome) DO UPDATE SET nome = EXCLUDED.nome RETURNING id"
+                : "INSERT INTO " + tabela + " (nome) VALUES (?) ON CONFLICT (nome) DO UPDATE SET nome = EXCLUDED.nome RETURNING id";
+        List<Referencia> referencias = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            String nome = nomesBase[i % nomesBase.length] + (i >= nomesBase.length ? " " + (i / nomesBase.length + 1) : "");
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                ps.setString(1, nome);
+                if (comPrioridade) ps.setString(2, prioridades.sortear(random));
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    referencias.add(new Referencia(rs.getLong(1), nome));
+                }
+            }
+        }
+        return referencias;
+    }
+
+    // Logins previsíveis (carga.tec0001, carga.ges01, carga.sol00001) para o cenário de carga saber quem usar
+    private Map<String, List<Usuario>> garantirUsuarios(Connection c, List<Long> equipes) throws SQLException {
+        String hash = new BCryptPasswordEncoder().encode(senhaUsuarios);
+        LocalDateTime agora = LocalDateTime.now();
+        try (PreparedStatement ps = c.prepareStatement(
+                "INSERT INTO usuarios (id, nome, login, email, senha, primeiro_acesso, perfil, data_criacao, id_equipe) " +
+                "VALUES (nextval('usuarios_id_seq'), ?, ?, ?, ?, false, ?, ?, ?) ON CONFLICT (login) DO NOTHING")) {
+            adicionarUsuarios(ps, "tecnico", "tec", "%04d", numTecnicos, equipes, hash, agora);
+            adicionarUsuarios(ps, "manager", "ges", "%02d", numGestores, equipes, hash, agora);
+            adicionarUsuarios(ps, "user", "sol", "%05d", numSolicitantes, equipes, hash, agora);
+            ps.executeBatch();
+        }
+
+        Map<String, List<Usuario>> porPerfil = new HashMap<>();
+        try (PreparedStatement ps = c.prepareStatement(
+                "SELECT id, nome, id_equipe, perfil FROM usuarios WHERE login LIKE ? ORDER BY login")) {
+            ps.setString(1, prefixo + ".%");
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    long equipe = rs.getLong(3);
+                    porPerfil.computeIfAbsent(rs.getString(4), k -> new ArrayList<>())
+                            .add(new Usuario(rs.getLong(1), rs.getString(2), rs.wasNull() ? null : equipe));
+                }
+            }
+        }
+        for (String perfil : List.of("tecnico", "user")) {
+            if (porPerfil.getOrDefault(perfil, List.of()).isEmpty()) {
+                throw new IllegalStateException("Nenhum usuário '" + perfil + "' com o prefixo " + prefixo);
+            }
+        }
+        return porPerfil;
+    }
+
+    private void adicionarUsuarios(PreparedStatement ps, String perfil, String sigla, String formato, int quantidade,
+                                   List<Long> equipes, String hash, LocalDateTime agora) throws SQLException {
+        for (int i = 1; i <= quantidade; i++) {
+            String login = prefixo + "." + sigla + String.format(formato, i);
+            ps.setString(1, "Carga " + sigla.toUpperCase() + " " + i);
+            ps.setString(2, login);
+            ps.setString(3, login + "@carga.brisabr.com.br");
+            ps.setString(4, hash);
+            ps.setString(5, perfil);
+            ps.setObject(6, agora);
+            ps.setObject(7, equipes.isEmpty() ? null : equipes.get(i % equipes.size()));
+            ps.addBatch();
+        }
+    }
+
+    private static boolean tabelaExiste(Connection c, String tabela) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("SELECT to_regclass(?) IS NOT NULL")) {
+            ps.setString(1, tabela);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getBoolean(1);
+            }
+        }
+    }
+}
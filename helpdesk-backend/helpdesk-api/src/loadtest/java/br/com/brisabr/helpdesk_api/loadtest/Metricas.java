@@ -0,0 +1,109 @@
+package br.com.brisabr.helpdesk_api.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latência por endpoint em HdrHistogram (microssegundos, 3 dígitos significativos). Os usuários virtuais gravam
+// no Recorder sem trava; o relator troca o histograma de intervalo e acumula no total.
+public class Metricas {
+
+    private static final long MAIOR_LATENCIA_US = 120_000_000L;
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final long inicioNanos = System.nanoTime();
+    private long ultimoIntervaloNanos = inicioNanos;
+
+    static class Endpoint {
+        final Recorder recorder = new Recorder(MAIOR_LATENCIA_US, 3);
+        final Histogram total = new Histogram(MAIOR_LATENCIA_US, 3);
+        final LongAdder erros = new LongAdder();
+        final Map<Integer, LongAdder> porStatus = new ConcurrentHashMap<>();
+        Histogram intervalo;
+    }
+
+    public record Linha(String endpoint, long requisicoes, long erros, double porSegundo, double p50Ms, double p90Ms,
+                        double p99Ms, double p999Ms, double maxMs, Map<Integer, Long> porStatus) {}
+
+    // status 0 = falha de conexão/timeout
+    public void registrar(String endpoint, long nanos, int status) {
+        Endpoint e = endpoints.computeIfAbsent(endpoint, k -> new Endpoint());
+        e.recorder.recordValue(Math.min(MAIOR_LATENCIA_US, Math.max(1, nanos / 1000)));
+        e.porStatus.computeIfAbsent(status, k -> new LongAdder()).increment();
+        if (status == 0 || status >= 400) e.erros.increment();
+    }
+
+    // Chamado só pela thread do relator
+    public synchronized List<Linha> fecharIntervalo() {
+        long agora = System.nanoTime();
+        double segundos = Math.max(1e-9, (agora - ultimoIntervaloNanos) / 1e9);
+        ultimoIntervaloNanos = agora;
+        List<Linha> linhas = new ArrayList<>();
+        for (Map.Entry<String, Endpoint> item : new TreeMap<>(endpoints).entrySet()) {
+            Endpoint e = item.getValue();
+            e.intervalo = e.recorder.getIntervalHistogram(e.intervalo);
+            e.total.add(e.intervalo);
+            if (e.intervalo.getTotalCount() > 0) linhas.add(linha(item.getKey(), e.intervalo, -1, segundos, Map.of()));
+        }
+        return linhas;
+    }
+
+    public synchronized List<Linha> totais() {
+        fecharIntervalo();
+        double segundos = (System.nanoTime() - inicioNanos) / 1e9;
+        List<Linha> linhas = new ArrayList<>();
+        Histogram geral = new Histogram(MAIOR_LATENCIA_US, 3);
+        long errosGerais = 0;
+        for (Map.Entry<String, Endpoint> item : new TreeMap<>(endpoints).entrySet()) {
+            Endpoint e = item.getValue();
+            Map<Integer, Long> porStatus = new TreeMap<>();
+            e.porStatus.forEach((status, n) -> porStatus.put(status, n.sum()));
+            linhas.add(linha(item.getKey(), e.total, e.erros.sum(), segundos, porStatus));
+            geral.add(e.total);
+            errosGerais += e.erros.sum();
+        }
+        linhas.add(linha("TOTAL", geral, errosGerais, segundos, Map.of()));
+        return linhas;
+    }
+
+    private static Linha linha(String endpoint, Histogram h, long erros, double segundos, Map<Integer, Long> porStatus) {
+        return new Linha(endpoint, h.getTotalCount(), erros, h.getTotalCount() / segundos,
+                ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(90)), ms(h.getValueAtPercentile(99)),
+                ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue()), porStatus);
+    }
+
+    private static double ms(long micros) {
+        return micros / 1000.0;
+    }
+
+    public static String formatar(List<Linha> linhas) {
+        StringBuilder sb = new StringBuilder(String.format("%-42s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "req", "erros", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (Linha l : linhas) {
+            sb.append(String.format("%-42s %9d %7s %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n", l.endpoint(), l.requisicoes(),
+                    l.erros() < 0 ? "-" : String.valueOf(l.erros()), l.porSegundo(), l.p50Ms(), l.p90Ms(), l.p99Ms(),
+                    l.p999Ms(), l.maxMs()));
+        }
+        return sb.toString();
+    }
+
+    public static void salvar(Path arquivo, Map<String, Object> cenario, List<Linha> linhas) throws IOException {
+        Map<String, Object> relatorio = new LinkedHashMap<>();
+        relatorio.put("cenario", cenario);
+        relatorio.put("endpoints", linhas);
+        if (arquivo.getParent() != null) Files.createDirectories(arquivo.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(arquivo.toFile(), relatorio);
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.brisabr.helpdesk_api.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Argumentos no formato --chave=valor; o que não for informado fica no padrão de cada ferramenta
+public class Parametros {
+
+    private final Map<String, String> valores = new LinkedHashMap<>();
+
+    public Parametros(String[] args) {
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Argumento inválido (use --chave=valor): " + arg);
+            }
+            int igual = arg.indexOf('=');
+            valores.put(arg.substring(2, igual), arg.substring(igual + 1));
+        }
+    }
+
+    public String texto(String chave, String padrao) {
+        return valores.getOrDefault(chave, padrao);
+    }
+
+    public int inteiro(String chave, int padrao) {
+        String v = valores.get(chave);
+        return v != null ? Integer.parseInt(v.replace("_", "")) : padrao;
+    }
+
+    public long longo(String chave, long padrao) {
+        String v = valores.get(chave);
+        return v != null ? Long.parseLong(v.replace("_", "")) : padrao;
+    }
+
+    public double decimal(String chave, double padrao) {
+        String v = valores.get(chave);
+        return v != null ? Double.parseDouble(v) : padrao;
+    }
+
+    // "Aberto:10,Em Andamento:15,Fechado:75"
+    public Map<String, Double> pesos(String chave, String padrao) {
+        Map<String, Double> pesos = new LinkedHashMap<>();
+        for (String item : texto(chave, padrao).split(",")) {
+            int sep = item.lastIndexOf(':');
+            if (sep <= 0) throw new IllegalArgumentException("Peso inválido em --" + chave + ": " + item);
+            pesos.put(item.substring(0, sep).trim(), Double.parseDouble(item.substring(sep + 1).trim()));
+        }
+        return pesos;
+    }
+}
@@ -0,0 +1,127 @@
+package br.com.brisabr.helpdesk_api.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// A API empacotada (build/startup, ver tarefa startupDist) numa JVM separada, ou o binário nativo, como roda no
+// pod: usada no treino do CDS, no benchmark de subida e no smoke test nativo, onde o processo inteiro é o que se
+// quer medir.
+class ProcessoApi {
+
+    private static final Duration LIMITE_SUBIDA = Duration.ofMinutes(3);
+
+    private final Path app;
+    private final boolean nativo;
+    private final String jdbcUrl;
+    private final String usuario;
+    private final String senha;
+
+    ProcessoApi(Path app, String jdbcUrl, String usuario, String senha) {
+        this(app, false, jdbcUrl, usuario, senha);
+    }
+
+    private ProcessoApi(Path app, boolean nativo, String jdbcUrl, String usuario, String senha) {
+        this.app = app;
+        this.nativo = nativo;
+        this.jdbcUrl = jdbcUrl;
+        this.usuario = usuario;
+        this.senha = senha;
+    }
+
+    // Binário da imagem nativa (tarefa nativeCompile); aceita -D nas opções, como a JVM
+    static ProcessoApi nativo(Path binario, String jdbcUrl, String usuario, String senha) {
+        return new ProcessoApi(binario, true, jdbcUrl, usuario, senha);
+    }
+
+    // java <opções da JVM> -jar app.jar <banco> <argumentos da aplicação> (ou binário <opções> ...); a saída vai
+    // para o arquivo de log
+    Process iniciar(List<String> opcoesJvm, List<String> argsApp, Path log) throws IOException {
+        List<String> comando = new ArrayList<>();
+        if (nativo) {
+            comando.add(app.toAbsolutePath().toString());
+            comando.addAll(opcoesJvm);
+        } else {
+            comando.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            comando.addAll(opcoesJvm);
+            comando.add("-jar");
+            comando.add(app.toString());
+        }
+        comando.add("--spring.datasource.url=" + jdbcUrl);
+        comando.add("--spring.datasource.username=" + usuario);
+        comando.add("--spring.datasource.password=" + senha);
+        comando.add("--helpdesk.log.formato=texto");
+        comando.addAll(argsApp);
+        if (log.getParent() != null) Files.createDirectories(log.getParent());
+        return new ProcessBuilder(comando).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+    }
+
+    // Sobe o contexto e sai logo depois do refresh (spring.context.exit): cria o schema, grava o arquivo CDS
+    void executarAteORefresh(List<String> opcoesJvm, List<String> argsApp, Path log) throws Exception {
+        List<String> opcoes = new ArrayList<>(opcoesJvm);
+        opcoes.add("-Dspring.context.exit=onRefresh");
+        Process processo = iniciar(opcoes, argsApp, log);
+        if (!processo.waitFor(LIMITE_SUBIDA.toSeconds(), TimeUnit.SECONDS)) {
+            processo.destroyForcibly();
+            throw new IllegalStateException("A aplicação não terminou a subida em " + LIMITE_SUBIDA + "; ver " + log);
+        }
+        if (processo.exitValue() != 0) {
+            throw new IllegalStateException("A aplicação saiu com código " + processo.exitValue() + "; ver " + log);
+        }
+    }
+
+    // Espera o readiness (probe do Kubernetes) responder 200: é quando o pod passa a receber tráfego
+    static void aguardarPronto(Process processo, HttpClient http, int porta, Path log) throws Exception {
+        URI readiness = URI.create("http://localhost:" + porta + "/actuator/health/readiness");
+        long limite = System.nanoTime() + LIMITE_SUBIDA.toNanos();
+        while (System.nanoTime() < limite) {
+            if (!processo.isAlive()) {
+                throw new IllegalStateException("A aplicação saiu com código " + processo.exitValue() + "; ver " + log);
+            }
+            try {
+                HttpResponse<Void> r = http.send(HttpRequest.newBuilder(readiness).timeout(Duration.ofSeconds(1)).build(),
+                        HttpResponse.BodyHandlers.discarding());
+                if (r.statusCode() == 200) return;
+            } catch (IOException e) {
+                // porta ainda fechada
+            }
+            Thread.sleep(10);
+        }
+        processo.destroyForcibly();
+        throw new IllegalStateException("A aplicação não ficou pronta em " + LIMITE_SUBIDA + "; ver " + log);
+    }
+
+    static void encerrar(Process processo) throws InterruptedException {
+        processo.destroy();
+        if (!processo.waitFor(30, TimeUnit.SECONDS)) {
+            processo.destroyForcibly().waitFor();
+        }
+    }
+
+    static int portaLivre() throws IOException {
+        try (ServerSocket s = new ServerSocket(0)) {
+            return s.getLocalPort();
+        }
+    }
+
+    // Resident set size do processo (Linux); -1 onde não houver /proc
+    static long rssKb(Process processo) {
+        try {
+            for (String linha : Files.readAllLines(Path.of("/proc", String.valueOf(processo.pid()), "status"))) {
+                if (linha.startsWith("VmRSS:")) return Long.parseLong(linha.replaceAll("\\D", ""));
+            }
+        } catch (IOException | NumberFormatException e) {
+            // sem /proc
+        }
+        return -1;
+    }
+}
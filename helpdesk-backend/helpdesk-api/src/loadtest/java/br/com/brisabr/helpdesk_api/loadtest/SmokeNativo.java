@@ -0,0 +1,195 @@
+package br.com.brisabr.helpdesk_api.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+// Smoke test do binário nativo (tarefa nativeSmoke): sobe o binário no perfil 'startup' e passa pelas rotas que
+// dependem do que a imagem nativa só tem com dica (JWT, serialização de entidades e DTOs, lazy loading, cache de
+// segundo nível, datasource-proxy, métricas, JFR). Sai com código 1 se alguma falhar.
+// Sem --jdbc-url usa um Postgres embutido: o schema é criado pelo jar do startupDist (perfil padrão) e a massa
+// pelo GeradorDados, com os parâmetros abaixo. Não roda como root.
+// Com --binario=build/startup/helpdesk-api.jar as mesmas verificações rodam no jar com o código AOT, para separar
+// o que é da imagem nativa do que é do AOT.
+public class SmokeNativo {
+
+    private static final Duration LIMITE = Duration.ofSeconds(30);
+
+    private static final List<String> MASSA_PADRAO = List.of(
+            "--chamados=500", "--historico-medio=4", "--anexos=0.2", "--equipes=2", "--tecnicos=4",
+            "--gestores=2", "--solicitantes=20", "--categorias=4", "--problemas=8", "--semente=7");
+
+    private final Parametros p;
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final List<String> falhas = new ArrayList<>();
+    private String url;
+
+    SmokeNativo(Parametros p) {
+        this.p = p;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Parametros p = new Parametros(args);
+        Path jar = Path.of(p.texto("app", "build/startup/helpdesk-api.jar"));
+        Path binario = Path.of(p.texto("binario", "build/native/nativeCompile/helpdesk-api"));
+        SmokeNativo smoke = new SmokeNativo(p);
+
+        String jdbcUrl = p.texto("jdbc-url", null);
+        boolean ok;
+        if (jdbcUrl != null) {
+            // Banco existente: schema e massa (GeradorDados) já criados
+            ok = smoke.executar(processo(binario, jdbcUrl, p.texto("jdbc-usuario", "postgres"), p.texto("jdbc-senha", "")));
+        } else {
+            try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+                String url = postgres.getJdbcUrl("postgres", "postgres");
+                new ProcessoApi(jar, url, "postgres", "").executarAteORefresh(List.of(), List.of(), smoke.logs().resolve("schema.log"));
+                List<String> argsMassa = new ArrayList<>(MASSA_PADRAO);
+                argsMassa.addAll(List.of(args));
+                try (Connection c = postgres.getPostgresDatabase().getConnection()) {
+                    new GeradorDados(new Parametros(argsMassa.toArray(String[]::new))).gerar(c);
+                }
+                ok = smoke.executar(processo(binario, url, "postgres", ""));
+            }
+        }
+        System.exit(ok ? 0 : 1);
+    }
+
+    private static ProcessoApi processo(Path binario, String jdbcUrl, String usuario, String senha) {
+        return binario.toString().endsWith(".jar")
+                ? new ProcessoApi(binario, jdbcUrl, usuario, senha)
+                : ProcessoApi.nativo(binario, jdbcUrl, usuario, senha);
+    }
+
+    private Path logs() {
+        return Path.of(p.texto("logs", "build/native/smoke"));
+    }
+
+    boolean executar(ProcessoApi api) throws Exception {
+        if (!Files.isRegularFile(Path.of(p.texto("binario", "build/native/nativeCompile/helpdesk-api")))) {
+            throw new IllegalStateException("Binário não encontrado; rode ./gradlew nativeCompile (GraalVM)");
+        }
+        int porta = ProcessoApi.portaLivre();
+        url = "http://localhost:" + porta;
+        Path log = logs().resolve("nativo.log");
+
+        long inicio = System.nanoTime();
+        Process processo = api.iniciar(List.of("-Dspring.aot.enabled=true"),
+                List.of("--spring.profiles.active=startup", "--server.port=" + porta), log);
+        try {
+            ProcessoApi.aguardarPronto(processo, http, porta, log);
+            long prontoMs = (System.nanoTime() - inicio) / 1_000_000;
+            System.out.printf("Pronto em %d ms, RSS %d MB%n", prontoMs, ProcessoApi.rssKb(processo) / 1024);
+            verificar();
+            System.out.printf("RSS depois das verificações: %d MB%n", ProcessoApi.rssKb(processo) / 1024);
+        } finally {
+            ProcessoApi.encerrar(processo);
+        }
+
+        if (falhas.isEmpty()) {
+            System.out.println("Smoke test OK");
+            return true;
+        }
+        System.out.println(falhas.size() + " verificação(ões) falharam (log da API em " + log + "):");
+        falhas.forEach(f -> System.out.println("  " + f));
+        return false;
+    }
+
+    private void verificar() throws Exception {
+        String prefixo = p.texto("prefixo", "carga");
+        String senha = p.texto("senha-usuarios", "Carga@123");
+
+        conferir("actuator.health", status("/actuator/health") == 200);
+        conferir("actuator.prometheus", texto("/actuator/prometheus").contains("helpdesk_log_descartados_total"));
+
+        // Login: geração (JWTCreator) e validação (JWTVerifier) do token a cada chamada autenticada
+        ClienteApi anonimo = cliente();
+        conferir("login.senha-errada", !anonimo.login("admin", "errada"));
+        int semToken = status("/api/tickets");
+        conferir("tickets.sem-token", semToken == 401 || semToken == 403);
+        ClienteApi admin = logar("admin", "admin");
+        ClienteApi gestor = logar(prefixo + ".ges01", senha);
+        ClienteApi tecnico = logar(prefixo + ".tec0001", senha);
+        ClienteApi solicitante = logar(prefixo + ".sol00001", senha);
+
+        // Listagens e detalhe: TicketResponseDTO montado das associações lazy (enhancement do Hibernate)
+        ClienteApi.Resposta lista = admin.get("", "/api/tickets", Map.of());
+        conferir("tickets.listar", lista, c -> c.isArray() && !c.isEmpty() && c.get(0).hasNonNull("numeroChamado"));
+        long id = lista.corpo() != null && !lista.corpo().isEmpty() ? lista.corpo().get(0).path("id").asLong() : -1;
+        conferir("tickets.detalhe", admin.get("", "/api/tickets/" + id, Map.of()), c -> c.path("id").asLong() == id);
+        conferir("tickets.historico", admin.get("", "/api/tickets/" + id + "/historico", Map.of()), c -> c.has("itens"));
+        conferir("tickets.meus", solicitante.get("", "/api/tickets/me", Map.of()), JsonNode::isArray);
+        conferir("tickets.fila", tecnico.get("", "/api/tickets/work-queue", Map.of("limit", "20")), c -> c.has("totaisPorFaixa"));
+
+        // Escrita: abertura (multipart + JSON); o técnico pega o próximo da fila, comenta e fecha
+        conferir("tickets.criar", solicitante.postMultipart("", "/api/tickets", "ticket",
+                Map.of("descricao", "Smoke test do binário nativo")), c -> c.hasNonNull("numeroChamado"));
+        ClienteApi.Resposta capturado = tecnico.postJson("", "/api/tickets/claim-next", Map.of());
+        conferir("tickets.capturar", capturado, c -> c.hasNonNull("id"));
+        long livre = capturado.corpo() != null ? capturado.corpo().path("id").asLong() : -1;
+        conferir("tickets.comentar", tecnico.postJson("", "/api/tickets/" + livre + "/comments",
+                Map.of("comentario", "Verificando")), c -> c.hasNonNull("acao"));
+        conferir("tickets.fechar", tecnico.postJson("", "/api/tickets/" + livre + "/close",
+                Map.of("solucao", "Resolvido no smoke test")), c -> "Fechado".equals(c.path("status").asText()));
+
+        // Cadastros duas vezes: a segunda vem do cache de segundo nível (Caffeine JCache)
+        for (int vez = 0; vez < 2; vez++) {
+            conferir("categorias", gestor.get("", "/api/categorias", Map.of()), c -> c.isArray() && !c.isEmpty());
+            conferir("equipes", admin.get("", "/api/equipes", Map.of()), c -> c.isArray() && !c.isEmpty());
+        }
+        conferir("admin.cache", admin.get("", "/api/admin/cache", Map.of()), c -> !c.isEmpty());
+
+        conferir("dashboard.stats", gestor.get("", "/api/dashboard/stats", Map.of()), c -> !c.isEmpty());
+        conferir("relatorios.mensal", gestor.get("", "/api/reports/mensal", Map.of()), c -> true);
+        conferir("relatorios.percentis", gestor.get("", "/api/reports/percentis", Map.of()), c -> true);
+
+        // datasource-proxy (proxies JDK dos objetos JDBC) e JFR
+        conferir("admin.sql", admin.get("", "/api/admin/sql", Map.of()), c -> !c.isEmpty());
+        conferir("admin.jfr", admin.get("", "/api/admin/jfr", Map.of()), c -> c.path("perfis").isArray());
+    }
+
+    private ClienteApi cliente() {
+        return new ClienteApi(http, url, LIMITE, new Metricas());
+    }
+
+    private ClienteApi logar(String login, String senha) {
+        ClienteApi cliente = cliente();
+        conferir("login." + login, cliente.login(login, senha));
+        return cliente;
+    }
+
+    private void conferir(String nome, ClienteApi.Resposta r, Predicate<JsonNode> corpo) {
+        if (!r.ok()) {
+            conferir(nome + " (HTTP " + r.status() + ")", false);
+        } else {
+            conferir(nome, r.corpo() != null && corpo.test(r.corpo()));
+        }
+    }
+
+    private void conferir(String nome, boolean ok) {
+        System.out.printf("  %-28s %s%n", nome, ok ? "ok" : "FALHOU");
+        if (!ok) falhas.add(nome);
+    }
+
+    private int status(String caminho) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create(url + caminho)).timeout(LIMITE).build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private String texto(String caminho) throws Exception {
+        HttpResponse<String> r = http.send(HttpRequest.newBuilder(URI.create(url + caminho)).timeout(LIMITE).build(),
+                HttpResponse.BodyHandlers.ofString());
+        return r.statusCode() == 200 ? r.body() : "";
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.brisabr.helpdesk_api.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+// Sorteio por pesos (distribuição acumulada + busca binária). Também monta a distribuição de Zipf,
+// usada para concentrar chamados em poucos solicitantes/categorias como acontece em produção.
+public class Sorteio<T> {
+
+    private final List<T> itens;
+    private final double[] acumulado;
+
+    private Sorteio(List<T> itens, double[] pesos) {
+        if (itens.isEmpty()) throw new IllegalArgumentException("Nada para sortear");
+        this.itens = itens;
+        this.acumulado = new double[pesos.length];
+        double soma = 0;
+        for (int i = 0; i < pesos.length; i++) {
+            soma += pesos[i];
+            acumulado[i] = soma;
+        }
+    }
+
+    public static <T> Sorteio<T> porPesos(Map<T, Double> pesos) {
+        List<T> itens = new ArrayList<>(pesos.keySet());
+        return new Sorteio<>(itens, pesos.values().stream().mapToDouble(Double::doubleValue).toArray());
+    }
+
+    // Peso do i-ésimo item = 1 / (i+1)^expoente; expoente 0 vira uniforme
+    public static <T> Sorteio<T> zipf(List<T> itens, double expoente) {
+        double[] pesos = new double[itens.size()];
+        for (int i = 0; i < pesos.length; i++) pesos[i] = 1.0 / Math.pow(i + 1, expoente);
+        return new Sorteio<>(itens, pesos);
+    }
+
+    public T sortear(SplittableRandom random) {
+        double alvo = random.nextDouble() * acumulado[acumulado.length - 1];
+        int i = Arrays.binarySearch(acumulado, alvo);
+        return itens.get(i >= 0 ? i : Math.min(-i - 1, itens.size() - 1));
+    }
+
+    // Log-normal pela mediana: metade dos valores abaixo de 'mediana', cauda controlada por sigma
+    public static double logNormal(SplittableRandom random, double mediana, double sigma) {
+        return mediana * Math.exp(sigma * gaussiana(random));
+    }
+
+    // Geométrica com média 'media' (>= 1)
+    public static int geometrica(SplittableRandom random, double media) {
+        if (media <= 1) return 1;
+        double p = 1.0 / media;
+        return 1 + (int) (Math.log(1 - random.nextDouble()) / Math.log(1 - p));
+    }
+
+    public static double exponencial(SplittableRandom random, double media) {
+        return -media * Math.log(1 - random.nextDouble());
+    }
+
+    private static double gaussiana(SplittableRandom random) {
+        double u1 = 1 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+    }
+}
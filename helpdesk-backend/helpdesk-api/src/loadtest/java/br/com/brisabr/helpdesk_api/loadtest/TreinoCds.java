@@ -0,0 +1,46 @@
+package br.com.brisabr.helpdesk_api.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+// Gera o arquivo AppCDS (classes já carregadas e verificadas) da API empacotada em build/startup: uma subida
+// de treino no perfil 'startup' até o refresh do contexto, com -XX:ArchiveClassesAtExit. O arquivo só vale para
+// o mesmo JDK e o mesmo classpath (app.jar + lib/); a JVM ignora o arquivo, com aviso, se algo mudar.
+// Sem --jdbc-url, o treino roda contra um Postgres embutido (não roda como root); o schema é criado antes
+// por uma subida no perfil padrão, já que o perfil 'startup' só valida.
+//   ./gradlew startupCds [--args="--jdbc-url=jdbc:postgresql://localhost:5432/helpdesk_db --jdbc-senha=admin"]
+public class TreinoCds {
+
+    public static void main(String[] args) throws Exception {
+        Parametros p = new Parametros(args);
+        Path app = Path.of(p.texto("app", "build/startup/helpdesk-api.jar"));
+        Path arquivo = Path.of(p.texto("arquivo", "build/startup/helpdesk-api.jsa"));
+        Path logs = Path.of(p.texto("logs", "build/startup/logs"));
+        Files.deleteIfExists(arquivo);
+
+        String jdbcUrl = p.texto("jdbc-url", null);
+        if (jdbcUrl != null) {
+            treinar(new ProcessoApi(app, jdbcUrl, p.texto("jdbc-usuario", "postgres"), p.texto("jdbc-senha", "")), arquivo, logs);
+        } else {
+            try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+                ProcessoApi api = new ProcessoApi(app, postgres.getJdbcUrl("postgres", "postgres"), "postgres", "");
+                api.executarAteORefresh(List.of(), List.of(), logs.resolve("schema.log"));
+                treinar(api, arquivo, logs);
+            }
+        }
+        if (!Files.exists(arquivo)) {
+            throw new IllegalStateException("A JVM não gravou " + arquivo + "; ver " + logs.resolve("treino-cds.log"));
+        }
+        System.out.printf("Arquivo CDS: %s (%d KB)%n", arquivo.toAbsolutePath(), Files.size(arquivo) / 1024);
+    }
+
+    private static void treinar(ProcessoApi api, Path arquivo, Path logs) throws Exception {
+        api.executarAteORefresh(
+                List.of("-XX:ArchiveClassesAtExit=" + arquivo.toAbsolutePath(), "-Dspring.aot.enabled=true"),
+                List.of("--spring.profiles.active=startup"),
+                logs.resolve("treino-cds.log"));
+    }
+}
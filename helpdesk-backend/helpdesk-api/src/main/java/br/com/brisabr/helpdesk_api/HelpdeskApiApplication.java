@@ -3,9 +3,11 @@ package br.com.brisabr.helpdesk_api;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @ComponentScan(basePackages = {"br.com.brisabr.helpdesk_api"})
+@EnableScheduling
 public class HelpdeskApiApplication {
 
 	public static void main(String[] args) {
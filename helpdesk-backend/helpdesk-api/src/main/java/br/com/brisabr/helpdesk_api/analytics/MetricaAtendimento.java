@@ -0,0 +1,6 @@
+package br.com.brisabr.helpdesk_api.analytics;
+
+public enum MetricaAtendimento {
+    RESOLUCAO,
+    PRIMEIRA_RESPOSTA
+}
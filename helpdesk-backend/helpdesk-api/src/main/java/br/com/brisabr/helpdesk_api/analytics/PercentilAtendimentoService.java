@@ -0,0 +1,366 @@
+package br.com.brisabr.helpdesk_api.analytics;
+
+import br.com.brisabr.helpdesk_api.dto.RelatorioPercentisDTO;
+import br.com.brisabr.helpdesk_api.ticket.Categoria;
+import br.com.brisabr.helpdesk_api.ticket.CategoriaRepository;
+import br.com.brisabr.helpdesk_api.ticket.Equipe;
+import br.com.brisabr.helpdesk_api.ticket.EquipeRepository;
+import br.com.brisabr.helpdesk_api.ticket.Ticket;
+import br.com.brisabr.helpdesk_api.ticket.TicketRepository;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+
+@Service
+public class PercentilAtendimentoService {
+
+    // Até 2 anos em segundos, com 2 dígitos significativos (~1% de erro relativo)
+    private static final long MAX_SEGUNDOS = Duration.ofDays(730).getSeconds();
+    private static final int DIGITOS_SIGNIFICATIVOS = 2;
+    private static final int TAMANHO_LOTE_JDBC = 500;
+
+    @Autowired private SketchTempoAtendimentoRepository sketchRepository;
+    @Autowired private TicketRepository ticketRepository;
+    @Autowired private CategoriaRepository categoriaRepository;
+    @Autowired private EquipeRepository equipeRepository;
+    @Autowired private TempoAtendimentoChamadoRepository tempoRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    // Chamado na mesma transação do fechamento. Se o chamado já tinha sido fechado antes (reaberto e fechado
+    // de novo), a contribuição anterior sai do sketch e a nova entra: ele conta uma vez, pelo último fechamento.
+    @Transactional
+    public void registrarFechamento(Ticket t) {
+        registrarFechamentos(List.of(t));
+    }
+
+    // Fechamento em lote: as contribuições são somadas por chave antes de gravar, então cada sketch
+    // é lido e gravado uma vez por lote, não uma vez por chamado
+    @Transactional
+    public void registrarFechamentos(Collection<Ticket> tickets) {
+        List<Ticket> fechados = tickets.stream()
+                .filter(t -> t.getDataAbertura() != null && t.getDataFechamento() != null)
+                .toList();
+        if (fechados.isEmpty()) return;
+
+        Map<Long, TempoAtendimentoChamado> anteriores = tempoRepository.findAllById(fechados.stream().map(Ticket::getId).toList())
+                .stream().collect(Collectors.toMap(TempoAtendimentoChamado::getChamadoId, Function.identity()));
+        Map<Chave, Alteracao> alteracoes = new TreeMap<>(Chave.ORDEM);
+        List<TempoAtendimentoChamado> novos = new ArrayList<>();
+        for (Ticket t : fechados) {
+            TempoAtendimentoChamado tempo = anteriores.get(t.getId());
+            if (tempo != null) {
+                contribuir(alteracoes, tempo, true);
+            } else {
+                tempo = new TempoAtendimentoChamado();
+                tempo.setChamadoId(t.getId());
+                novos.add(tempo);
+            }
+            preencher(tempo, t);
+            contribuir(alteracoes, tempo, false);
+        }
+        inserirTempos(novos);
+        gravar(alteracoes);
+    }
+
+    // Chamados que já entram fechados (importação): não há contribuição anterior a retirar
+    @Transactional
+    public void registrarImportados(List<TempoAtendimentoChamado> tempos) {
+        if (tempos.isEmpty()) return;
+        Map<Chave, Alteracao> alteracoes = new TreeMap<>(Chave.ORDEM);
+        tempos.forEach(tempo -> contribuir(alteracoes, tempo, false));
+        inserirTempos(new ArrayList<>(tempos));
+        gravar(alteracoes);
+    }
+
+    public static TempoAtendimentoChamado novoTempo(Long chamadoId, Long categoriaId, Long equipeId, LocalDateTime abertura,
+                                                    LocalDateTime fechamento, LocalDateTime primeiraResposta) {
+        TempoAtendimentoChamado tempo = new TempoAtendimentoChamado();
+        tempo.setChamadoId(chamadoId);
+        preencher(tempo, categoriaId, equipeId, abertura, fechamento, primeiraResposta);
+        return tempo;
+    }
+
+    // Chamado reaberto deixa de contar até ser fechado de novo (a reconstrução só lê os fechados)
+    @Transactional
+    public void registrarReabertura(Ticket t) {
+        tempoRepository.findById(t.getId()).ifPresent(tempo -> {
+            Map<Chave, Alteracao> alteracoes = new TreeMap<>(Chave.ORDEM);
+            contribuir(alteracoes, tempo, true);
+            gravar(alteracoes);
+            tempoRepository.delete(tempo);
+        });
+    }
+
+    private static void preencher(TempoAtendimentoChamado tempo, Ticket t) {
+        preencher(tempo, (t.getCategoria() != null) ? t.getCategoria().getId() : null,
+                (t.getTecnicoAtribuido() != null && t.getTecnicoAtribuido().getEquipe() != null)
+                        ? t.getTecnicoAtribuido().getEquipe().getId() : null,
+                t.getDataAbertura(), t.getDataFechamento(), t.getDataPrimeiraResposta());
+    }
+
+    // Sem categoria ou sem equipe: chave 0 ("Sem Categoria"/"Sem Equipe" no relatório)
+    private static void preencher(TempoAtendimentoChamado tempo, Long categoriaId, Long equipeId, LocalDateTime abertura,
+                                  LocalDateTime fechamento, LocalDateTime primeiraResposta) {
+        tempo.setCategoriaId((categoriaId != null) ? categoriaId : 0L);
+        tempo.setEquipeId((equipeId != null) ? equipeId : 0L);
+        tempo.setAno(fechamento.getYear());
+        tempo.setMes(fechamento.getMonthValue());
+        tempo.setSegundosResolucao(segundos(abertura, fechamento));
+        tempo.setSegundosPrimeiraResposta((primeiraResposta != null) ? segundos(abertura, primeiraResposta) : null);
+    }
+
+    private static void contribuir(Map<Chave, Alteracao> alteracoes, TempoAtendimentoChamado tempo, boolean retirar) {
+        alteracao(alteracoes, tempo, MetricaAtendimento.RESOLUCAO).registrar(tempo.getSegundosResolucao(), retirar);
+        if (tempo.getSegundosPrimeiraResposta() != null) {
+            alteracao(alteracoes, tempo, MetricaAtendimento.PRIMEIRA_RESPOSTA)
+                    .registrar(tempo.getSegundosPrimeiraResposta(), retirar);
+        }
+    }
+
+    private static Alteracao alteracao(Map<Chave, Alteracao> alteracoes, TempoAtendimentoChamado tempo, MetricaAtendimento metrica) {
+        return alteracoes.computeIfAbsent(
+                new Chave(tempo.getCategoriaId(), tempo.getEquipeId(), tempo.getAno(), tempo.getMes(), metrica),
+                k -> new Alteracao());
+    }
+
+    // Uma leitura com lock e um UPDATE por chave; as chaves vêm ordenadas para duas transações
+    // que mexem nas mesmas chaves travarem na mesma ordem
+    private void gravar(Map<Chave, Alteracao> alteracoes) {
+        alteracoes.forEach((k, a) -> {
+            sketchRepository.criarSeNaoExistir(k.categoriaId(), k.equipeId(), k.ano(), k.mes(), k.metrica().name());
+            SketchTempoAtendimento sketch = sketchRepository
+                    .findByCategoriaIdAndEquipeIdAndAnoAndMesAndMetrica(k.categoriaId(), k.equipeId(), k.ano(), k.mes(), k.metrica())
+                    .orElseThrow();
+
+            Histogram h = decodificar(sketch.getDados());
+            h.add(a.somar);
+            retirar(h, a.retirar);
+            atualizar(sketch, h);
+            sketchRepository.save(sketch);
+        });
+    }
+
+    // Tira do sketch os valores de 'retirar'; um valor que não está lá (sketch anterior ao registro por chamado)
+    // é ignorado em vez de deixar o histograma negativo
+    private static void retirar(Histogram h, Histogram retirar) {
+        if (retirar.getTotalCount() == 0) return;
+        Histogram presentes = novoHistograma();
+        for (HistogramIterationValue v : retirar.recordedValues()) {
+            long quantidade = Math.min(v.getCountAtValueIteratedTo(), h.getCountAtValue(v.getValueIteratedTo()));
+            if (quantidade > 0) presentes.recordValueWithCount(v.getValueIteratedTo(), quantidade);
+        }
+        h.subtract(presentes);
+    }
+
+    private record Chave(Long categoriaId, Long equipeId, int ano, int mes, MetricaAtendimento metrica) {
+        static final Comparator<Chave> ORDEM = Comparator.comparing(Chave::categoriaId)
+                .thenComparing(Chave::equipeId)
+                .thenComparingInt(Chave::ano)
+                .thenComparingInt(Chave::mes)
+                .thenComparing(Chave::metrica);
+    }
+
+    private static class Alteracao {
+        final Histogram somar = novoHistograma();
+        final Histogram retirar = novoHistograma();
+
+        void registrar(long segundos, boolean retirada) {
+            (retirada ? retirar : somar).recordValue(segundos);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<RelatorioPercentisDTO> getPercentis(int anoInicio, int mesInicio, int anoFim, int mesFim,
+                                                    Long categoriaId, Long equipeId, String agruparPor) {
+        List<SketchTempoAtendimento> sketches = sketchRepository.findByPeriodo(
+                anoInicio * 100 + mesInicio, anoFim * 100 + mesFim, categoriaId, equipeId);
+
+        String agrupamento = (agruparPor != null) ? agruparPor.toLowerCase() : "total";
+        Function<SketchTempoAtendimento, Long> chave;
+        switch (agrupamento) {
+            case "categoria": chave = SketchTempoAtendimento::getCategoriaId; break;
+            case "equipe": chave = SketchTempoAtendimento::getEquipeId; break;
+            case "mes": chave = s -> (long) (s.getAno() * 100 + s.getMes()); break;
+            default: chave = s -> 0L;
+        }
+
+        // Roll-up: os histogramas de cada grupo são somados (merge sem perda de precisão)
+        Map<Long, Map<MetricaAtendimento, Histogram>> grupos = new TreeMap<>();
+        for (SketchTempoAtendimento s : sketches) {
+            if (s.getDados() == null) continue;
+            grupos.computeIfAbsent(chave.apply(s), k -> new EnumMap<>(MetricaAtendimento.class))
+                    .computeIfAbsent(s.getMetrica(), m -> novoHistograma())
+                    .add(decodificar(s.getDados()));
+        }
+
+        Map<Long, String> nomes = nomesDosGrupos(agrupamento, grupos.keySet());
+        List<RelatorioPercentisDTO> resultado = new ArrayList<>();
+        grupos.forEach((k, porMetrica) -> {
+            RelatorioPercentisDTO dto = new RelatorioPercentisDTO();
+            dto.setGrupo(nomes.get(k));
+
+            Histogram res = porMetrica.get(MetricaAtendimento.RESOLUCAO);
+            if (res != null) {
+                dto.setQuantidadeResolvidos(res.getTotalCount());
+                dto.setResolucaoP50Horas(horas(res, 50));
+                dto.setResolucaoP90Horas(horas(res, 90));
+                dto.setResolucaoP99Horas(horas(res, 99));
+            }
+            Histogram pr = porMetrica.get(MetricaAtendimento.PRIMEIRA_RESPOSTA);
+            if (pr != null) {
+                dto.setQuantidadePrimeiraResposta(pr.getTotalCount());
+                dto.setPrimeiraRespostaP50Horas(horas(pr, 50));
+                dto.setPrimeiraRespostaP90Horas(horas(pr, 90));
+                dto.setPrimeiraRespostaP99Horas(horas(pr, 99));
+            }
+            resultado.add(dto);
+        });
+        return resultado;
+    }
+
+    // Recalcula todos os sketches a partir dos chamados fechados (carga inicial ou correção),
+    // junto com a contribuição registrada de cada chamado
+    @Transactional
+    public long reconstruir() {
+        Map<String, SketchTempoAtendimento> chaves = new HashMap<>();
+        Map<String, Histogram> histogramas = new HashMap<>();
+        List<TempoAtendimentoChamado> tempos = new ArrayList<>();
+        long total = 0;
+
+        jdbcTemplate.update("DELETE FROM tempos_atendimento_chamado");
+        try (Stream<Object[]> linhas = ticketRepository.streamTemposFechamento()) {
+            for (Object[] row : (Iterable<Object[]>) linhas::iterator) {
+                LocalDateTime abertura = (LocalDateTime) row[2];
+                LocalDateTime fechamento = (LocalDateTime) row[3];
+                LocalDateTime primeiraResposta = (LocalDateTime) row[4];
+                if (abertura == null) continue;
+
+                TempoAtendimentoChamado tempo = novoTempo((Long) row[5], (Long) row[0], (Long) row[1],
+                        abertura, fechamento, primeiraResposta);
+
+                acumular(chaves, histogramas, tempo, MetricaAtendimento.RESOLUCAO, tempo.getSegundosResolucao());
+                if (tempo.getSegundosPrimeiraResposta() != null) {
+                    acumular(chaves, histogramas, tempo, MetricaAtendimento.PRIMEIRA_RESPOSTA, tempo.getSegundosPrimeiraResposta());
+                }
+                tempos.add(tempo);
+                if (tempos.size() == TAMANHO_LOTE_JDBC) inserirTempos(tempos);
+                total++;
+            }
+        }
+        inserirTempos(tempos);
+
+        sketchRepository.deleteAllInBatch();
+        chaves.forEach((k, sketch) -> atualizar(sketch, histogramas.get(k)));
+        sketchRepository.saveAll(chaves.values());
+        return total;
+    }
+
+    private void inserirTempos(List<TempoAtendimentoChamado> tempos) {
+        if (tempos.isEmpty()) return;
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO tempos_atendimento_chamado (id_chamado, id_categoria, id_equipe, ano, mes, " +
+                "segundos_resolucao, segundos_primeira_resposta) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                tempos, TAMANHO_LOTE_JDBC, (ps, t) -> {
+                    ps.setLong(1, t.getChamadoId());
+                    ps.setLong(2, t.getCategoriaId());
+                    ps.setLong(3, t.getEquipeId());
+                    ps.setInt(4, t.getAno());
+                    ps.setInt(5, t.getMes());
+                    ps.setLong(6, t.getSegundosResolucao());
+                    ps.setObject(7, t.getSegundosPrimeiraResposta());
+                });
+        tempos.clear();
+    }
+
+    private void acumular(Map<String, SketchTempoAtendimento> chaves, Map<String, Histogram> histogramas,
+                          TempoAtendimentoChamado tempo, MetricaAtendimento metrica, long segundos) {
+        String k = tempo.getCategoriaId() + "|" + tempo.getEquipeId() + "|" + tempo.getAno() + "|" + tempo.getMes() + "|" + metrica;
+        chaves.computeIfAbsent(k, x -> {
+            SketchTempoAtendimento s = new SketchTempoAtendimento();
+            s.setCategoriaId(tempo.getCategoriaId());
+            s.setEquipeId(tempo.getEquipeId());
+            s.setAno(tempo.getAno());
+            s.setMes(tempo.getMes());
+            s.setMetrica(metrica);
+            return s;
+        });
+        histogramas.computeIfAbsent(k, x -> novoHistograma()).recordValue(segundos);
+    }
+
+    private Map<Long, String> nomesDosGrupos(String agrupamento, Set<Long> ids) {
+        Map<Long, String> nomes = new HashMap<>();
+        switch (agrupamento) {
+            case "categoria":
+                nomes.putAll(categoriaRepository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(Categoria::getId, Categoria::getNome)));
+                ids.forEach(id -> nomes.putIfAbsent(id, "Sem Categoria"));
+                break;
+            case "equipe":
+                nomes.putAll(equipeRepository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(Equipe::getId, Equipe::getNomeEquipe)));
+                ids.forEach(id -> nomes.putIfAbsent(id, "Sem Equipe"));
+                break;
+            case "mes":
+                ids.forEach(id -> nomes.put(id, String.format("%04d-%02d", id / 100, id % 100)));
+                break;
+            default:
+                ids.forEach(id -> nomes.put(id, "Total"));
+        }
+        return nomes;
+    }
+
+    private void atualizar(SketchTempoAtendimento sketch, Histogram h) {
+        sketch.setDados(codificar(h));
+        sketch.setQuantidade(h.getTotalCount());
+        sketch.setDataAtualizacao(LocalDateTime.now());
+    }
+
+    private static Histogram novoHistograma() {
+        return new Histogram(MAX_SEGUNDOS, DIGITOS_SIGNIFICATIVOS);
+    }
+
+    private static long segundos(LocalDateTime inicio, LocalDateTime fim) {
+        long s = Duration.between(inicio, fim).getSeconds();
+        return Math.max(0, Math.min(s, MAX_SEGUNDOS));
+    }
+
+    private static Double horas(Histogram h, double percentil) {
+        return h.getValueAtPercentile(percentil) / 3600.0;
+    }
+
+    private static byte[] codificar(Histogram h) {
+        ByteBuffer buffer = ByteBuffer.allocate(h.getNeededByteBufferCapacity());
+        int tamanho = h.encodeIntoCompressedByteBuffer(buffer);
+        return Arrays.copyOf(buffer.array(), tamanho);
+    }
+
+    private static Histogram decodificar(byte[] dados) {
+        if (dados == null) return novoHistograma();
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(dados), 0);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Sketch de tempo de atendimento corrompido", e);
+        }
+    }
+}
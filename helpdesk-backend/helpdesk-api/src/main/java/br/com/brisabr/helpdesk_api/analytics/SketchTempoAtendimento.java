@@ -0,0 +1,46 @@
+package br.com.brisabr.helpdesk_api.analytics;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Histograma (HdrHistogram comprimido) dos tempos de atendimento por categoria, equipe e mês.
+// Chaves sem categoria/equipe usam 0, igual ao "Sem Categoria" do TicketResponseDTO.
+@Entity
+@Table(name = "sketches_tempo_atendimento", uniqueConstraints = @UniqueConstraint(
+        name = "uk_sketch_chave", columnNames = {"id_categoria", "id_equipe", "ano", "mes", "metrica"}))
+@Getter
+@Setter
+@NoArgsConstructor
+public class SketchTempoAtendimento {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "id_categoria", nullable = false)
+    private Long categoriaId;
+
+    @Column(name = "id_equipe", nullable = false)
+    private Long equipeId;
+
+    @Column(nullable = false)
+    private Integer ano;
+
+    @Column(nullable = false)
+    private Integer mes;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private MetricaAtendimento metrica;
+
+    private long quantidade;
+
+    private byte[] dados;
+
+    @Column(name = "data_atualizacao")
+    private LocalDateTime dataAtualizacao;
+}
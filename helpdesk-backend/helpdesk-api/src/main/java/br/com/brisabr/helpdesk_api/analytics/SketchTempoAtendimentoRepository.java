@@ -0,0 +1,39 @@
+package br.com.brisabr.helpdesk_api.analytics;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SketchTempoAtendimentoRepository extends JpaRepository<SketchTempoAtendimento, Long> {
+
+    // Garante que a linha exista antes do lock (dois fechamentos simultâneos na mesma chave)
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "sketches_tempo_atendimento"))
+    @Query(value = "INSERT INTO sketches_tempo_atendimento (id_categoria, id_equipe, ano, mes, metrica, quantidade) " +
+                   "VALUES (:categoriaId, :equipeId, :ano, :mes, :metrica, 0) " +
+                   "ON CONFLICT (id_categoria, id_equipe, ano, mes, metrica) DO NOTHING", nativeQuery = true)
+    void criarSeNaoExistir(@Param("categoriaId") Long categoriaId, @Param("equipeId") Long equipeId,
+                           @Param("ano") Integer ano, @Param("mes") Integer mes, @Param("metrica") String metrica);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<SketchTempoAtendimento> findByCategoriaIdAndEquipeIdAndAnoAndMesAndMetrica(
+            Long categoriaId, Long equipeId, Integer ano, Integer mes, MetricaAtendimento metrica);
+
+    @Query("SELECT s FROM SketchTempoAtendimento s " +
+           "WHERE (s.ano * 100 + s.mes) BETWEEN :inicio AND :fim " +
+           "AND (:categoriaId IS NULL OR s.categoriaId = :categoriaId) " +
+           "AND (:equipeId IS NULL OR s.equipeId = :equipeId)")
+    List<SketchTempoAtendimento> findByPeriodo(@Param("inicio") Integer inicio, @Param("fim") Integer fim,
+                                               @Param("categoriaId") Long categoriaId, @Param("equipeId") Long equipeId);
+}
@@ -0,0 +1,39 @@
+package br.com.brisabr.helpdesk_api.analytics;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// O que cada chamado fechado somou nos sketches (chave e valores). Quando ele é reaberto ou fechado de novo,
+// essa contribuição é retirada antes da nova entrar: cada chamado conta uma vez, pelo último fechamento,
+// exatamente como na reconstrução.
+@Entity
+@Table(name = "tempos_atendimento_chamado")
+@Getter
+@Setter
+@NoArgsConstructor
+public class TempoAtendimentoChamado {
+
+    @Id
+    @Column(name = "id_chamado")
+    private Long chamadoId;
+
+    @Column(name = "id_categoria", nullable = false)
+    private Long categoriaId;
+
+    @Column(name = "id_equipe", nullable = false)
+    private Long equipeId;
+
+    @Column(nullable = false)
+    private Integer ano;
+
+    @Column(nullable = false)
+    private Integer mes;
+
+    @Column(name = "segundos_resolucao", nullable = false)
+    private long segundosResolucao;
+
+    @Column(name = "segundos_primeira_resposta")
+    private Long segundosPrimeiraResposta;
+}
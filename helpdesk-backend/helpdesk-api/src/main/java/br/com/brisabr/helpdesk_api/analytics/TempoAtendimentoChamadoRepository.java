@@ -0,0 +1,8 @@
+package br.com.brisabr.helpdesk_api.analytics;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TempoAtendimentoChamadoRepository extends JpaRepository<TempoAtendimentoChamado, Long> {
+}
@@ -4,11 +4,14 @@ import br.com.brisabr.helpdesk_api.config.TokenService;
 import br.com.brisabr.helpdesk_api.user.User;
 import br.com.brisabr.helpdesk_api.user.UserRepository; 
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,6 +22,8 @@ import java.util.Map;
 @RequestMapping("/api/auth")
 public class AuthController {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
     @Autowired private AuthenticationManager authenticationManager;
     @Autowired private TokenService tokenService;
     @Autowired private UserRepository userRepository;
@@ -44,8 +49,12 @@ public class AuthController {
             response.put("nome", user.getNome());
 
             return ResponseEntity.ok(response);
+        } catch (AuthenticationException e) {
+            // Senha errada é rotina: sem stack trace
+            log.info("Login recusado para '{}': {}", data.getLogin(), e.getMessage());
+            return ResponseEntity.status(403).body("Login ou senha inválidos");
         } catch (Exception e) {
-            e.printStackTrace(); 
+            log.error("Falha inesperada no login de '{}'", data.getLogin(), e);
             return ResponseEntity.status(403).body("Login ou senha inválidos");
         }
     }
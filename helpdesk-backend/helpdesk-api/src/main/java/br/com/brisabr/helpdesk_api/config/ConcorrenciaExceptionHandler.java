@@ -0,0 +1,18 @@
+package br.com.brisabr.helpdesk_api.config;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+// Conflito de @Version: outro usuário alterou o chamado entre a leitura e a gravação
+@RestControllerAdvice
+public class ConcorrenciaExceptionHandler {
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleConflito(ObjectOptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("O chamado foi alterado por outro usuário. Atualize a tela e tente novamente.");
+    }
+}
@@ -1,28 +1,58 @@
 package br.com.brisabr.helpdesk_api.config;
 
+import br.com.brisabr.helpdesk_api.ticket.Ticket;
 import br.com.brisabr.helpdesk_api.user.User;
 import br.com.brisabr.helpdesk_api.user.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Configuration
 public class DataInitializer implements CommandLineRunner {
 
+    private static final Logger log = LoggerFactory.getLogger(DataInitializer.class);
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Override
     public void run(String... args) throws Exception {
         // O application.properties (ddl-auto=create) já limpou o banco.
         // Agora só precisamos garantir que o ADMIN exista.
         createOrUpdateAdmin("admin", "Administrador", "admin@brisa.com", "admin");
+        preencherPrazoSla();
+    }
+
+    // Chamados gravados antes da coluna prazo_sla: calcula pela mesma regra da entidade, em lotes.
+    // Depois da primeira subida não sobra nenhum e fica só a consulta vazia
+    private void preencherPrazoSla() {
+        long total = 0;
+        while (true) {
+            List<Object[]> lote = jdbcTemplate.query(
+                    "SELECT id, data_abertura, prioridade FROM chamados " +
+                    "WHERE prazo_sla IS NULL AND data_abertura IS NOT NULL LIMIT 1000",
+                    (rs, i) -> new Object[] {rs.getLong(1), rs.getObject(2, LocalDateTime.class), rs.getString(3)});
+            if (lote.isEmpty()) break;
+            jdbcTemplate.batchUpdate("UPDATE chamados SET prazo_sla = ? WHERE id = ?", lote, lote.size(), (ps, c) -> {
+                ps.setObject(1, Ticket.calculateSlaDeadline((LocalDateTime) c[1], (String) c[2]));
+                ps.setLong(2, (Long) c[0]);
+            });
+            total += lote.size();
+        }
+        if (total > 0) log.info("Prazo de SLA preenchido em {} chamado(s) antigo(s)", total);
     }
 
     private void createOrUpdateAdmin(String login, String nome, String email, String senhaCrua) {
@@ -35,7 +65,7 @@ public class DataInitializer implements CommandLineRunner {
             user.setPassword(passwordEncoder.encode(senhaCrua));
             user.setDataCriacao(LocalDateTime.now());
             userRepository.save(user);
-            System.out.println(">>> USUÁRIO ADMIN RECRIADO COM SUCESSO.");
+            log.info("Usuário admin recriado");
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+package br.com.brisabr.helpdesk_api.config;
+
+import br.com.brisabr.helpdesk_api.events.TicketDomainEvent;
+import br.com.brisabr.helpdesk_api.observability.AmostragemDebugFilter;
+import br.com.brisabr.helpdesk_api.observability.AppenderAssincrono;
+import br.com.brisabr.helpdesk_api.observability.EncoderConsole;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import jakarta.persistence.Entity;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.core.type.filter.RegexPatternTypeFilter;
+import org.springframework.util.ClassUtils;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.regex.Pattern;
+
+// Imagem nativa (./gradlew nativeCompile): o que é criado por reflexão, proxy ou lido do classpath e que o
+// Spring AOT não descobre sozinho. As classes são varridas no processAot (na JVM, durante o build); o binário
+// só recebe a lista pronta.
+@Configuration
+@ImportRuntimeHints(ImagemNativaConfig.Dicas.class)
+public class ImagemNativaConfig {
+
+    static class Dicas implements RuntimeHintsRegistrar {
+
+        private static final String PACOTE_BASE = "br.com.brisabr.helpdesk_api";
+
+        // Internos do java-jwt que o Jackson dele serializa/desserializa (header e payload do token)
+        private static final List<String> JWT = List.of(
+                "com.auth0.jwt.impl.BasicHeader", "com.auth0.jwt.impl.PayloadImpl",
+                "com.auth0.jwt.impl.ClaimsHolder", "com.auth0.jwt.impl.HeaderClaimsHolder", "com.auth0.jwt.impl.PayloadClaimsHolder",
+                "com.auth0.jwt.impl.HeaderSerializer", "com.auth0.jwt.impl.PayloadSerializer",
+                "com.auth0.jwt.impl.HeaderDeserializer", "com.auth0.jwt.impl.PayloadDeserializer");
+
+        private final BindingReflectionHintsRegistrar jackson = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Entidades (Hibernate) e DTOs (Jackson), com os getters/setters do Lombok e os tipos dos campos
+            ClassPathScanningCandidateComponentProvider varredura = new ClassPathScanningCandidateComponentProvider(false);
+            varredura.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+            varredura.addIncludeFilter(new RegexPatternTypeFilter(Pattern.compile(".*DTO")));
+            for (BeanDefinition definicao : varredura.findCandidateComponents(PACOTE_BASE)) {
+                jackson.registerReflectionHints(hints.reflection(), ClassUtils.resolveClassName(definicao.getBeanClassName(), classLoader));
+            }
+            jackson.registerReflectionHints(hints.reflection(), TicketDomainEvent.class); // JSON da outbox
+
+            for (String tipo : JWT) {
+                hints.reflection().registerType(TypeReference.of(tipo), MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS, MemberCategory.DECLARED_FIELDS);
+            }
+
+            // datasource-proxy (MonitorSql): proxies JDK de cada objeto JDBC
+            for (Class<?> jdbc : List.of(Connection.class, Statement.class, PreparedStatement.class, CallableStatement.class, ResultSet.class)) {
+                hints.proxies().registerJdkProxy(ProxyJdbcObject.class, jdbc);
+            }
+
+            // Classes próprias do logback-spring.xml, criadas e configuradas pelos setters
+            for (Class<?> tipo : List.of(AmostragemDebugFilter.class, AppenderAssincrono.class, EncoderConsole.class)) {
+                hints.reflection().registerType(tipo, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+
+            // Cache de segundo nível: provedor JCache pelo nome (hibernate.javax.cache.provider), key-type/value-type
+            // do reference.conf do Caffeine e a configuração HOCON das regiões
+            hints.reflection().registerType(CaffeineCachingProvider.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.reflection().registerType(Object.class);
+            hints.resources().registerPattern("application.conf");
+            hints.resources().registerPattern("reference.conf");
+
+            hints.resources().registerPattern("logback-spring.xml");
+            hints.resources().registerPattern("db/sequencias-postgresql.sql"); // SequenciasIdConfig
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.brisabr.helpdesk_api.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Set;
+
+// Perfil 'startup': com spring.main.lazy-initialization os beans só nascem no primeiro uso. Continuam sendo
+// criados na subida os do caminho quente (login, abertura e atendimento de chamados, eventos, roteamento) e
+// todo bean com @Scheduled, que sem ser criado nunca seria agendado. Relatórios, dashboards, telas de admin
+// e notificações ficam para o primeiro acesso.
+@Configuration
+@Profile("startup")
+public class InicializacaoRapidaConfig {
+
+    private static final String PACOTE_BASE = "br.com.brisabr.helpdesk_api.";
+    private static final Set<String> PACOTES_QUENTES = Set.of("auth", "config", "events", "routing", "security", "ticket", "user");
+
+    @Bean
+    public static LazyInitializationExcludeFilter beansQuentes() {
+        return (nome, definicao, tipo) -> tipo != null && (quente(tipo) || agendado(tipo));
+    }
+
+    private static boolean quente(Class<?> tipo) {
+        String pacote = tipo.getPackageName();
+        if (!pacote.startsWith(PACOTE_BASE)) return false;
+        String modulo = pacote.substring(PACOTE_BASE.length());
+        int ponto = modulo.indexOf('.');
+        return PACOTES_QUENTES.contains(ponto > 0 ? modulo.substring(0, ponto) : modulo);
+    }
+
+    private static boolean agendado(Class<?> tipo) {
+        return !MethodIntrospector.selectMethods(tipo, (MethodIntrospector.MetadataLookup<Boolean>) metodo ->
+                AnnotatedElementUtils.hasAnnotation(metodo, Scheduled.class) ? Boolean.TRUE : null).isEmpty();
+    }
+}
@@ -1,6 +1,7 @@
 package br.com.brisabr.helpdesk_api.config;
 
 import br.com.brisabr.helpdesk_api.auth.AppUserDetailsService;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
@@ -42,9 +43,14 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authorize -> authorize
+                        // Despacho assíncrono do SSE (/api/events) reaproveita a autenticação da requisição original
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers("/api/users/technicians").authenticated()
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
+                        // Scrape do Prometheus e health check do orquestrador não têm token
+                        .requestMatchers("/actuator/health/**", "/actuator/prometheus").permitAll()
+                        .requestMatchers("/actuator/**").hasAnyAuthority("ROLE_ADMIN", "admin", "ADMIN")
                         .requestMatchers("/api/dashboard/**").authenticated()
                         .requestMatchers("/api/reports/**").authenticated()
                         .requestMatchers(HttpMethod.GET, "/api/tickets/me").authenticated()
@@ -52,6 +58,7 @@ public class SecurityConfig {
                         
                         // LIBERADO: Rota de anexos para usuários logados
                         .requestMatchers("/api/anexos/**").authenticated()
+                        .requestMatchers("/api/events/**").authenticated()
 
                         .requestMatchers("/api/equipes/**").hasAnyAuthority("ROLE_ADMIN", "admin", "ADMIN")
                         .requestMatchers("/api/users/**").hasAnyAuthority("ROLE_ADMIN", "admin", "ADMIN")
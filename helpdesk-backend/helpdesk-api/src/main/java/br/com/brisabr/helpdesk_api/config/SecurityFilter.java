@@ -1,11 +1,13 @@
 package br.com.brisabr.helpdesk_api.config;
 
+import br.com.brisabr.helpdesk_api.events.CredencialSseService;
 import br.com.brisabr.helpdesk_api.user.User;
 import br.com.brisabr.helpdesk_api.user.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -13,36 +15,70 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Pattern;
 
 @Component
 public class SecurityFilter extends OncePerRequestFilter {
 
+    // Id da requisição no MDC (logs e SQL lento); aceita o do proxy/front se vier no cabeçalho
+    public static final String MDC_REQUEST_ID = "requestId";
+    // Login do usuário autenticado, junto do requestId em cada linha de log
+    public static final String MDC_USUARIO = "usuario";
+    private static final String CABECALHO_REQUEST_ID = "X-Request-Id";
+    // O id vindo de fora vai para o log e volta no cabeçalho: nada de quebra de linha, aspas ou texto livre
+    private static final Pattern REQUEST_ID_VALIDO = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
     @Autowired
     private TokenService tokenService;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CredencialSseService credencialSseService;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String requestId = request.getHeader(CABECALHO_REQUEST_ID);
+        if (requestId == null || !REQUEST_ID_VALIDO.matcher(requestId).matches()) {
+            requestId = UUID.randomUUID().toString().substring(0, 8);
+        }
+        MDC.put(MDC_REQUEST_ID, requestId);
+        response.setHeader(CABECALHO_REQUEST_ID, requestId);
+        try {
+            autenticar(request);
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_REQUEST_ID);
+            MDC.remove(MDC_USUARIO);
+        }
+    }
+
+    private void autenticar(HttpServletRequest request) {
         // 1. LIMPEZA CRÍTICA: Garante que não haja resquícios de outro usuário na memória
         SecurityContextHolder.clearContext();
         
+        User user = null;
         var token = recoverToken(request);
         if (token != null) {
             var login = tokenService.validateToken(token);
 
             if (!login.isEmpty()) {
                 // 2. CORREÇÃO: Busca ignorando Case (jose == Jose)
-                User user = userRepository.findByLoginIgnoreCase(login).orElse(null);
-
-                if (user != null) {
-                    var authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                }
+                user = userRepository.findByLoginIgnoreCase(login).orElse(null);
             }
+        } else if (isAberturaStream(request)) {
+            // EventSource (SSE) não envia cabeçalhos: vem a credencial de uso único de POST /api/events/credencial
+            user = credencialSseService.consumir(request.getParameter("credencial"))
+                    .flatMap(userRepository::findById).orElse(null);
+        }
+
+        if (user != null) {
+            var authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+            MDC.put(MDC_USUARIO, user.getLogin());
         }
-        filterChain.doFilter(request, response);
     }
 
     private String recoverToken(HttpServletRequest request) {
@@ -50,4 +86,8 @@ public class SecurityFilter extends OncePerRequestFilter {
         if (authHeader == null) return null;
         return authHeader.replace("Bearer ", "");
     }
+
+    private static boolean isAberturaStream(HttpServletRequest request) {
+        return "GET".equals(request.getMethod()) && "/api/events".equals(request.getRequestURI());
+    }
 }
\ No newline at end of file
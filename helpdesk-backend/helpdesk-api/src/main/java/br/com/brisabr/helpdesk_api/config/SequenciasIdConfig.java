@@ -0,0 +1,34 @@
+package br.com.brisabr.helpdesk_api.config;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+
+// Ajusta as sequências de id antes do EntityManagerFactory: o Hibernate confere o incremento
+// da sequência contra o allocationSize das entidades na inicialização e falharia com o SERIAL legado.
+// (O schema-postgresql.sql roda depois do ddl-auto; este precisa rodar antes.)
+@Configuration
+public class SequenciasIdConfig {
+
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor sequenciasAntesDoJpa() {
+        return new EntityManagerFactoryDependsOnPostProcessor("ajusteSequenciasId");
+    }
+
+    @Bean
+    public InitializingBean ajusteSequenciasId(DataSource dataSource) {
+        return () -> {
+            ResourceDatabasePopulator populator = new ResourceDatabasePopulator(
+                    new ClassPathResource("db/sequencias-postgresql.sql"));
+            populator.setSqlScriptEncoding("UTF-8");
+            populator.setSeparator(ScriptUtils.EOF_STATEMENT_SEPARATOR); // bloco DO único
+            populator.execute(dataSource);
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.brisabr.helpdesk_api.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+// Estatísticas do cache de segundo nível do Hibernate, por região
+@RestController
+@RequestMapping("/api/admin/cache")
+@PreAuthorize("hasRole('ADMIN')")
+public class CacheController {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getStats() {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Map<String, Object> regioes = new LinkedHashMap<>();
+        for (String regiao : new TreeSet<>(Arrays.asList(stats.getSecondLevelCacheRegionNames()))) {
+            CacheRegionStatistics r = stats.getDomainDataRegionStatistics(regiao);
+            long consultas = r.getHitCount() + r.getMissCount();
+            Map<String, Object> dados = new LinkedHashMap<>();
+            dados.put("acertos", r.getHitCount());
+            dados.put("falhas", r.getMissCount());
+            dados.put("gravacoes", r.getPutCount());
+            dados.put("taxaAcerto", consultas > 0 ? (double) r.getHitCount() / consultas : 0.0);
+            regioes.put(regiao, dados);
+        }
+
+        Map<String, Object> resposta = new LinkedHashMap<>();
+        resposta.put("acertos", stats.getSecondLevelCacheHitCount());
+        resposta.put("falhas", stats.getSecondLevelCacheMissCount());
+        resposta.put("gravacoes", stats.getSecondLevelCachePutCount());
+        resposta.put("desde", stats.getStart());
+        resposta.put("regioes", regioes);
+        return ResponseEntity.ok(resposta);
+    }
+
+    // Depois de alterar usuários/equipes/categorias direto no banco
+    @PostMapping("/limpar")
+    public ResponseEntity<Void> limpar() {
+        entityManagerFactory.getCache().evictAll();
+        return ResponseEntity.ok().build();
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.brisabr.helpdesk_api.controller;
+
+import br.com.brisabr.helpdesk_api.observability.ProfilerJfr;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Perfilamento com Java Flight Recorder sob demanda (ver ProfilerJfr)
+@RestController
+@RequestMapping("/api/admin/jfr")
+@PreAuthorize("hasRole('ADMIN')")
+public class ProfilerController {
+
+    @Autowired
+    private ProfilerJfr profilerJfr;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> listar() {
+        Map<String, Object> resposta = new LinkedHashMap<>();
+        resposta.put("perfis", profilerJfr.perfis());
+        resposta.put("gravacoes", profilerJfr.listar());
+        return ResponseEntity.ok(resposta);
+    }
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> iniciar(
+            @RequestParam(defaultValue = "default") String perfil,
+            @RequestParam(defaultValue = "60") long duracaoSegundos) {
+        return ResponseEntity.ok(profilerJfr.iniciar(perfil, duracaoSegundos));
+    }
+
+    @PostMapping("/{id}/parar")
+    public ResponseEntity<Map<String, Object>> parar(@PathVariable Long id) {
+        return ResponseEntity.ok(profilerJfr.parar(id));
+    }
+
+    @GetMapping("/{id}/resumo")
+    public ResponseEntity<Map<String, Object>> resumo(@PathVariable Long id, @RequestParam(defaultValue = "20") int limite) {
+        return ResponseEntity.ok(profilerJfr.resumo(id, Math.max(1, Math.min(limite, 200))));
+    }
+
+    @GetMapping("/{id}/arquivo")
+    public ResponseEntity<FileSystemResource> download(@PathVariable Long id) {
+        Path arquivo = profilerJfr.arquivo(id);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"helpdesk-" + id + ".jfr\"")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(new FileSystemResource(arquivo));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> remover(@PathVariable Long id) {
+        profilerJfr.remover(id);
+        return ResponseEntity.noContent().build();
+    }
+}
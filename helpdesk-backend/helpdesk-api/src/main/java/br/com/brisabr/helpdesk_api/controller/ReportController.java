@@ -1,30 +1,41 @@
 package br.com.brisabr.helpdesk_api.controller;
 
+import br.com.brisabr.helpdesk_api.analytics.PercentilAtendimentoService;
+import br.com.brisabr.helpdesk_api.dto.RelatorioPercentisDTO;
 import br.com.brisabr.helpdesk_api.ticket.TicketRepository;
 import br.com.brisabr.helpdesk_api.user.User;
 import br.com.brisabr.helpdesk_api.user.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
 import java.util.*;
 
 @RestController
 @RequestMapping("/api/reports")
 public class ReportController {
 
+    private static final Logger log = LoggerFactory.getLogger(ReportController.class);
+
     @Autowired
     private TicketRepository ticketRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PercentilAtendimentoService percentilService;
+
     private Long resolverEquipeId(Long equipeIdParam) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String login = auth.getName();
@@ -58,14 +69,8 @@ public class ReportController {
         int ano = (year != null) ? year : Calendar.getInstance().get(Calendar.YEAR);
         int mes = (month != null) ? month : (Calendar.getInstance().get(Calendar.MONTH) + 1);
 
-        // DEBUG VISUAL NO CONSOLE
-        System.out.println("\n\n=== RELATORIO ANALISTAS ===");
-        System.out.println("Filtros -> Ano: " + ano + " | Mes: " + mes + " | EquipeID: " + idEquipeFinal);
-
         List<Object[]> results = ticketRepository.getChamadosPorAnalista(ano, mes, idEquipeFinal);
-        
-        System.out.println("Registros Encontrados: " + results.size());
-        System.out.println("===========================\n");
+        log.debug("Relatório de analistas: ano {}, mês {}, equipe {} -> {} registros", ano, mes, idEquipeFinal, results.size());
 
         List<Map<String, Object>> response = new ArrayList<>();
         for (Object[] row : results) {
@@ -98,4 +103,31 @@ public class ReportController {
         for(Object[] o : res) { Map<String,Object> m=new HashMap<>(); m.put("mes", o[0]); m.put("totalChamados", o[1]); list.add(m); }
         return ResponseEntity.ok(list);
     }
+
+    // Percentis (p50/p90/p99) de resolução e primeira resposta, somando os sketches mensais do período
+    @GetMapping("/percentis")
+    public ResponseEntity<List<RelatorioPercentisDTO>> getPercentis(
+            @RequestParam(required = false) Integer anoInicio,
+            @RequestParam(required = false) Integer mesInicio,
+            @RequestParam(required = false) Integer anoFim,
+            @RequestParam(required = false) Integer mesFim,
+            @RequestParam(required = false) Long categoriaId,
+            @RequestParam(required = false) Long equipeId,
+            @RequestParam(required = false, defaultValue = "total") String agruparPor) {
+
+        Long id = resolverEquipeId(equipeId);
+        LocalDate hoje = LocalDate.now();
+        int aIni = (anoInicio != null) ? anoInicio : hoje.getYear();
+        int mIni = (mesInicio != null) ? mesInicio : hoje.getMonthValue();
+        int aFim = (anoFim != null) ? anoFim : aIni;
+        int mFim = (mesFim != null) ? mesFim : mIni;
+        return ResponseEntity.ok(percentilService.getPercentis(aIni, mIni, aFim, mFim, categoriaId, id, agruparPor));
+    }
+
+    @PostMapping("/percentis/reconstruir")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> reconstruirPercentis() {
+        long processados = percentilService.reconstruir();
+        return ResponseEntity.ok(Map.of("chamadosProcessados", processados));
+    }
 }
\ No newline at end of file
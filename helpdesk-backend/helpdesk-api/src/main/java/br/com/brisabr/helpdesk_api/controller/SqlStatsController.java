@@ -0,0 +1,43 @@
+package br.com.brisabr.helpdesk_api.controller;
+
+import br.com.brisabr.helpdesk_api.observability.MonitorSql;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Comandos SQL agregados por fingerprint desde a subida (ou a última limpeza)
+@RestController
+@RequestMapping("/api/admin/sql")
+@PreAuthorize("hasRole('ADMIN')")
+public class SqlStatsController {
+
+    @Autowired
+    private MonitorSql monitorSql;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getStats(
+            @RequestParam(defaultValue = "totalMs") String ordem,
+            @RequestParam(defaultValue = "50") int limite) {
+        Map<String, Object> resposta = new LinkedHashMap<>();
+        resposta.put("desde", monitorSql.getDesde());
+        resposta.put("limiteLentoMs", monitorSql.getLentoMs());
+        resposta.put("totalFingerprints", monitorSql.getTotalFingerprints());
+        resposta.put("comandos", monitorSql.ranking(ordem, Math.max(1, Math.min(limite, 500))));
+        return ResponseEntity.ok(resposta);
+    }
+
+    // Zera os agregados, por exemplo antes de reproduzir um problema
+    @PostMapping("/limpar")
+    public ResponseEntity<Void> limpar() {
+        monitorSql.limpar();
+        return ResponseEntity.ok().build();
+    }
+}
@@ -0,0 +1,20 @@
+package br.com.brisabr.helpdesk_api.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class RelatorioPercentisDTO {
+    private String grupo; // Nome da categoria/equipe, "2025-03" ou "Total"
+
+    private long quantidadeResolvidos;
+    private Double resolucaoP50Horas;
+    private Double resolucaoP90Horas;
+    private Double resolucaoP99Horas;
+
+    private long quantidadePrimeiraResposta;
+    private Double primeiraRespostaP50Horas;
+    private Double primeiraRespostaP90Horas;
+    private Double primeiraRespostaP99Horas;
+}
@@ -0,0 +1,27 @@
+package br.com.brisabr.helpdesk_api.events;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Credencial de uso único para abrir o stream SSE; só o hash fica gravado
+@Entity
+@Table(name = "credenciais_sse", indexes = @Index(name = "idx_credenciais_sse_expiracao", columnList = "expira_em"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class CredencialSse {
+
+    @Id
+    @Column(name = "hash_credencial", length = 64)
+    private String hash;
+
+    @Column(name = "id_usuario", nullable = false)
+    private Long usuarioId;
+
+    @Column(name = "expira_em", nullable = false)
+    private LocalDateTime expiraEm;
+}
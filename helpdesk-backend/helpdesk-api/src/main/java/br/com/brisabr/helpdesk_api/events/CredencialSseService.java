@@ -0,0 +1,66 @@
+package br.com.brisabr.helpdesk_api.events;
+
+import br.com.brisabr.helpdesk_api.user.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+// O EventSource não envia cabeçalhos, e o JWT na query string ficaria em logs de proxy e no histórico do navegador.
+// O front troca o JWT (POST autenticado) por uma credencial aleatória de 30 s, que vale para uma única conexão.
+// Fica no banco, então a credencial emitida por uma réplica é aceita por qualquer outra.
+@Service
+public class CredencialSseService {
+
+    private static final Duration VALIDADE = Duration.ofSeconds(30);
+    private static final SecureRandom ALEATORIO = new SecureRandom();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public String emitir(User user) {
+        byte[] bytes = new byte[32];
+        ALEATORIO.nextBytes(bytes);
+        String credencial = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        LocalDateTime agora = LocalDateTime.now();
+        jdbcTemplate.update("DELETE FROM credenciais_sse WHERE expira_em < ?", agora);
+        jdbcTemplate.update("INSERT INTO credenciais_sse (hash_credencial, id_usuario, expira_em) VALUES (?, ?, ?)",
+                hash(credencial), user.getId(), agora.plus(VALIDADE));
+        return credencial;
+    }
+
+    // DELETE ... RETURNING: duas conexões com a mesma credencial não conseguem as duas a linha
+    public Optional<Long> consumir(String credencial) {
+        if (credencial == null || credencial.isBlank() || credencial.length() > 64) return Optional.empty();
+        List<Long> usuarios = jdbcTemplate.query(
+                "DELETE FROM credenciais_sse WHERE hash_credencial = ? RETURNING id_usuario, expira_em",
+                (rs, i) -> rs.getObject("expira_em", LocalDateTime.class).isAfter(LocalDateTime.now())
+                        ? rs.getLong("id_usuario") : null,
+                hash(credencial));
+        return usuarios.stream().filter(id -> id != null).findFirst();
+    }
+
+    public long getValidadeSegundos() {
+        return VALIDADE.getSeconds();
+    }
+
+    private static String hash(String credencial) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(credencial.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.brisabr.helpdesk_api.events;
+
+import br.com.brisabr.helpdesk_api.user.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/events")
+public class EventController {
+
+    @Autowired
+    private TicketEventStream ticketEventStream;
+
+    @Autowired
+    private CredencialSseService credencialSseService;
+
+    // Autenticado pelo cabeçalho Authorization; a credencial vai no ?credencial= do GET abaixo
+    @PostMapping("/credencial")
+    public ResponseEntity<Map<String, Object>> emitirCredencial(@AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(Map.of(
+                "credencial", credencialSseService.emitir(user),
+                "expiraEmSegundos", credencialSseService.getValidadeSegundos()));
+    }
+
+    // Eventos: ticket-changed, ticket-removed e stats-delta (admin/gestor)
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestParam(required = false) Long equipeId,
+            @AuthenticationPrincipal User user
+    ) {
+        return ticketEventStream.assinar(user, equipeId);
+    }
+}
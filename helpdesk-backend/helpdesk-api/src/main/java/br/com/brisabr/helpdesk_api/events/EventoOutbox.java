@@ -0,0 +1,38 @@
+package br.com.brisabr.helpdesk_api.events;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "eventos_outbox", indexes = {
+        @Index(name = "idx_outbox_pendentes", columnList = "data_publicacao, id"),
+        @Index(name = "idx_outbox_chamado", columnList = "id_chamado, id")})
+@Getter
+@Setter
+@NoArgsConstructor
+public class EventoOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 40)
+    private String tipo;
+
+    @Column(name = "id_chamado")
+    private Long ticketId;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Column(name = "data_criacao", nullable = false)
+    private LocalDateTime dataCriacao = LocalDateTime.now();
+
+    // null enquanto o evento não foi entregue ao barramento
+    @Column(name = "data_publicacao")
+    private LocalDateTime dataPublicacao;
+}
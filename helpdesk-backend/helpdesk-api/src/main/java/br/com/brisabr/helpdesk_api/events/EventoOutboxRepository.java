@@ -0,0 +1,54 @@
+package br.com.brisabr.helpdesk_api.events;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EventoOutboxRepository extends JpaRepository<EventoOutbox, Long> {
+
+    // SKIP LOCKED: com mais de uma instância, cada lote é drenado por um único publicador
+    @Query(value = "SELECT * FROM eventos_outbox WHERE data_publicacao IS NULL ORDER BY id LIMIT :limite " +
+                   "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EventoOutbox> findPendentesParaPublicar(@Param("limite") int limite);
+
+    // Hora do banco, não da JVM: o cursor de cada instância compara publicações feitas por réplicas diferentes
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "eventos_outbox"))
+    @Query(value = "UPDATE eventos_outbox SET data_publicacao = CAST(clock_timestamp() AS TIMESTAMP) WHERE id IN (:ids)",
+           nativeQuery = true)
+    int marcarPublicados(@Param("ids") List<Long> ids);
+
+    @Query("SELECT MAX(e.dataPublicacao) FROM EventoOutbox e")
+    LocalDateTime findUltimaPublicacao();
+
+    // Só colunas do idx_outbox_pendentes: o payload é carregado depois, apenas para os ids ainda não entregues
+    @Query("SELECT e.id, e.dataPublicacao FROM EventoOutbox e WHERE e.dataPublicacao > :desde " +
+           "ORDER BY e.dataPublicacao, e.id")
+    List<Object[]> findPublicadosDesde(@Param("desde") LocalDateTime desde);
+
+    // Primeiro evento de cada chamado a partir de 'desde': o estado "anterior" dele é o do chamado naquele instante
+    @Query(value = "SELECT DISTINCT ON (id_chamado) * FROM eventos_outbox " +
+                   "WHERE id_chamado IN (:ids) AND data_criacao >= :desde ORDER BY id_chamado, id", nativeQuery = true)
+    List<EventoOutbox> findPrimeirosDesde(@Param("ids") Collection<Long> ids, @Param("desde") LocalDateTime desde);
+
+    // Reparo do NotificacaoSubscriber: eventos que geram notificação publicados sem nenhuma linha na fila
+    @Query(value = "SELECT * FROM eventos_outbox o WHERE o.id > :acima AND o.data_publicacao IS NOT NULL " +
+                   "AND o.data_publicacao < :limite AND o.tipo IN (:tipos) " +
+                   "AND NOT EXISTS (SELECT 1 FROM notificacoes n WHERE n.id_evento = o.id) ORDER BY o.id", nativeQuery = true)
+    List<EventoOutbox> findSemNotificacao(@Param("acima") long acima, @Param("limite") LocalDateTime limite,
+                                          @Param("tipos") Collection<String> tipos);
+
+    @Modifying
+    @Query("DELETE FROM EventoOutbox e WHERE e.dataPublicacao IS NOT NULL AND e.dataPublicacao < :limite")
+    int removerPublicadosAntesDe(@Param("limite") LocalDateTime limite);
+}
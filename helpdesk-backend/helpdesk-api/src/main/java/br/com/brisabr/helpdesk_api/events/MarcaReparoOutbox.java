@@ -0,0 +1,22 @@
+package br.com.brisabr.helpdesk_api.events;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Até que id da outbox cada reparo já conferiu (ver ReparoOutbox)
+@Entity
+@Table(name = "marcas_reparo_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+public class MarcaReparoOutbox {
+
+    @Id
+    @Column(length = 40)
+    private String nome;
+
+    @Column(name = "conferido_ate", nullable = false)
+    private Long conferidoAte;
+}
@@ -0,0 +1,130 @@
+package br.com.brisabr.helpdesk_api.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Drena a outbox em segundo plano para o barramento; a requisição do usuário só grava a linha.
+// Com várias instâncias: cada evento pendente é drenado (SKIP LOCKED) por uma só, que o entrega aos assinantes
+// de efeito único e só marca a linha depois que eles terminaram; depois de publicado, toda instância o lê pelo próprio cursor e entrega aos assinantes locais.
+@Component
+public class OutboxPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxPublisher.class);
+
+    @Autowired private EventoOutboxRepository outboxRepository;
+    @Autowired private TicketEventBus eventBus;
+    @Autowired private ObjectMapper objectMapper;
+
+    @Value("${helpdesk.outbox.lote:500}")
+    private int lote;
+
+    @Value("${helpdesk.outbox.retencao-horas:24}")
+    private long retencaoHoras;
+
+    // Quanto o drenar() espera os assinantes do cluster processarem o lote antes de desistir e devolvê-lo à fila
+    @Value("${helpdesk.outbox.espera-assinantes-ms:60000}")
+    private long esperaAssinantesMs;
+
+    // Quanto o cursor relê para trás: a data de publicação é gravada antes do commit, então um lote pode
+    // ficar visível depois de outro com data maior. Precisa cobrir com folga a duração do drenar().
+    @Value("${helpdesk.outbox.janela-releitura-ms:5000}")
+    private long janelaReleituraMs;
+
+    // Cursor desta instância: maior data de publicação já entregue e os ids entregues dentro da janela
+    private LocalDateTime cursor;
+    private final Map<Long, LocalDateTime> entregues = new HashMap<>();
+
+    // Pelo menos uma vez: a linha só é marcada (e o commit só acontece) depois que os assinantes do cluster
+    // processaram o lote. Se a instância cair antes, o lock é solto e outra drena o mesmo lote de novo.
+    @Scheduled(fixedDelayString = "${helpdesk.outbox.intervalo-ms:250}")
+    @Transactional
+    public void drenar() throws InterruptedException {
+        List<EventoOutbox> pendentes = outboxRepository.findPendentesParaPublicar(lote);
+        if (pendentes.isEmpty()) return;
+
+        List<Long> ids = new ArrayList<>(pendentes.size());
+        List<TicketDomainEvent> eventos = new ArrayList<>(pendentes.size());
+        for (EventoOutbox registro : pendentes) {
+            ids.add(registro.getId());
+            TicketDomainEvent evento = ler(registro);
+            if (evento != null) eventos.add(evento);
+        }
+        if (!eventBus.publicarNoCluster(eventos, Duration.ofMillis(esperaAssinantesMs))) {
+            // Rollback: o lote volta a ficar pendente e é entregue de novo (os assinantes toleram repetição)
+            throw new IllegalStateException("Assinantes do cluster não processaram " + eventos.size()
+                    + " evento(s) da outbox em " + esperaAssinantesMs + " ms");
+        }
+        outboxRepository.marcarPublicados(ids);
+    }
+
+    @Scheduled(fixedDelayString = "${helpdesk.outbox.intervalo-ms:250}")
+    @Transactional(readOnly = true)
+    public void acompanhar() {
+        // Começa do que já estava publicado na subida: o estado anterior vem do banco (ex.: reconciliação do roteamento)
+        if (cursor == null) {
+            LocalDateTime ultima = outboxRepository.findUltimaPublicacao();
+            cursor = (ultima != null) ? ultima : LocalDateTime.of(2000, 1, 1, 0, 0);
+            return;
+        }
+
+        Map<Long, LocalDateTime> novos = new LinkedHashMap<>();
+        for (Object[] row : outboxRepository.findPublicadosDesde(cursor.minus(janelaReleituraMs, ChronoUnit.MILLIS))) {
+            if (!entregues.containsKey((Long) row[0])) novos.put((Long) row[0], (LocalDateTime) row[1]);
+        }
+        if (novos.isEmpty()) return;
+
+        List<Long> ids = new ArrayList<>(novos.keySet());
+        for (int i = 0; i < ids.size(); i += lote) {
+            Map<Long, EventoOutbox> registros = outboxRepository.findAllById(ids.subList(i, Math.min(i + lote, ids.size())))
+                    .stream().collect(Collectors.toMap(EventoOutbox::getId, r -> r));
+            for (Long id : ids.subList(i, Math.min(i + lote, ids.size()))) {
+                // Removido pela limpeza entre as duas consultas: não há mais o que entregar
+                TicketDomainEvent evento = registros.containsKey(id) ? ler(registros.get(id)) : null;
+                if (evento != null) eventBus.publicarNaInstancia(evento);
+            }
+        }
+
+        entregues.putAll(novos);
+        for (LocalDateTime publicacao : novos.values()) {
+            if (publicacao.isAfter(cursor)) cursor = publicacao;
+        }
+        LocalDateTime limite = cursor.minus(janelaReleituraMs, ChronoUnit.MILLIS);
+        entregues.values().removeIf(publicacao -> !publicacao.isAfter(limite));
+    }
+
+    private TicketDomainEvent ler(EventoOutbox registro) {
+        try {
+            TicketDomainEvent evento = objectMapper.readValue(registro.getPayload(), TicketDomainEvent.class);
+            evento.setOutboxId(registro.getId());
+            return evento;
+        } catch (IOException e) {
+            // Payload ilegível nunca vai ser entregue: é marcado como publicado para não travar a fila
+            log.error("Evento {} da outbox descartado: payload inválido", registro.getId(), e);
+            return null;
+        }
+    }
+
+    @Scheduled(cron = "0 15 * * * *")
+    @Transactional
+    public void limpar() {
+        int removidos = outboxRepository.removerPublicadosAntesDe(LocalDateTime.now().minusHours(retencaoHoras));
+        if (removidos > 0) log.info("{} evento(s) publicados removidos da outbox", removidos);
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.brisabr.helpdesk_api.events;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+// Reparos que recriam a partir da outbox o que um assinante de efeito único deixou de gravar.
+// Cada reparo roda em uma instância por vez (advisory lock da transação) e guarda no banco até que id
+// a outbox já foi conferida: a rodada seguinte, em qualquer réplica, só olha os eventos de cima.
+@Component
+public class ReparoOutbox {
+
+    // Até onde todo evento já foi publicado há mais que o atraso: logo antes do primeiro ainda pendente
+    // (ou publicado há pouco) depois da marca atual; sem nenhum, o último id da outbox
+    private static final String MARCA =
+            "SELECT COALESCE(" +
+            "(SELECT MIN(id) - 1 FROM eventos_outbox WHERE id > ? AND (data_publicacao IS NULL OR data_publicacao >= ?)), " +
+            "(SELECT MAX(id) FROM eventos_outbox), ?)";
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    // Eventos com id acima de 'conferidoAte' publicados antes de 'limite'; devolve quantos itens recriou
+    public interface Reparo {
+        int reparar(long conferidoAte, LocalDateTime limite);
+    }
+
+    // -1 se outra instância está com o mesmo reparo em andamento.
+    // A marca é calculada antes do reparo, com o mesmo limite, para não pular evento publicado entre os dois.
+    // Um id menor que a marca só aparece depois dela se a transação que o gravou durar mais que o atraso.
+    @Transactional
+    public int executar(String nome, long atrasoSegundos, Reparo reparo) {
+        Boolean travado = jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(hashtext(?))", Boolean.class, "reparo-outbox:" + nome);
+        if (!Boolean.TRUE.equals(travado)) return -1;
+
+        jdbcTemplate.update("INSERT INTO marcas_reparo_outbox (nome, conferido_ate) VALUES (?, 0) " +
+                "ON CONFLICT (nome) DO NOTHING", nome);
+        long conferidoAte = jdbcTemplate.queryForObject(
+                "SELECT conferido_ate FROM marcas_reparo_outbox WHERE nome = ?", Long.class, nome);
+
+        LocalDateTime limite = LocalDateTime.now().minusSeconds(atrasoSegundos);
+        Long marca = jdbcTemplate.queryForObject(MARCA, Long.class, conferidoAte, limite, conferidoAte);
+        int recriados = reparo.reparar(conferidoAte, limite);
+        jdbcTemplate.update("UPDATE marcas_reparo_outbox SET conferido_ate = ? WHERE nome = ?", marca, nome);
+        return recriados;
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.brisabr.helpdesk_api.events;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Evento de ciclo de vida do chamado, gravado como JSON na outbox e entregue aos assinantes do barramento.
+// Carrega o estado antes/depois da transição para que ninguém precise consultar o banco para reagir.
+@Data
+@NoArgsConstructor
+public class TicketDomainEvent {
+    private Long outboxId;
+    private TicketEventType tipo;
+    private LocalDateTime dataOcorrencia;
+    private boolean automatico; // Atribuição feita pelo MotorRoteamento
+
+    // Entrada de histórico gravada em segundo plano pelo HistoricoSubscriber (null = transição sem histórico)
+    private String historicoAcao;
+    private String historicoComentario;
+
+    private Long ticketId;
+    private String numeroChamado;
+    private String prioridade;
+    private Long categoriaId;
+    private LocalDateTime prazoSla; // null em eventos gravados antes deste campo
+
+    private String statusAnterior; // null em CRIADO
+    private String status;
+
+    private Long autorId;
+    private String autorNome;
+
+    private Long solicitanteId;
+    private String solicitanteLogin;
+    private String solicitanteNome;
+    private String solicitanteEmail;
+    private Long equipeSolicitanteId;
+
+    private Long tecnicoAnteriorId;
+    private String tecnicoLoginAnterior;
+    private Long equipeTecnicoAnteriorId;
+
+    private Long tecnicoId;
+    private String tecnicoLogin;
+    private String tecnicoNome;
+    private String tecnicoEmail;
+    private Long equipeTecnicoId;
+}
@@ -0,0 +1,143 @@
+package br.com.brisabr.helpdesk_api.events;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.ExceptionHandler;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.EventHandlerGroup;
+import com.lmax.disruptor.dsl.ProducerType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+// Barramento em processo (ring buffer LMAX Disruptor) alimentado pelo OutboxPublisher.
+// Cada assinante consome o anel na sua própria thread; um assinante lento só atrasa a si mesmo
+// até o anel encher, quando então o publicador (e não a requisição do usuário) espera.
+// São dois anéis: o do cluster recebe cada evento em uma única instância (a que drenou a outbox) e o da
+// instância recebe todos os eventos em todas as réplicas (ver TicketEventSubscriber.unicoNoCluster).
+@Component
+public class TicketEventBus {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketEventBus.class);
+
+    @Value("${helpdesk.eventos.ring-buffer-size:4096}")
+    private int tamanhoAnel;
+
+    @Autowired(required = false)
+    private List<TicketEventSubscriber> assinantes = new ArrayList<>();
+
+    private Disruptor<Slot> cluster;
+    private Disruptor<Slot> instancia;
+
+    static class Slot {
+        TicketDomainEvent evento;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        Map<Boolean, List<TicketEventSubscriber>> porAlcance = assinantes.stream()
+                .collect(Collectors.partitioningBy(TicketEventSubscriber::unicoNoCluster));
+        cluster = criarAnel("ticket-events-cluster-", porAlcance.get(true));
+        instancia = criarAnel("ticket-events-", porAlcance.get(false));
+        log.info("Barramento de eventos iniciado com {} assinante(s) no cluster e {} na instância, anéis de {} posições",
+                porAlcance.get(true).size(), porAlcance.get(false).size(), tamanhoAnel);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Disruptor<Slot> criarAnel(String prefixoThread, List<TicketEventSubscriber> doAnel) {
+        if (doAnel.isEmpty()) return null;
+
+        AtomicInteger contador = new AtomicInteger();
+        Disruptor<Slot> disruptor = new Disruptor<>(Slot::new, tamanhoAnel, r -> {
+            Thread t = new Thread(r, prefixoThread + contador.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, ProducerType.MULTI, new BlockingWaitStrategy());
+
+        // Cada fase só consome uma posição do anel depois que todos os assinantes da fase anterior a processaram
+        Map<Integer, List<TicketEventSubscriber>> porFase = new TreeMap<>(
+                doAnel.stream().collect(Collectors.groupingBy(TicketEventSubscriber::fase)));
+        EventHandlerGroup<Slot> anterior = null;
+        for (List<TicketEventSubscriber> fase : porFase.values()) {
+            EventHandler<Slot>[] handlers = fase.stream()
+                    .map(a -> (EventHandler<Slot>) (slot, seq, fimDoLote) -> a.onEvent(slot.evento, fimDoLote))
+                    .toArray(EventHandler[]::new);
+            anterior = (anterior == null) ? disruptor.handleEventsWith(handlers) : anterior.then(handlers);
+        }
+        disruptor.setDefaultExceptionHandler(new RegistrarFalha());
+        disruptor.start();
+        return disruptor;
+    }
+
+    // Lote que esta instância drenou da outbox (SKIP LOCKED): nenhuma outra o recebe por este caminho.
+    // Volta só quando os assinantes de todas as fases processaram o lote inteiro (ou false se o limite passar):
+    // o OutboxPublisher marca a outbox depois disso, então uma queda no meio faz o lote ser drenado de novo.
+    public boolean publicarNoCluster(List<TicketDomainEvent> eventos, Duration limite) throws InterruptedException {
+        if (cluster == null || eventos.isEmpty()) return true;
+
+        RingBuffer<Slot> anel = cluster.getRingBuffer();
+        long ultima = -1;
+        for (TicketDomainEvent evento : eventos) {
+            ultima = anel.next();
+            try {
+                anel.get(ultima).evento = evento;
+            } finally {
+                anel.publish(ultima);
+            }
+        }
+        // As sequências que seguram o anel são as dos assinantes da última fase
+        long fim = System.nanoTime() + limite.toNanos();
+        while (anel.getMinimumGatingSequence() < ultima) {
+            if (System.nanoTime() > fim) return false;
+            Thread.sleep(1);
+        }
+        return true;
+    }
+
+    // Evento lido pelo cursor desta instância: todas as réplicas recebem
+    public void publicarNaInstancia(TicketDomainEvent evento) {
+        publicar(instancia, evento);
+    }
+
+    private static void publicar(Disruptor<Slot> anel, TicketDomainEvent evento) {
+        if (anel != null) anel.getRingBuffer().publishEvent((slot, seq, e) -> slot.evento = e, evento);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        if (cluster != null) cluster.shutdown();
+        if (instancia != null) instancia.shutdown();
+    }
+
+    // Falha de um assinante não derruba a thread consumidora: registra e segue para o próximo evento
+    private static class RegistrarFalha implements ExceptionHandler<Slot> {
+        @Override
+        public void handleEventException(Throwable ex, long sequence, Slot slot) {
+            TicketDomainEvent e = slot.evento;
+            log.error("Falha ao processar evento {} do chamado {}", e != null ? e.getTipo() : "?", e != null ? e.getTicketId() : "?", ex);
+        }
+
+        @Override
+        public void handleOnStartException(Throwable ex) {
+            log.error("Falha ao iniciar assinante do barramento", ex);
+        }
+
+        @Override
+        public void handleOnShutdownException(Throwable ex) {
+            log.error("Falha ao encerrar assinante do barramento", ex);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package br.com.brisabr.helpdesk_api.events;
+
+import br.com.brisabr.helpdesk_api.ticket.Ticket;
+import br.com.brisabr.helpdesk_api.user.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Grava o evento na outbox dentro da transação da própria transição (commit atômico com o chamado)
+@Component
+public class TicketEventRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketEventRecorder.class);
+
+    @Autowired private EventoOutboxRepository outboxRepository;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private static final int TAMANHO_LOTE_JDBC = 500;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public TicketDomainEvent registrar(TicketEventType tipo, Ticket t, String statusAnterior, User tecnicoAnterior, User autor) {
+        return registrar(tipo, t, statusAnterior, tecnicoAnterior, autor, false);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public TicketDomainEvent registrar(TicketEventType tipo, Ticket t, String statusAnterior, User tecnicoAnterior,
+                                       User autor, boolean automatico) {
+        TicketDomainEvent e = novoEvento(tipo, t, statusAnterior, tecnicoAnterior, autor);
+        e.setAutomatico(automatico);
+        return registrar(e);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public TicketDomainEvent registrar(TicketDomainEvent e) {
+        EventoOutbox registro = new EventoOutbox();
+        registro.setTipo(e.getTipo().name());
+        registro.setTicketId(e.getTicketId());
+        registro.setPayload(serializar(e));
+        outboxRepository.save(registro);
+        return e;
+    }
+
+    // Operações em lote: uma única ida ao banco (batch JDBC) para todos os eventos
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarEmLote(List<TicketDomainEvent> eventos) {
+        LocalDateTime agora = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO eventos_outbox (tipo, id_chamado, payload, data_criacao) VALUES (?, ?, ?, ?)",
+                eventos, TAMANHO_LOTE_JDBC, (ps, e) -> {
+                    ps.setString(1, e.getTipo().name());
+                    ps.setLong(2, e.getTicketId());
+                    ps.setString(3, serializar(e));
+                    ps.setObject(4, agora);
+                });
+    }
+
+    // A entrada de histórico viaja no próprio evento: uma linha a menos na transação do usuário
+    public TicketDomainEvent novoEvento(TicketEventType tipo, Ticket t, String statusAnterior, User tecnicoAnterior,
+                                        User autor, String historicoAcao, String historicoComentario) {
+        TicketDomainEvent e = novoEvento(tipo, t, statusAnterior, tecnicoAnterior, autor);
+        e.setHistoricoAcao(historicoAcao);
+        e.setHistoricoComentario(historicoComentario != null ? historicoComentario : historicoAcao);
+        return e;
+    }
+
+    public TicketDomainEvent novoEvento(TicketEventType tipo, Ticket t, String statusAnterior, User tecnicoAnterior, User autor) {
+        TicketDomainEvent e = new TicketDomainEvent();
+        e.setTipo(tipo);
+        e.setDataOcorrencia(LocalDateTime.now());
+        e.setTicketId(t.getId());
+        e.setNumeroChamado(t.getNumeroChamado());
+        e.setPrioridade(t.getPrioridade());
+        e.setCategoriaId(t.getCategoria() != null ? t.getCategoria().getId() : null);
+        e.setPrazoSla(t.getPrazoSla());
+        e.setStatusAnterior(statusAnterior);
+        e.setStatus(t.getStatus());
+
+        if (autor != null) {
+            e.setAutorId(autor.getId());
+            e.setAutorNome(autor.getNome());
+        }
+
+        User s = t.getSolicitante();
+        if (s != null) {
+            e.setSolicitanteId(s.getId());
+            e.setSolicitanteLogin(s.getLogin());
+            e.setSolicitanteNome(s.getNome());
+            e.setSolicitanteEmail(s.getEmail());
+            e.setEquipeSolicitanteId(s.getEquipe() != null ? s.getEquipe().getId() : null);
+        }
+
+        if (tecnicoAnterior != null) {
+            e.setTecnicoAnteriorId(tecnicoAnterior.getId());
+            e.setTecnicoLoginAnterior(tecnicoAnterior.getLogin());
+            e.setEquipeTecnicoAnteriorId(tecnicoAnterior.getEquipe() != null ? tecnicoAnterior.getEquipe().getId() : null);
+        }
+
+        User tec = t.getTecnicoAtribuido();
+        if (tec != null) {
+            e.setTecnicoId(tec.getId());
+            e.setTecnicoLogin(tec.getLogin());
+            e.setTecnicoNome(tec.getNome());
+            e.setTecnicoEmail(tec.getEmail());
+            e.setEquipeTecnicoId(tec.getEquipe() != null ? tec.getEquipe().getId() : null);
+        }
+        return e;
+    }
+
+    // Primeiro evento de cada chamado a partir de 'desde', ainda dentro da retenção da outbox
+    public List<TicketDomainEvent> primeirosEventosDesde(Collection<Long> ticketIds, LocalDateTime desde) {
+        List<TicketDomainEvent> eventos = new ArrayList<>();
+        for (EventoOutbox registro : outboxRepository.findPrimeirosDesde(ticketIds, desde)) {
+            try {
+                eventos.add(objectMapper.readValue(registro.getPayload(), TicketDomainEvent.class));
+            } catch (JsonProcessingException ex) {
+                log.warn("Evento {} da outbox ignorado: payload inválido", registro.getId());
+            }
+        }
+        return eventos;
+    }
+
+    public String serializar(TicketDomainEvent e) {
+        try {
+            return objectMapper.writeValueAsString(e);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Falha ao serializar evento " + e.getTipo(), ex);
+        }
+    }
+}
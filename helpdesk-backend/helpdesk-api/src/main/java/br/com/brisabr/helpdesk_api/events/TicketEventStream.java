@@ -0,0 +1,258 @@
+package br.com.brisabr.helpdesk_api.events;
+
+import br.com.brisabr.helpdesk_api.ticket.TicketResponseDTO;
+import br.com.brisabr.helpdesk_api.ticket.TicketService;
+import br.com.brisabr.helpdesk_api.ticket.TicketSpecification;
+import br.com.brisabr.helpdesk_api.user.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Assinante do barramento que repassa os eventos para os navegadores conectados via SSE.
+// A thread do anel só decide quem recebe o quê e enfileira; o chamado é carregado e escrito no socket pelas
+// threads de envio. Cada navegador tem uma fila limitada: o que não acompanha o ritmo tem o stream encerrado
+// e, ao reconectar, busca o que perdeu pelo /changes (ticketStore.conectarEventos).
+@Component
+public class TicketEventStream implements TicketEventSubscriber {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketEventStream.class);
+
+    private static final long TIMEOUT_MS = 30 * 60 * 1000L; // O EventSource reconecta sozinho
+    private static final Set<String> FECHADOS = Set.of("Resolvido", "Fechado", "Encerrado");
+
+    private final List<Assinante> assinantes = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Value("${helpdesk.sse.fila-por-assinante:4096}")
+    private int tamanhoFila;
+
+    @Value("${helpdesk.sse.threads-envio:4}")
+    private int threadsEnvio;
+
+    private ExecutorService envio;
+
+    private static class Assinante {
+        final User user;
+        final boolean recebeStats;
+        final Long equipeDashboard; // null = todas as equipes
+        final SseEmitter emitter;
+        // Mensagens montadas na hora do envio (o chamado só é carregado fora da thread do anel)
+        final BlockingQueue<Supplier<SseEmitter.SseEventBuilder>> fila;
+        // Uma tarefa de envio por vez para cada navegador: mantém a ordem dos eventos
+        final AtomicBoolean agendado = new AtomicBoolean();
+        final AtomicBoolean encerrado = new AtomicBoolean();
+        volatile boolean transbordou;
+
+        Assinante(User user, boolean recebeStats, Long equipeDashboard, SseEmitter emitter, int tamanhoFila) {
+            this.user = user;
+            this.recebeStats = recebeStats;
+            this.equipeDashboard = equipeDashboard;
+            this.emitter = emitter;
+            this.fila = new ArrayBlockingQueue<>(tamanhoFila);
+        }
+    }
+
+    // Estado atual do chamado, carregado uma única vez por evento e só se alguém puder vê-lo:
+    // quem chegar primeiro carrega, as outras threads de envio reaproveitam
+    private class Carga {
+        private final TicketDomainEvent evento;
+        private boolean carregado;
+        private TicketResponseDTO ticket;
+
+        Carga(TicketDomainEvent evento) {
+            this.evento = evento;
+        }
+
+        synchronized TicketResponseDTO ticket() {
+            if (!carregado) {
+                ticket = carregar(evento);
+                carregado = true;
+            }
+            return ticket;
+        }
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        AtomicInteger contador = new AtomicInteger();
+        envio = Executors.newFixedThreadPool(threadsEnvio, r -> {
+            Thread t = new Thread(r, "sse-envio-" + contador.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public SseEmitter assinar(User user, Long equipeId) {
+        String perfil = user.getPerfil() != null ? user.getPerfil().toLowerCase() : "";
+
+        // Mesma regra do DashboardController: gestor só acompanha a própria equipe
+        boolean recebeStats = perfil.equals("admin") || perfil.contains("manager") || perfil.contains("gestor");
+        Long equipeDashboard = (equipeId != null && equipeId > 0) ? equipeId : null;
+        if (perfil.contains("manager") || perfil.contains("gestor")) {
+            recebeStats = user.getEquipe() != null;
+            equipeDashboard = recebeStats ? user.getEquipe().getId() : null;
+        }
+
+        SseEmitter emitter = new SseEmitter(TIMEOUT_MS);
+        Assinante assinante = new Assinante(user, recebeStats, equipeDashboard, emitter, tamanhoFila);
+        emitter.onCompletion(() -> assinantes.remove(assinante));
+        emitter.onTimeout(() -> assinantes.remove(assinante));
+        emitter.onError(e -> assinantes.remove(assinante));
+        assinantes.add(assinante);
+        return emitter;
+    }
+
+    @Override
+    public void onEvent(TicketDomainEvent evento, boolean fimDoLote) {
+        if (!assinantes.isEmpty()) distribuir(evento);
+    }
+
+    @Scheduled(fixedRate = 20000)
+    public void heartbeat() {
+        for (Assinante a : assinantes) {
+            enfileirar(a, () -> SseEmitter.event().comment("ping"));
+        }
+    }
+
+    // Roda na thread do anel: nada de banco nem de socket aqui
+    private void distribuir(TicketDomainEvent e) {
+        Carga carga = null;
+        for (Assinante a : assinantes) {
+            boolean visivelAgora = TicketSpecification.isVisivel(a.user, e.getSolicitanteLogin(),
+                    e.getEquipeSolicitanteId(), e.getTecnicoLogin(), e.getStatus());
+            boolean visivelAntes = e.getStatusAnterior() != null && TicketSpecification.isVisivel(a.user,
+                    e.getSolicitanteLogin(), e.getEquipeSolicitanteId(), e.getTecnicoLoginAnterior(), e.getStatusAnterior());
+
+            if (visivelAgora) {
+                if (carga == null) carga = new Carga(e);
+                Carga doEvento = carga;
+                enfileirar(a, () -> {
+                    TicketResponseDTO ticket = doEvento.ticket();
+                    return ticket != null ? SseEmitter.event().name("ticket-changed").data(ticket, MediaType.APPLICATION_JSON) : null;
+                });
+            } else if (visivelAntes) {
+                // Saiu da fila deste usuário (ex.: capturado por outro técnico)
+                enfileirar(a, () -> SseEmitter.event().name("ticket-removed").data(Map.of("id", e.getTicketId()), MediaType.APPLICATION_JSON));
+            }
+
+            if (a.recebeStats) {
+                Map<String, Long> delta = calcularDelta(e, a.equipeDashboard);
+                if (!delta.isEmpty()) enfileirar(a, () -> SseEmitter.event().name("stats-delta").data(delta, MediaType.APPLICATION_JSON));
+            }
+        }
+    }
+
+    private void enfileirar(Assinante a, Supplier<SseEmitter.SseEventBuilder> mensagem) {
+        if (a.transbordou) return;
+        if (!a.fila.offer(mensagem)) {
+            // Navegador lento (ou rede parada): a fila não esvazia e o stream é encerrado. Quem fecha é a
+            // tarefa de envio, que é a dona do socket; a thread do anel segue sem esperar
+            a.transbordou = true;
+            assinantes.remove(a);
+            a.fila.clear();
+            log.warn("Stream SSE de {} encerrado: {} mensagens pendentes sem envio", a.user.getLogin(), tamanhoFila);
+        }
+        agendar(a);
+    }
+
+    private void agendar(Assinante a) {
+        if (a.agendado.compareAndSet(false, true)) {
+            envio.execute(() -> drenar(a));
+        }
+    }
+
+    // Threads de envio: um navegador por vez e, para cada um, as mensagens na ordem em que foram enfileiradas
+    private void drenar(Assinante a) {
+        try {
+            Supplier<SseEmitter.SseEventBuilder> mensagem;
+            while (!a.transbordou && (mensagem = a.fila.poll()) != null) {
+                SseEmitter.SseEventBuilder evento = mensagem.get();
+                if (evento != null && !enviar(a, evento)) return;
+            }
+            if (a.transbordou && a.encerrado.compareAndSet(false, true)) a.emitter.complete();
+        } catch (RuntimeException ex) {
+            log.error("Falha ao enviar evento SSE para {}", a.user.getLogin(), ex);
+        } finally {
+            a.agendado.set(false);
+            // Mensagem que chegou entre o último poll e a liberação da vez
+            if (!a.fila.isEmpty() && !a.encerrado.get()) agendar(a);
+        }
+    }
+
+    private TicketResponseDTO carregar(TicketDomainEvent e) {
+        try {
+            return ticketService.findTicketById(e.getTicketId(), e);
+        } catch (NoSuchElementException ex) {
+            return null;
+        }
+    }
+
+    // O dashboard filtra pela equipe do TÉCNICO (ver TicketService.getDashboardStats)
+    private Map<String, Long> calcularDelta(TicketDomainEvent e, Long equipeDashboard) {
+        long[] antes = (equipeDashboard == null || equipeDashboard.equals(e.getEquipeTecnicoAnteriorId()))
+                ? contagem(e.getStatusAnterior()) : new long[4];
+        long[] depois = (equipeDashboard == null || equipeDashboard.equals(e.getEquipeTecnicoId()))
+                ? contagem(e.getStatus()) : new long[4];
+
+        String[] campos = {"abertos", "emAndamento", "fechados", "total"};
+        Map<String, Long> delta = new LinkedHashMap<>();
+        for (int i = 0; i < campos.length; i++) {
+            if (depois[i] != antes[i]) delta.put(campos[i], depois[i] - antes[i]);
+        }
+        return delta;
+    }
+
+    private static long[] contagem(String status) {
+        if (status == null) return new long[4];
+        boolean fechado = FECHADOS.contains(status);
+        return new long[] {
+            "Aberto".equalsIgnoreCase(status) ? 1 : 0,
+            "Em Andamento".equalsIgnoreCase(status) ? 1 : 0,
+            fechado ? 1 : 0,
+            fechado ? 0 : 1
+        };
+    }
+
+    private boolean enviar(Assinante a, SseEmitter.SseEventBuilder evento) {
+        try {
+            a.emitter.send(evento);
+            return true;
+        } catch (IOException | IllegalStateException ex) {
+            // Navegador fechou a aba: descarta o assinante
+            assinantes.remove(a);
+            a.fila.clear();
+            if (a.encerrado.compareAndSet(false, true)) a.emitter.completeWithError(ex);
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        envio.shutdownNow();
+        assinantes.forEach(a -> a.emitter.complete());
+    }
+}
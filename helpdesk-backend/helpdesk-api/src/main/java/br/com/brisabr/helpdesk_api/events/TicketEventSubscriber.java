@@ -0,0 +1,25 @@
+package br.com.brisabr.helpdesk_api.events;
+
+// Assinante do barramento: cada implementação (bean Spring) roda na sua própria thread consumidora.
+// Nos assinantes de efeito único a entrega é "pelo menos uma vez": a outbox só é marcada depois que todos
+// processaram o lote, então um evento se repete se a instância cair (ou o lote estourar a espera) antes disso.
+// Exceção lançada em onEvent só é registrada: quem não pode perder o evento trata a própria falha ou tem reparo
+// a partir da outbox (ver HistoricoSubscriber e NotificacaoSubscriber).
+public interface TicketEventSubscriber {
+
+    void onEvent(TicketDomainEvent evento, boolean fimDoLote) throws Exception;
+
+    // Assinantes de fase menor veem cada evento antes dos de fase maior (ex.: o histórico é gravado
+    // antes de a notificação ser enfileirada). Dentro da mesma fase rodam em paralelo.
+    // A ordem só vale entre assinantes do mesmo alcance (ver unicoNoCluster).
+    default int fase() {
+        return 1;
+    }
+
+    // true: efeito que deve acontecer uma vez no cluster (gravar no banco, contar métrica, decidir roteamento);
+    // o evento chega só à instância que drenou a outbox. false: estado em memória da própria instância
+    // (SSE, contadores do roteamento), então toda instância recebe todos os eventos.
+    default boolean unicoNoCluster() {
+        return false;
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.brisabr.helpdesk_api.events;
+
+public enum TicketEventType {
+    CRIADO,
+    ATRIBUIDO,
+    FECHADO,
+    REABERTO,
+    RECLASSIFICADO,
+    COMENTADO,
+    ANEXO_ADICIONADO
+}
@@ -0,0 +1,6 @@
+package br.com.brisabr.helpdesk_api.notification;
+
+public enum CanalNotificacao {
+    EMAIL,
+    WEBHOOK
+}
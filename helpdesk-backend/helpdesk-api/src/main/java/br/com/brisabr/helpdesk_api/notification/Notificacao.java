@@ -0,0 +1,70 @@
+package br.com.brisabr.helpdesk_api.notification;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Fila durável de notificações: o assinante do barramento grava, o NotificacaoDispatcher envia
+@Entity
+@Table(name = "notificacoes",
+        uniqueConstraints = @UniqueConstraint(name = "uk_notificacao_evento",
+                columnNames = {"id_evento", "canal", "destinatario"}),
+        indexes = @Index(name = "idx_notificacoes_fila", columnList = "status, proxima_tentativa"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class Notificacao {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Id da outbox: o evento pode chegar mais de uma vez, a notificação não
+    @Column(name = "id_evento", nullable = false)
+    private Long eventoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private CanalNotificacao canal;
+
+    // E-mail ou URL do webhook
+    @Column(nullable = false)
+    private String destinatario;
+
+    @Column(name = "tipo_evento", nullable = false, length = 40)
+    private String tipoEvento;
+
+    @Column(name = "id_chamado")
+    private Long ticketId;
+
+    @Column(name = "numero_chamado")
+    private String numeroChamado;
+
+    @Column(nullable = false)
+    private String titulo;
+
+    @Column(columnDefinition = "TEXT")
+    private String mensagem;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StatusNotificacao status = StatusNotificacao.PENDENTE;
+
+    @Column(nullable = false)
+    private int tentativas = 0;
+
+    @Column(name = "proxima_tentativa", nullable = false)
+    private LocalDateTime proximaTentativa;
+
+    @Column(name = "ultimo_erro", length = 1000)
+    private String ultimoErro;
+
+    @Column(name = "data_criacao", nullable = false)
+    private LocalDateTime dataCriacao = LocalDateTime.now();
+
+    @Column(name = "data_envio")
+    private LocalDateTime dataEnvio;
+}
@@ -0,0 +1,63 @@
+package br.com.brisabr.helpdesk_api.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Envia a fila de notificações em segundo plano, agrupando por canal + destinatário
+@Component
+public class NotificacaoDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificacaoDispatcher.class);
+
+    @Autowired private NotificacaoService notificacaoService;
+
+    @Value("${helpdesk.notificacoes.lote:200}")
+    private int lote;
+
+    @Value("${helpdesk.notificacoes.retencao-dias:7}")
+    private long retencaoDias;
+
+    @Scheduled(fixedDelayString = "${helpdesk.notificacoes.intervalo-ms:5000}")
+    public void despachar() {
+        List<Notificacao> reservadas = notificacaoService.reservar(lote);
+        if (reservadas.isEmpty()) return;
+
+        Map<String, List<Notificacao>> grupos = new LinkedHashMap<>();
+        for (Notificacao n : reservadas) {
+            grupos.computeIfAbsent(n.getCanal() + "|" + n.getDestinatario(), k -> new ArrayList<>()).add(n);
+        }
+
+        for (List<Notificacao> grupo : grupos.values()) {
+            Notificacao primeira = grupo.get(0);
+            NotificacaoTransport transport = notificacaoService.getTransport(primeira.getCanal());
+            if (transport == null) {
+                notificacaoService.reagendar(grupo, "Canal " + primeira.getCanal() + " não configurado");
+                continue;
+            }
+            try {
+                transport.enviar(primeira.getDestinatario(), grupo);
+                notificacaoService.concluir(grupo);
+            } catch (Exception e) {
+                log.warn("Falha ao enviar {} notificação(ões) via {} para {}: {}",
+                        grupo.size(), primeira.getCanal(), primeira.getDestinatario(), e.getMessage());
+                notificacaoService.reagendar(grupo, e.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(cron = "0 30 3 * * *")
+    public void limpar() {
+        int removidas = notificacaoService.removerEnviadasAntesDe(LocalDateTime.now().minusDays(retencaoDias));
+        if (removidas > 0) log.info("{} notificação(ões) enviadas removidas", removidas);
+    }
+}
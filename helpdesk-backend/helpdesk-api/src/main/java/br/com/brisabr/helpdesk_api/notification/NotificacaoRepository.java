@@ -0,0 +1,42 @@
+package br.com.brisabr.helpdesk_api.notification;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificacaoRepository extends JpaRepository<Notificacao, Long> {
+
+    // Reentrega do mesmo evento pelo barramento não duplica a notificação
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "notificacoes"))
+    @Query(value = "INSERT INTO notificacoes (id_evento, canal, destinatario, tipo_evento, id_chamado, numero_chamado, " +
+                   "titulo, mensagem, status, tentativas, proxima_tentativa, data_criacao) " +
+                   "VALUES (:#{#n.eventoId}, :#{#n.canal.name()}, :#{#n.destinatario}, :#{#n.tipoEvento}, :#{#n.ticketId}, " +
+                   ":#{#n.numeroChamado}, :#{#n.titulo}, :#{#n.mensagem}, 'PENDENTE', 0, :#{#n.proximaTentativa}, " +
+                   ":#{#n.dataCriacao}) " +
+                   "ON CONFLICT (id_evento, canal, destinatario) DO NOTHING", nativeQuery = true)
+    int inserirSeNaoExistir(@Param("n") Notificacao n);
+
+    // SKIP LOCKED: dois dispatchers nunca reservam a mesma linha
+    @Query(value = "SELECT * FROM notificacoes WHERE status = 'PENDENTE' AND proxima_tentativa <= :agora " +
+                   "ORDER BY proxima_tentativa LIMIT :limite FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Notificacao> findVencidasParaEnvio(@Param("agora") LocalDateTime agora, @Param("limite") int limite);
+
+    @Modifying
+    @Query("UPDATE Notificacao n SET n.status = :status, n.dataEnvio = :agora, n.ultimoErro = null WHERE n.id IN :ids")
+    int marcarEnviadas(@Param("ids") List<Long> ids, @Param("agora") LocalDateTime agora,
+                       @Param("status") StatusNotificacao status);
+
+    @Modifying
+    @Query("DELETE FROM Notificacao n WHERE n.dataEnvio IS NOT NULL AND n.dataEnvio < :limite")
+    int removerEnviadasAntesDe(@Param("limite") LocalDateTime limite);
+}
@@ -0,0 +1,104 @@
+package br.com.brisabr.helpdesk_api.notification;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class NotificacaoService {
+
+    @Autowired private NotificacaoRepository notificacaoRepository;
+
+    @Autowired(required = false)
+    private List<NotificacaoTransport> transports = new ArrayList<>();
+
+    private final Map<CanalNotificacao, NotificacaoTransport> porCanal = new EnumMap<>(CanalNotificacao.class);
+
+    // Espera antes do primeiro envio: eventos do mesmo destinatário nesse intervalo saem juntos
+    @Value("${helpdesk.notificacoes.janela-segundos:30}")
+    private long janelaSegundos;
+
+    // Linha reservada e não concluída (ex.: queda no meio do envio) volta para a fila após esse prazo
+    @Value("${helpdesk.notificacoes.reserva-segundos:300}")
+    private long reservaSegundos;
+
+    @Value("${helpdesk.notificacoes.max-tentativas:8}")
+    private int maxTentativas;
+
+    @Value("${helpdesk.notificacoes.backoff-inicial-segundos:30}")
+    private long backoffInicialSegundos;
+
+    @Value("${helpdesk.notificacoes.backoff-max-segundos:3600}")
+    private long backoffMaxSegundos;
+
+    @PostConstruct
+    public void registrarTransports() {
+        transports.forEach(t -> porCanal.put(t.canal(), t));
+    }
+
+    public boolean isCanalAtivo(CanalNotificacao canal) {
+        return porCanal.containsKey(canal);
+    }
+
+    public NotificacaoTransport getTransport(CanalNotificacao canal) {
+        return porCanal.get(canal);
+    }
+
+    // Devolve quantas entraram na fila (as já gravadas para o mesmo evento ficam de fora)
+    @Transactional
+    public int enfileirar(List<Notificacao> notificacoes) {
+        LocalDateTime envio = LocalDateTime.now().plusSeconds(janelaSegundos);
+        int inseridas = 0;
+        for (Notificacao n : notificacoes) {
+            n.setProximaTentativa(envio);
+            inseridas += notificacaoRepository.inserirSeNaoExistir(n);
+        }
+        return inseridas;
+    }
+
+    // Reserva em transação curta; o envio (SMTP/HTTP) acontece fora dela, sem segurar locks
+    @Transactional
+    public List<Notificacao> reservar(int limite) {
+        LocalDateTime agora = LocalDateTime.now();
+        List<Notificacao> vencidas = notificacaoRepository.findVencidasParaEnvio(agora, limite);
+        vencidas.forEach(n -> n.setProximaTentativa(agora.plusSeconds(reservaSegundos)));
+        return vencidas;
+    }
+
+    @Transactional
+    public void concluir(List<Notificacao> notificacoes) {
+        List<Long> ids = notificacoes.stream().map(Notificacao::getId).toList();
+        notificacaoRepository.marcarEnviadas(ids, LocalDateTime.now(), StatusNotificacao.ENVIADA);
+    }
+
+    // Backoff exponencial: 30s, 1min, 2min, 4min... até o teto; depois de maxTentativas vira FALHA
+    @Transactional
+    public void reagendar(List<Notificacao> notificacoes, String erro) {
+        LocalDateTime agora = LocalDateTime.now();
+        String mensagemErro = (erro != null && erro.length() > 1000) ? erro.substring(0, 1000) : erro;
+        for (Notificacao n : notificacoes) {
+            n.setTentativas(n.getTentativas() + 1);
+            n.setUltimoErro(mensagemErro);
+            if (n.getTentativas() >= maxTentativas) {
+                n.setStatus(StatusNotificacao.FALHA);
+            } else {
+                long espera = Math.min(backoffMaxSegundos, backoffInicialSegundos << Math.min(n.getTentativas() - 1, 20));
+                n.setProximaTentativa(agora.plusSeconds(espera));
+            }
+        }
+        notificacaoRepository.saveAll(notificacoes);
+    }
+
+    @Transactional
+    public int removerEnviadasAntesDe(LocalDateTime limite) {
+        return notificacaoRepository.removerEnviadasAntesDe(limite);
+    }
+}
@@ -0,0 +1,151 @@
+package br.com.brisabr.helpdesk_api.notification;
+
+import br.com.brisabr.helpdesk_api.events.EventoOutbox;
+import br.com.brisabr.helpdesk_api.events.EventoOutboxRepository;
+import br.com.brisabr.helpdesk_api.events.ReparoOutbox;
+import br.com.brisabr.helpdesk_api.events.TicketDomainEvent;
+import br.com.brisabr.helpdesk_api.events.TicketEventSubscriber;
+import br.com.brisabr.helpdesk_api.events.TicketEventType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+// Transforma eventos de atribuição e fechamento em linhas na fila de notificações.
+// Acumula até o fim do lote do barramento e grava tudo numa única transação. Como no histórico, a outbox é o
+// log durável: o que não chegar à fila (banco fora do ar, queda da instância) o reparo periódico recria.
+@Component
+public class NotificacaoSubscriber implements TicketEventSubscriber {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificacaoSubscriber.class);
+    private static final int TENTATIVAS = 5;
+    private static final List<String> TIPOS = List.of(TicketEventType.ATRIBUIDO.name(), TicketEventType.FECHADO.name());
+
+    @Autowired private NotificacaoService notificacaoService;
+    @Autowired private EventoOutboxRepository outboxRepository;
+    @Autowired private ReparoOutbox reparoOutbox;
+    @Autowired private ObjectMapper objectMapper;
+
+    @Value("${helpdesk.notificacoes.webhook.url:}")
+    private String webhookUrl;
+
+    @Value("${helpdesk.notificacoes.reparo-atraso-segundos:60}")
+    private long atrasoReparoSegundos;
+
+    private final List<Notificacao> pendentes = new ArrayList<>();
+
+    @Override
+    public boolean unicoNoCluster() {
+        return true;
+    }
+
+    @Override
+    public void onEvent(TicketDomainEvent e, boolean fimDoLote) {
+        if (e.getOutboxId() != null) pendentes.addAll(notificacoes(e));
+        if (!fimDoLote || pendentes.isEmpty()) return;
+
+        try {
+            enfileirarComRetentativa();
+        } finally {
+            pendentes.clear();
+        }
+    }
+
+    // Falha transitória do banco: tenta de novo com espera crescente; se persistir, o reparo recria as linhas
+    private void enfileirarComRetentativa() {
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                notificacaoService.enfileirar(pendentes);
+                return;
+            } catch (RuntimeException ex) {
+                if (tentativa >= TENTATIVAS) {
+                    log.error("Falha ao enfileirar {} notificação(ões); ficam para o reparo", pendentes.size(), ex);
+                    return;
+                }
+                try {
+                    Thread.sleep(100L << (tentativa - 1));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // Eventos de atribuição e fechamento publicados há mais que o atraso sem nenhuma linha na fila.
+    // Evento que não gera notificação (autor é o próprio destinatário, canal desligado) é refeito sem efeito.
+    @Scheduled(fixedDelayString = "${helpdesk.notificacoes.reparo-ms:60000}")
+    public void reparar() {
+        int recriadas = reparoOutbox.executar("notificacoes", atrasoReparoSegundos, (conferidoAte, limite) -> {
+            List<Notificacao> faltando = new ArrayList<>();
+            for (EventoOutbox registro : outboxRepository.findSemNotificacao(conferidoAte, limite, TIPOS)) {
+                try {
+                    TicketDomainEvent e = objectMapper.readValue(registro.getPayload(), TicketDomainEvent.class);
+                    e.setOutboxId(registro.getId());
+                    faltando.addAll(notificacoes(e));
+                } catch (IOException ex) {
+                    log.error("Evento {} da outbox ignorado no reparo: payload inválido", registro.getId(), ex);
+                }
+            }
+            return faltando.isEmpty() ? 0 : notificacaoService.enfileirar(faltando);
+        });
+        if (recriadas > 0) log.warn("{} notificação(ões) recriadas a partir da outbox", recriadas);
+    }
+
+    private List<Notificacao> notificacoes(TicketDomainEvent e) {
+        List<Notificacao> geradas = new ArrayList<>();
+        switch (e.getTipo()) {
+            case ATRIBUIDO -> {
+                if (!Objects.equals(e.getTecnicoId(), e.getAutorId())) {
+                    email(geradas, e, e.getTecnicoEmail(), "Chamado " + e.getNumeroChamado() + " atribuído a você",
+                            "Prioridade: " + e.getPrioridade() + ". Solicitante: " + e.getSolicitanteNome() + ".");
+                }
+                if (!Objects.equals(e.getSolicitanteId(), e.getAutorId())) {
+                    email(geradas, e, e.getSolicitanteEmail(), "Chamado " + e.getNumeroChamado() + " em atendimento",
+                            "Seu chamado está sendo atendido por " + e.getTecnicoNome() + ".");
+                }
+                webhook(geradas, e, "Chamado " + e.getNumeroChamado() + " atribuído a " + e.getTecnicoNome());
+            }
+            case FECHADO -> {
+                if (!Objects.equals(e.getSolicitanteId(), e.getAutorId())) {
+                    email(geradas, e, e.getSolicitanteEmail(), "Chamado " + e.getNumeroChamado() + " fechado",
+                            "Seu chamado foi fechado por " + e.getAutorNome() + ". Se o problema persistir, reabra o chamado.");
+                }
+                webhook(geradas, e, "Chamado " + e.getNumeroChamado() + " fechado por " + e.getAutorNome());
+            }
+            default -> { }
+        }
+        return geradas;
+    }
+
+    private void email(List<Notificacao> geradas, TicketDomainEvent e, String destinatario, String titulo, String mensagem) {
+        if (destinatario == null || destinatario.isBlank() || !notificacaoService.isCanalAtivo(CanalNotificacao.EMAIL)) return;
+        geradas.add(nova(e, CanalNotificacao.EMAIL, destinatario, titulo, mensagem));
+    }
+
+    private void webhook(List<Notificacao> geradas, TicketDomainEvent e, String titulo) {
+        if (webhookUrl.isBlank() || !notificacaoService.isCanalAtivo(CanalNotificacao.WEBHOOK)) return;
+        geradas.add(nova(e, CanalNotificacao.WEBHOOK, webhookUrl, titulo, null));
+    }
+
+    private Notificacao nova(TicketDomainEvent e, CanalNotificacao canal, String destinatario, String titulo, String mensagem) {
+        Notificacao n = new Notificacao();
+        n.setEventoId(e.getOutboxId());
+        n.setCanal(canal);
+        n.setDestinatario(destinatario);
+        n.setTipoEvento(e.getTipo().name());
+        n.setTicketId(e.getTicketId());
+        n.setNumeroChamado(e.getNumeroChamado());
+        n.setTitulo(titulo);
+        n.setMensagem(mensagem);
+        return n;
+    }
+}
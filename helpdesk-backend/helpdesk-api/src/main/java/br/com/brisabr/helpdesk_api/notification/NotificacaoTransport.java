@@ -0,0 +1,12 @@
+package br.com.brisabr.helpdesk_api.notification;
+
+import java.util.List;
+
+// Meio de entrega plugável. Recebe todas as notificações vencidas de um destinatário de uma vez,
+// para que possam ser agrupadas numa única mensagem. Qualquer exceção agenda nova tentativa.
+public interface NotificacaoTransport {
+
+    CanalNotificacao canal();
+
+    void enviar(String destinatario, List<Notificacao> notificacoes) throws Exception;
+}
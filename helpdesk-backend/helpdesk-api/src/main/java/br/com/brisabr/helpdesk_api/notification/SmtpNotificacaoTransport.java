@@ -0,0 +1,50 @@
+package br.com.brisabr.helpdesk_api.notification;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Ativo somente com spring.mail.host configurado
+@Component
+@ConditionalOnProperty(name = "spring.mail.host")
+public class SmtpNotificacaoTransport implements NotificacaoTransport {
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Value("${helpdesk.notificacoes.email.remetente:helpdesk@brisabr.com.br}")
+    private String remetente;
+
+    @Override
+    public CanalNotificacao canal() {
+        return CanalNotificacao.EMAIL;
+    }
+
+    @Override
+    public void enviar(String destinatario, List<Notificacao> notificacoes) {
+        SimpleMailMessage msg = new SimpleMailMessage();
+        msg.setFrom(remetente);
+        msg.setTo(destinatario);
+
+        if (notificacoes.size() == 1) {
+            Notificacao n = notificacoes.get(0);
+            msg.setSubject(n.getTitulo());
+            msg.setText(n.getMensagem());
+        } else {
+            // Várias atualizações no mesmo intervalo viram um único resumo
+            msg.setSubject("Help Desk: " + notificacoes.size() + " atualizações em seus chamados");
+            StringBuilder corpo = new StringBuilder();
+            for (Notificacao n : notificacoes) {
+                corpo.append("- ").append(n.getTitulo()).append('\n');
+                if (n.getMensagem() != null) corpo.append("  ").append(n.getMensagem()).append("\n\n");
+            }
+            msg.setText(corpo.toString());
+        }
+        mailSender.send(msg);
+    }
+}
@@ -0,0 +1,7 @@
+package br.com.brisabr.helpdesk_api.notification;
+
+public enum StatusNotificacao {
+    PENDENTE,
+    ENVIADA,
+    FALHA // Esgotou as tentativas; fica na tabela para consulta
+}
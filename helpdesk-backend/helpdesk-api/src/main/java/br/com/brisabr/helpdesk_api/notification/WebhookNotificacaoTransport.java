@@ -0,0 +1,65 @@
+package br.com.brisabr.helpdesk_api.notification;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// POST JSON para helpdesk.notificacoes.webhook.url (Teams, Slack, integração interna...)
+@Component
+@ConditionalOnProperty(name = "helpdesk.notificacoes.webhook.url")
+public class WebhookNotificacaoTransport implements NotificacaoTransport {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${helpdesk.notificacoes.webhook.timeout-ms:5000}")
+    private long timeoutMs;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Override
+    public CanalNotificacao canal() {
+        return CanalNotificacao.WEBHOOK;
+    }
+
+    @Override
+    public void enviar(String destinatario, List<Notificacao> notificacoes) throws IOException, InterruptedException {
+        List<Map<String, Object>> itens = new ArrayList<>();
+        for (Notificacao n : notificacoes) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("evento", n.getTipoEvento());
+            item.put("ticketId", n.getTicketId());
+            item.put("numeroChamado", n.getNumeroChamado());
+            item.put("titulo", n.getTitulo());
+            item.put("mensagem", n.getMensagem());
+            item.put("dataCriacao", n.getDataCriacao());
+            itens.add(item);
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(destinatario))
+                .timeout(Duration.ofMillis(timeoutMs))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(Map.of("notificacoes", itens))))
+                .build();
+
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Webhook respondeu HTTP " + response.statusCode());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package br.com.brisabr.helpdesk_api.observability;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Amostragem de DEBUG/TRACE das categorias ruidosas (logback-spring.xml): passa um evento a cada 'intervalo'
+// por categoria. Assim dá para ligar DEBUG do Spring Security ou do DispatcherServlet em produção sem encher a
+// fila do log. Só age quando o nível já está habilitado para o logger; o resto do log não é afetado.
+public class AmostragemDebugFilter extends TurboFilter {
+
+    private final List<String> categorias = new ArrayList<>();
+    private final Map<String, AtomicLong> contadores = new ConcurrentHashMap<>();
+    private final LongAdder descartados = new LongAdder();
+    private int intervalo = 100;
+
+    // Prefixos de logger separados por vírgula
+    public void setCategorias(String lista) {
+        categorias.clear();
+        for (String c : lista.split(",")) {
+            if (!c.isBlank()) categorias.add(c.trim());
+        }
+    }
+
+    public void setIntervalo(int intervalo) {
+        this.intervalo = Math.max(1, intervalo);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format nulo: é o isDebugEnabled(), não um evento; conta só o que seria de fato escrito
+        if (level == null || format == null || level.levelInt > Level.DEBUG_INT) return FilterReply.NEUTRAL;
+        if (level.levelInt < logger.getEffectiveLevel().levelInt) return FilterReply.NEUTRAL;
+        String categoria = categoria(logger.getName());
+        if (categoria == null) return FilterReply.NEUTRAL;
+
+        long n = contadores.computeIfAbsent(categoria, k -> new AtomicLong()).getAndIncrement();
+        if (n % intervalo == 0) return FilterReply.NEUTRAL;
+        descartados.increment();
+        return FilterReply.DENY;
+    }
+
+    public long getDescartados() {
+        return descartados.sum();
+    }
+
+    private String categoria(String logger) {
+        for (String c : categorias) {
+            if (logger.startsWith(c) && (logger.length() == c.length() || logger.charAt(c.length()) == '.')) return c;
+        }
+        return null;
+    }
+}
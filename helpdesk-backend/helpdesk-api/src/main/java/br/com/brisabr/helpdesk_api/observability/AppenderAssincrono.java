@@ -0,0 +1,43 @@
+package br.com.brisabr.helpdesk_api.observability;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Fila limitada entre quem loga e o console (logback-spring.xml): a thread da requisição só enfileira, quem
+// escreve no stdout é a thread do appender. Com neverBlock, fila cheia descarta o evento em vez de segurar a
+// requisição; os descartes são contados aqui e publicados pelo MetricasLog.
+public class AppenderAssincrono extends AsyncAppender {
+
+    private final LongAdder descartadosFilaCheia = new LongAdder();
+    private final LongAdder descartadosLimiar = new LongAdder();
+
+    @Override
+    protected void append(ILoggingEvent evento) {
+        int restante = getRemainingCapacity();
+        // Mesmas regras do AsyncAppender, decididas aqui para poder contar: perto de encher (discardingThreshold)
+        // TRACE/DEBUG/INFO são descartados; WARN/ERROR só se perdem com a fila de fato cheia
+        if (restante < getDiscardingThreshold() && isDiscardable(evento)) {
+            descartadosLimiar.increment();
+            return;
+        }
+        if (restante == 0 && isNeverBlock()) {
+            descartadosFilaCheia.increment();
+            return;
+        }
+        super.append(evento);
+    }
+
+    public long getDescartadosFilaCheia() {
+        return descartadosFilaCheia.sum();
+    }
+
+    public long getDescartadosLimiar() {
+        return descartadosLimiar.sum();
+    }
+
+    public int getOcupacao() {
+        return getQueueSize() - getRemainingCapacity();
+    }
+}
@@ -0,0 +1,81 @@
+package br.com.brisabr.helpdesk_api.observability;
+
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.encoder.Encoder;
+import ch.qos.logback.core.encoder.EncoderBase;
+import net.logstash.logback.encoder.LogstashEncoder;
+import net.logstash.logback.stacktrace.ShortenedThrowableConverter;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+// Encoder do console (logback-spring.xml) escolhido por helpdesk.log.formato: 'json' (um objeto por linha,
+// com os campos do MDC) ou 'texto' (padrão de console do Spring Boot). A escolha fica aqui porque o logback
+// resolve <include> antes das propriedades do Spring, e um appender declarado sem uso gera aviso na subida.
+public class EncoderConsole extends EncoderBase<ILoggingEvent> {
+
+    private String formato = "json";
+    private String padrao;
+    private String charset = StandardCharsets.UTF_8.name();
+    private String aplicacao;
+    private Encoder<ILoggingEvent> delegado;
+
+    public void setFormato(String formato) {
+        this.formato = formato;
+    }
+
+    public void setPadrao(String padrao) {
+        this.padrao = padrao;
+    }
+
+    public void setCharset(String charset) {
+        this.charset = charset;
+    }
+
+    public void setAplicacao(String aplicacao) {
+        this.aplicacao = aplicacao;
+    }
+
+    @Override
+    public void start() {
+        if ("texto".equalsIgnoreCase(formato)) {
+            PatternLayoutEncoder texto = new PatternLayoutEncoder();
+            texto.setPattern(padrao);
+            texto.setCharset(Charset.forName(charset));
+            delegado = texto;
+        } else {
+            LogstashEncoder json = new LogstashEncoder();
+            if (aplicacao != null) json.setCustomFields("{\"application\":\"" + aplicacao + "\"}");
+            ShortenedThrowableConverter pilha = new ShortenedThrowableConverter();
+            pilha.setMaxDepthPerThrowable(40);
+            pilha.setRootCauseFirst(true);
+            json.setThrowableConverter(pilha);
+            delegado = json;
+        }
+        delegado.setContext(getContext());
+        delegado.start();
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (delegado != null) delegado.stop();
+        super.stop();
+    }
+
+    @Override
+    public byte[] headerBytes() {
+        return delegado.headerBytes();
+    }
+
+    @Override
+    public byte[] encode(ILoggingEvent evento) {
+        return delegado.encode(evento);
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return delegado.footerBytes();
+    }
+}
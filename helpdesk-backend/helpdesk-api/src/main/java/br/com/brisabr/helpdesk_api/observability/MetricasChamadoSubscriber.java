@@ -0,0 +1,60 @@
+package br.com.brisabr.helpdesk_api.observability;
+
+import br.com.brisabr.helpdesk_api.events.TicketDomainEvent;
+import br.com.brisabr.helpdesk_api.events.TicketEventSubscriber;
+import br.com.brisabr.helpdesk_api.events.TicketEventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Métricas de negócio a partir do barramento: transições de chamado e folga/estouro do SLA no fechamento.
+// A entrega é "pelo menos uma vez", então um evento repetido após queda do publicador conta de novo (raro).
+@Component
+public class MetricasChamadoSubscriber implements TicketEventSubscriber {
+
+    // Mesmas janelas do Ticket.calculateSlaDeadline, para os buckets baterem com as prioridades
+    private static final Duration[] FAIXAS_SLA = {
+            Duration.ofMinutes(15), Duration.ofMinutes(30), Duration.ofHours(1), Duration.ofHours(2),
+            Duration.ofHours(4), Duration.ofHours(8), Duration.ofHours(24), Duration.ofHours(48)};
+
+    @Autowired
+    private MeterRegistry registry;
+
+    // O Prometheus soma as réplicas: cada transição conta em uma só
+    @Override
+    public boolean unicoNoCluster() {
+        return true;
+    }
+
+    @Override
+    public void onEvent(TicketDomainEvent e, boolean fimDoLote) {
+        Counter.builder("helpdesk.chamados.transicoes")
+                .description("Transições de chamado publicadas no barramento")
+                .tag("tipo", e.getTipo().name())
+                .tag("status_anterior", valor(e.getStatusAnterior()))
+                .tag("status", valor(e.getStatus()))
+                .register(registry)
+                .increment();
+
+        if (e.getTipo() == TicketEventType.FECHADO && e.getPrazoSla() != null && e.getDataOcorrencia() != null) {
+            Duration restante = Duration.between(e.getDataOcorrencia(), e.getPrazoSla());
+            boolean violado = restante.isNegative();
+            // Timer não aceita valor negativo: o que passou do prazo vai para a série de estouro
+            Timer.builder(violado ? "helpdesk.chamados.sla.estouro" : "helpdesk.chamados.sla.restante")
+                    .description(violado ? "Quanto o fechamento passou do prazo do SLA"
+                            : "Tempo que ainda restava do SLA no fechamento")
+                    .tag("prioridade", valor(e.getPrioridade()))
+                    .serviceLevelObjectives(FAIXAS_SLA)
+                    .register(registry)
+                    .record(restante.abs());
+        }
+    }
+
+    private static String valor(String s) {
+        return (s == null || s.isBlank()) ? "nenhum" : s;
+    }
+}
@@ -0,0 +1,31 @@
+package br.com.brisabr.helpdesk_api.observability;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+// http.server.requests já sai por rota (uri), método HTTP e status; a tag 'handler' (Controller.metodo)
+// separa o tempo por método de controller, inclusive quando duas rotas caem no mesmo método
+@Configuration
+public class MetricasConfig {
+
+    @Bean
+    public ServerRequestObservationConvention handlerObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                Object handler = context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+                String nome = (handler instanceof HandlerMethod m)
+                        ? m.getBeanType().getSimpleName() + "." + m.getMethod().getName()
+                        : "none";
+                return super.getLowCardinalityKeyValues(context).and(KeyValue.of("handler", nome));
+            }
+        };
+    }
+}
@@ -0,0 +1,53 @@
+package br.com.brisabr.helpdesk_api.observability;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+// Eventos de log descartados (fila cheia, limiar da fila, amostragem de DEBUG) e ocupação da fila assíncrona.
+// O logback sobe antes do Spring: os appenders e filtros vêm do LoggerContext já configurado.
+@Component
+public class MetricasLog implements MeterBinder {
+
+    private static final String DESCARTADOS = "helpdesk.log.descartados";
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext contexto)) return;
+
+        contexto.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders().forEachRemaining(appender -> {
+            if (appender instanceof AppenderAssincrono assincrono) {
+                FunctionCounter.builder(DESCARTADOS, assincrono, AppenderAssincrono::getDescartadosFilaCheia)
+                        .description("Eventos de log descartados")
+                        .tag("appender", assincrono.getName())
+                        .tag("motivo", "fila_cheia")
+                        .register(registry);
+                FunctionCounter.builder(DESCARTADOS, assincrono, AppenderAssincrono::getDescartadosLimiar)
+                        .description("Eventos de log descartados")
+                        .tag("appender", assincrono.getName())
+                        .tag("motivo", "limiar")
+                        .register(registry);
+                Gauge.builder("helpdesk.log.fila", assincrono, AppenderAssincrono::getOcupacao)
+                        .description("Eventos aguardando escrita na fila do log")
+                        .tag("appender", assincrono.getName())
+                        .register(registry);
+            }
+        });
+
+        for (TurboFilter filtro : contexto.getTurboFilterList()) {
+            if (filtro instanceof AmostragemDebugFilter amostragem) {
+                FunctionCounter.builder(DESCARTADOS, amostragem, AmostragemDebugFilter::getDescartados)
+                        .description("Eventos de log descartados")
+                        .tag("appender", "")
+                        .tag("motivo", "amostragem")
+                        .register(registry);
+            }
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package br.com.brisabr.helpdesk_api.observability;
+
+import br.com.brisabr.helpdesk_api.config.SecurityFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.http.HttpServletRequest;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+// Mede cada comando JDBC (o DataSource passa pelo datasource-proxy, ver SqlMonitoradoConfig) e agrega por
+// fingerprint: o SQL com literais trocados por '?', sem valor de parâmetro nenhum. Os comandos acima do
+// limite vão para o log com o endpoint e o id da requisição que os originou.
+@Component
+public class MonitorSql implements QueryExecutionListener, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitorSql.class);
+
+    private static final String INICIO = "monitorSql.inicio";
+    // Acima disso os comandos novos caem em OUTROS: SQL montado com literais não pode crescer o mapa sem limite
+    private static final int MAX_FINGERPRINTS = 2000;
+    private static final int MAX_ENDPOINTS_POR_FINGERPRINT = 5;
+    private static final String OUTROS = "(outros)";
+
+    private static final Pattern TEXTO = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMERO = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    // Quantificadores possessivos: a repetição gulosa de grupo empilha uma chamada por item e estoura a pilha
+    // nas listas IN de milhares de parâmetros
+    private static final Pattern LISTA = Pattern.compile("\\(\\s*+\\?(?:\\s*+,\\s*+\\?)++\\s*+\\)");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+
+    @Value("${helpdesk.sql.lento-ms:200}")
+    private long lentoMs;
+
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+    private final Map<String, Estatistica> estatisticas = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+    private volatile Instant desde = Instant.now();
+
+    static class Estatistica {
+        final LongAdder execucoes = new LongAdder();
+        final LongAdder nanosTotal = new LongAdder();
+        final LongAccumulator nanosMax = new LongAccumulator(Long::max, 0);
+        final LongAdder lentas = new LongAdder();
+        final LongAdder erros = new LongAdder();
+        final Set<String> endpoints = ConcurrentHashMap.newKeySet();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(INICIO, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long inicio = execInfo.getCustomValue(INICIO, Long.class);
+        long nanos = inicio != null ? System.nanoTime() - inicio : TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime());
+        String fingerprint = fingerprint(queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery());
+        String endpoint = endpointAtual();
+        boolean lento = nanos >= TimeUnit.MILLISECONDS.toNanos(lentoMs);
+
+        Estatistica e = estatistica(fingerprint);
+        e.execucoes.increment();
+        e.nanosTotal.add(nanos);
+        e.nanosMax.accumulate(nanos);
+        if (!execInfo.isSuccess()) e.erros.increment();
+        if (lento) e.lentas.increment();
+        if (e.endpoints.size() < MAX_ENDPOINTS_POR_FINGERPRINT) e.endpoints.add(endpoint);
+
+        MeterRegistry r = registry;
+        if (r != null) {
+            timers.computeIfAbsent(tipo(fingerprint), t -> Timer.builder("helpdesk.sql")
+                    .description("Tempo de execução dos comandos JDBC")
+                    .tag("tipo", t)
+                    .register(r)).record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        if (lento) {
+            String requestId = MDC.get(SecurityFilter.MDC_REQUEST_ID);
+            log.warn("SQL lento {} ms [{}{}]{} {}", TimeUnit.NANOSECONDS.toMillis(nanos), endpoint,
+                    requestId != null ? " " + requestId : "",
+                    execInfo.isBatch() ? " lote de " + execInfo.getBatchSize() : "", fingerprint);
+        }
+    }
+
+    public Instant getDesde() {
+        return desde;
+    }
+
+    public long getLentoMs() {
+        return lentoMs;
+    }
+
+    public int getTotalFingerprints() {
+        return estatisticas.size();
+    }
+
+    // ordem: totalMs (padrão), mediaMs, maxMs, execucoes ou lentas
+    public List<Map<String, Object>> ranking(String ordem, int limite) {
+        String campo = switch (ordem) {
+            case "mediaMs", "maxMs", "execucoes", "lentas" -> ordem;
+            default -> "totalMs";
+        };
+        // Copia os contadores antes de ordenar: eles continuam mudando durante a ordenação
+        List<Map<String, Object>> itens = new ArrayList<>();
+        estatisticas.forEach((sql, e) -> {
+            long execucoes = e.execucoes.sum();
+            double totalMs = e.nanosTotal.sum() / 1_000_000.0;
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("sql", sql);
+            item.put("execucoes", execucoes);
+            item.put("totalMs", totalMs);
+            item.put("mediaMs", execucoes > 0 ? totalMs / execucoes : 0.0);
+            item.put("maxMs", e.nanosMax.get() / 1_000_000.0);
+            item.put("lentas", e.lentas.sum());
+            item.put("erros", e.erros.sum());
+            item.put("endpoints", new ArrayList<>(e.endpoints));
+            itens.add(item);
+        });
+        itens.sort(Comparator.comparingDouble((Map<String, Object> item) -> ((Number) item.get(campo)).doubleValue()).reversed());
+        return itens.size() > limite ? new ArrayList<>(itens.subList(0, limite)) : itens;
+    }
+
+    public void limpar() {
+        estatisticas.clear();
+        desde = Instant.now();
+    }
+
+    private Estatistica estatistica(String fingerprint) {
+        Estatistica e = estatisticas.get(fingerprint);
+        if (e != null) return e;
+        String chave = estatisticas.size() < MAX_FINGERPRINTS ? fingerprint : OUTROS;
+        return estatisticas.computeIfAbsent(chave, k -> new Estatistica());
+    }
+
+    // O texto dos PreparedStatements se repete: normaliza uma vez por SQL distinto
+    String fingerprint(String sql) {
+        String fp = fingerprints.get(sql);
+        if (fp != null) return fp;
+        fp = normalizar(sql);
+        if (fingerprints.size() < MAX_FINGERPRINTS) fingerprints.put(sql, fp);
+        return fp;
+    }
+
+    static String normalizar(String sql) {
+        String s = TEXTO.matcher(sql).replaceAll("?");
+        s = NUMERO.matcher(s).replaceAll("?");
+        s = LISTA.matcher(s).replaceAll("(?...)");
+        return ESPACOS.matcher(s).replaceAll(" ").trim();
+    }
+
+    private static String tipo(String fingerprint) {
+        int espaco = fingerprint.indexOf(' ');
+        String comando = (espaco > 0 ? fingerprint.substring(0, espaco) : fingerprint).toLowerCase(Locale.ROOT);
+        return switch (comando) {
+            case "select", "insert", "update", "delete", "with" -> comando;
+            default -> "outro";
+        };
+    }
+
+    // Rota da requisição (padrão do mapeamento quando o DispatcherServlet já escolheu o handler) ou a thread
+    private static String endpointAtual() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes atributos) {
+            HttpServletRequest request = atributos.getRequest();
+            Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            return request.getMethod() + " " + (padrao != null ? padrao : request.getRequestURI());
+        }
+        return "thread " + Thread.currentThread().getName();
+    }
+}
@@ -0,0 +1,363 @@
+package br.com.brisabr.helpdesk_api.observability;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Gravações do Java Flight Recorder sob demanda, para perfilar em produção sem acesso ao shell do pod.
+// Uma gravação em andamento por vez; as encerradas ficam em disco (helpdesk.jfr.diretorio) até serem
+// removidas ou empurradas para fora pelas mais novas (helpdesk.jfr.max-gravacoes).
+@Service
+public class ProfilerJfr {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfilerJfr.class);
+
+    private static final String PACOTE_APLICACAO = "br.com.brisabr.";
+    // Teto de chaves distintas por agregação: o resumo é montado lendo o arquivo evento a evento
+    private static final int MAX_CHAVES = 20000;
+    private static final String OUTROS = "(outros)";
+
+    @Value("${helpdesk.jfr.diretorio:${java.io.tmpdir}/helpdesk-jfr}")
+    private Path diretorio;
+
+    @Value("${helpdesk.jfr.duracao-maxima-segundos:900}")
+    private long duracaoMaximaSegundos;
+
+    @Value("${helpdesk.jfr.tamanho-maximo-mb:200}")
+    private long tamanhoMaximoMb;
+
+    @Value("${helpdesk.jfr.max-gravacoes:5}")
+    private int maxGravacoes;
+
+    private final Map<Long, Gravacao> gravacoes = new TreeMap<>();
+
+    private static class Gravacao {
+        final Recording recording;
+        final String perfil;
+        final Path arquivo;
+        // Cópia do que já foi gravado, para resumo/download de gravação ainda em andamento
+        final Path parcial;
+
+        Gravacao(Recording recording, String perfil, Path arquivo, Path parcial) {
+            this.recording = recording;
+            this.perfil = perfil;
+            this.arquivo = arquivo;
+            this.parcial = parcial;
+        }
+
+        boolean emAndamento() {
+            RecordingState estado = recording.getState();
+            return estado == RecordingState.NEW || estado == RecordingState.DELAYED || estado == RecordingState.RUNNING;
+        }
+    }
+
+    private static class Agregado {
+        long quantidade;
+        long soma;
+        long max;
+
+        void somar(long valor) {
+            quantidade++;
+            soma += valor;
+            max = Math.max(max, valor);
+        }
+    }
+
+    // Perfis que vêm com o JDK: "default" (overhead ~1%) e "profile" (mais amostras, ~2%)
+    public List<String> perfis() {
+        return Configuration.getConfigurations().stream().map(Configuration::getName).toList();
+    }
+
+    public synchronized List<Map<String, Object>> listar() {
+        return gravacoes.values().stream().map(this::info).toList();
+    }
+
+    public synchronized Map<String, Object> iniciar(String perfil, long duracaoSegundos) {
+        if (!FlightRecorder.isAvailable()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Flight Recorder indisponível nesta JVM");
+        }
+        if (duracaoSegundos < 1 || duracaoSegundos > duracaoMaximaSegundos) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Duração deve ficar entre 1 e " + duracaoMaximaSegundos + " segundos");
+        }
+        Configuration configuracao;
+        try {
+            configuracao = Configuration.getConfiguration(perfil);
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Perfil JFR desconhecido: " + perfil + " (use " + perfis() + ")");
+        }
+        if (gravacoes.values().stream().anyMatch(Gravacao::emAndamento)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Já existe uma gravação JFR em andamento");
+        }
+        descartarExcedentes();
+
+        Recording recording = new Recording(configuracao);
+        try {
+            Files.createDirectories(diretorio);
+            Path arquivo = diretorio.resolve("helpdesk-" + recording.getId() + ".jfr");
+            recording.setName("helpdesk-" + recording.getId());
+            recording.setToDisk(true);
+            recording.setDuration(Duration.ofSeconds(duracaoSegundos));
+            recording.setMaxSize(tamanhoMaximoMb * 1024 * 1024);
+            recording.setDestination(arquivo);
+            recording.start();
+            Gravacao gravacao = new Gravacao(recording, perfil, arquivo,
+                    diretorio.resolve("helpdesk-" + recording.getId() + "-parcial.jfr"));
+            gravacoes.put(recording.getId(), gravacao);
+            log.info("Gravação JFR {} iniciada: perfil {}, {} s", recording.getId(), perfil, duracaoSegundos);
+            return info(gravacao);
+        } catch (IOException | RuntimeException e) {
+            recording.close();
+            log.error("Falha ao iniciar gravação JFR", e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Falha ao iniciar gravação JFR");
+        }
+    }
+
+    public synchronized Map<String, Object> parar(Long id) {
+        Gravacao gravacao = buscar(id);
+        if (gravacao.emAndamento()) {
+            // Com destino definido, o stop grava o arquivo antes de retornar
+            gravacao.recording.stop();
+            apagar(gravacao.parcial);
+            log.info("Gravação JFR {} parada", id);
+        }
+        return info(gravacao);
+    }
+
+    public synchronized void remover(Long id) {
+        Gravacao gravacao = buscar(id);
+        fechar(gravacao);
+        gravacoes.remove(id);
+    }
+
+    // Arquivo .jfr para download (abre no JDK Mission Control); em andamento, uma cópia do que já foi gravado
+    public synchronized Path arquivo(Long id) {
+        Gravacao gravacao = buscar(id);
+        if (gravacao.emAndamento()) {
+            try {
+                gravacao.recording.dump(gravacao.parcial);
+            } catch (IOException e) {
+                log.error("Falha ao copiar gravação JFR {} em andamento", id, e);
+                throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Falha ao copiar gravação JFR");
+            }
+            return gravacao.parcial;
+        }
+        // Encerrada pelo prazo (o Flight Recorder fecha sozinho): a cópia parcial não serve mais
+        apagar(gravacao.parcial);
+        if (!Files.exists(gravacao.arquivo)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Gravação JFR sem arquivo");
+        }
+        return gravacao.arquivo;
+    }
+
+    // Lê o arquivo evento a evento e agrega: métodos com mais amostras de CPU (no topo da pilha e no primeiro
+    // frame da aplicação), onde mais se aloca, monitores disputados (synchronized) e pausas de GC.
+    // Sincronizado para a cópia parcial não ser regravada no meio da leitura.
+    public synchronized Map<String, Object> resumo(Long id, int limite) {
+        Path arquivo = arquivo(id);
+        Map<String, Object> info = info(buscar(id));
+
+        Map<String, Agregado> topo = new HashMap<>();
+        Map<String, Agregado> aplicacao = new HashMap<>();
+        Map<String, Agregado> alocacoes = new HashMap<>();
+        Map<String, Agregado> monitores = new HashMap<>();
+        Agregado gc = new Agregado();
+        long amostras = 0;
+        long bytesAlocados = 0;
+
+        try (RecordingFile leitor = new RecordingFile(arquivo)) {
+            while (leitor.hasMoreEvents()) {
+                RecordedEvent evento = leitor.readEvent();
+                switch (evento.getEventType().getName()) {
+                    case "jdk.ExecutionSample" -> {
+                        RecordedStackTrace pilha = evento.getStackTrace();
+                        if (pilha == null || pilha.getFrames().isEmpty()) break;
+                        amostras++;
+                        somar(topo, frame(pilha.getFrames().get(0)), 1);
+                        String daAplicacao = frameAplicacao(pilha);
+                        if (daAplicacao != null) somar(aplicacao, daAplicacao, 1);
+                    }
+                    case "jdk.ObjectAllocationSample" -> {
+                        long peso = evento.getLong("weight");
+                        bytesAlocados += peso;
+                        somar(alocacoes, nomeClasse(evento.getClass("objectClass")) + " em " + local(evento.getStackTrace()), peso);
+                    }
+                    case "jdk.JavaMonitorEnter" -> somar(monitores,
+                            nomeClasse(evento.getClass("monitorClass")) + " em " + local(evento.getStackTrace()),
+                            evento.getDuration().toNanos());
+                    case "jdk.GarbageCollection" -> gc.somar(evento.getDuration("sumOfPauses").toNanos());
+                    default -> { }
+                }
+            }
+        } catch (IOException e) {
+            log.error("Falha ao ler gravação JFR {}", id, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Falha ao ler gravação JFR");
+        }
+
+        Map<String, Object> resumo = new LinkedHashMap<>();
+        resumo.put("gravacao", info);
+        resumo.put("amostrasCpu", amostras);
+        resumo.put("metodosQuentes", ranking(topo, limite, amostras, "metodo", "amostras"));
+        resumo.put("metodosQuentesAplicacao", ranking(aplicacao, limite, amostras, "metodo", "amostras"));
+        resumo.put("bytesAlocadosEstimados", bytesAlocados);
+        resumo.put("alocacoes", ranking(alocacoes, limite, bytesAlocados, "local", "bytes"));
+        resumo.put("contencao", contencao(monitores, limite));
+        Map<String, Object> pausas = new LinkedHashMap<>();
+        pausas.put("coletas", gc.quantidade);
+        pausas.put("pausaTotalMs", gc.soma / 1_000_000.0);
+        pausas.put("pausaMaxMs", gc.max / 1_000_000.0);
+        resumo.put("gc", pausas);
+        return resumo;
+    }
+
+    @PreDestroy
+    public synchronized void encerrar() {
+        gravacoes.values().forEach(this::fechar);
+        gravacoes.clear();
+    }
+
+    private Gravacao buscar(Long id) {
+        Gravacao gravacao = gravacoes.get(id);
+        if (gravacao == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Gravação JFR não encontrada");
+        }
+        return gravacao;
+    }
+
+    // Abre espaço para a nova gravação descartando as encerradas mais antigas
+    private void descartarExcedentes() {
+        List<Long> encerradas = gravacoes.entrySet().stream()
+                .filter(e -> !e.getValue().emAndamento())
+                .map(Map.Entry::getKey)
+                .toList();
+        int excedentes = gravacoes.size() + 1 - maxGravacoes;
+        for (int i = 0; i < excedentes && i < encerradas.size(); i++) {
+            fechar(gravacoes.remove(encerradas.get(i)));
+        }
+    }
+
+    private void fechar(Gravacao gravacao) {
+        gravacao.recording.close();
+        apagar(gravacao.parcial);
+        apagar(gravacao.arquivo);
+    }
+
+    private static void apagar(Path arquivo) {
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            log.warn("Não foi possível apagar {}", arquivo, e);
+        }
+    }
+
+    private Map<String, Object> info(Gravacao gravacao) {
+        Recording r = gravacao.recording;
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("id", r.getId());
+        info.put("perfil", gravacao.perfil);
+        info.put("estado", r.getState().name());
+        info.put("inicio", r.getStartTime());
+        info.put("fim", r.getStopTime());
+        info.put("duracaoSegundos", r.getDuration() != null ? r.getDuration().toSeconds() : null);
+        long tamanho = r.getSize();
+        if (!gravacao.emAndamento()) {
+            try {
+                tamanho = Files.exists(gravacao.arquivo) ? Files.size(gravacao.arquivo) : 0;
+            } catch (IOException e) {
+                // fica o tamanho informado pelo Flight Recorder
+            }
+        }
+        info.put("tamanhoBytes", tamanho);
+        return info;
+    }
+
+    private static void somar(Map<String, Agregado> agregados, String chave, long valor) {
+        Agregado a = agregados.get(chave);
+        if (a == null) {
+            a = agregados.computeIfAbsent(agregados.size() < MAX_CHAVES ? chave : OUTROS, k -> new Agregado());
+        }
+        a.somar(valor);
+    }
+
+    private static List<Map<String, Object>> ranking(Map<String, Agregado> agregados, int limite, long total,
+                                                      String nomeChave, String nomeValor) {
+        List<Map<String, Object>> itens = new ArrayList<>();
+        agregados.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Agregado> e) -> e.getValue().soma).reversed())
+                .limit(limite)
+                .forEach(e -> {
+                    Map<String, Object> item = new LinkedHashMap<>();
+                    item.put(nomeChave, e.getKey());
+                    item.put(nomeValor, e.getValue().soma);
+                    item.put("percentual", total > 0 ? Math.round(e.getValue().soma * 1000.0 / total) / 10.0 : 0.0);
+                    itens.add(item);
+                });
+        return itens;
+    }
+
+    private static List<Map<String, Object>> contencao(Map<String, Agregado> monitores, int limite) {
+        List<Map<String, Object>> itens = new ArrayList<>();
+        monitores.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Agregado> e) -> e.getValue().soma).reversed())
+                .limit(limite)
+                .forEach(e -> {
+                    Map<String, Object> item = new LinkedHashMap<>();
+                    item.put("monitor", e.getKey());
+                    item.put("bloqueios", e.getValue().quantidade);
+                    item.put("esperaTotalMs", e.getValue().soma / 1_000_000.0);
+                    item.put("esperaMaxMs", e.getValue().max / 1_000_000.0);
+                    itens.add(item);
+                });
+        return itens;
+    }
+
+    // Primeiro frame do nosso código; o topo costuma ser JDK/Hibernate e não diz quem pediu o trabalho
+    private static String frameAplicacao(RecordedStackTrace pilha) {
+        for (RecordedFrame f : pilha.getFrames()) {
+            if (f.isJavaFrame() && f.getMethod().getType().getName().startsWith(PACOTE_APLICACAO)) {
+                return frame(f);
+            }
+        }
+        return null;
+    }
+
+    private static String local(RecordedStackTrace pilha) {
+        if (pilha == null || pilha.getFrames().isEmpty()) return "?";
+        String daAplicacao = frameAplicacao(pilha);
+        return daAplicacao != null ? daAplicacao : frame(pilha.getFrames().get(0));
+    }
+
+    private static String frame(RecordedFrame f) {
+        String metodo = f.getMethod().getType().getName() + "." + f.getMethod().getName();
+        return f.getLineNumber() > 0 ? metodo + ":" + f.getLineNumber() : metodo;
+    }
+
+    private static String nomeClasse(RecordedClass classe) {
+        return classe != null ? classe.getName() : "?";
+    }
+}
@@ -0,0 +1,28 @@
+package br.com.brisabr.helpdesk_api.observability;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// Envolve o DataSource (Hikari) no datasource-proxy para o MonitorSql medir cada comando.
+// No lugar do spring.jpa.show-sql, que imprimia todo SQL de forma síncrona no stdout e sem tempo.
+@Configuration
+public class SqlMonitoradoConfig {
+
+    @Bean
+    public static BeanPostProcessor sqlMonitoradoDataSource(ObjectProvider<MonitorSql> monitor) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource ds) {
+                    return ProxyDataSourceBuilder.create(ds).name(beanName).listener(monitor.getObject()).build();
+                }
+                return bean;
+            }
+        };
+    }
+}
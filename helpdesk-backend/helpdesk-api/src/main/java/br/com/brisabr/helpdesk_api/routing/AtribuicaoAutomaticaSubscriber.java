@@ -0,0 +1,42 @@
+package br.com.brisabr.helpdesk_api.routing;
+
+import br.com.brisabr.helpdesk_api.events.TicketDomainEvent;
+import br.com.brisabr.helpdesk_api.events.TicketEventSubscriber;
+import br.com.brisabr.helpdesk_api.events.TicketEventType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+// Roteia os chamados recém-criados e escoa a fila da equipe quando um técnico no limite larga um chamado.
+// Uma vez no cluster: se cada réplica decidisse, duas poderiam ocupar a mesma vaga com chamados diferentes.
+@Component
+public class AtribuicaoAutomaticaSubscriber implements TicketEventSubscriber {
+
+    private static final String EM_ANDAMENTO = "Em Andamento";
+
+    @Autowired
+    private MotorRoteamento motor;
+
+    @Override
+    public boolean unicoNoCluster() {
+        return true;
+    }
+
+    @Override
+    public void onEvent(TicketDomainEvent e, boolean fimDoLote) {
+        if (!motor.isAtivo()) return;
+
+        if (e.getTipo() == TicketEventType.CRIADO) {
+            motor.rotear(e.getTicketId(), e.getEquipeSolicitanteId(), e.getCategoriaId(), e.getPrazoSla());
+            return;
+        }
+
+        Long saiu = EM_ANDAMENTO.equals(e.getStatusAnterior()) ? e.getTecnicoAnteriorId() : null;
+        boolean continua = EM_ANDAMENTO.equals(e.getStatus()) && Objects.equals(saiu, e.getTecnicoId());
+        if (saiu == null || continua || !motor.estavaNaCapacidade(saiu)) return;
+
+        Long equipe = motor.getEquipe(saiu);
+        if (equipe != null) motor.rotearFila(equipe);
+    }
+}
@@ -0,0 +1,25 @@
+package br.com.brisabr.helpdesk_api.routing;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Estado em memória de um técnico para o roteamento. Identidade por objeto (chave dos heaps).
+class CargaTecnico {
+    final Long id;
+    final Long equipeId;
+    final String nome;
+
+    int emAndamento;
+    long ultimaAtribuicao; // Sequência da última atribuição automática: desempate em rodízio
+    final Map<Long, Integer> fechadosPorCategoria = new HashMap<>();
+
+    CargaTecnico(Long id, Long equipeId, String nome) {
+        this.id = id;
+        this.equipeId = equipeId;
+        this.nome = nome;
+    }
+
+    int fechados(Long categoriaId) {
+        return fechadosPorCategoria.getOrDefault(categoriaId, 0);
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.brisabr.helpdesk_api.routing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Heap binário de mínimo com índice de posição: topo em O(1), inserção, remoção e
+// reordenação de um elemento cuja chave mudou em O(log n). Não é thread-safe.
+class HeapIndexado<T> {
+
+    private final List<T> itens = new ArrayList<>();
+    private final Map<T, Integer> posicoes = new HashMap<>();
+    private final Comparator<? super T> ordem;
+
+    HeapIndexado(Comparator<? super T> ordem) {
+        this.ordem = ordem;
+    }
+
+    T topo() {
+        return itens.isEmpty() ? null : itens.get(0);
+    }
+
+    boolean contem(T item) {
+        return posicoes.containsKey(item);
+    }
+
+    int tamanho() {
+        return itens.size();
+    }
+
+    void adicionar(T item) {
+        if (contem(item)) {
+            atualizar(item);
+            return;
+        }
+        itens.add(item);
+        posicoes.put(item, itens.size() - 1);
+        subir(itens.size() - 1);
+    }
+
+    // Deve ser chamado sempre que a chave de ordenação do item mudar
+    void atualizar(T item) {
+        Integer i = posicoes.get(item);
+        if (i == null) return;
+        if (!subir(i)) descer(i);
+    }
+
+    void remover(T item) {
+        Integer i = posicoes.remove(item);
+        if (i == null) return;
+        T ultimo = itens.remove(itens.size() - 1);
+        if (i < itens.size()) {
+            itens.set(i, ultimo);
+            posicoes.put(ultimo, i);
+            if (!subir(i)) descer(i);
+        }
+    }
+
+    private boolean subir(int i) {
+        int inicio = i;
+        while (i > 0) {
+            int pai = (i - 1) / 2;
+            if (ordem.compare(itens.get(i), itens.get(pai)) >= 0) break;
+            trocar(i, pai);
+            i = pai;
+        }
+        return i != inicio;
+    }
+
+    private void descer(int i) {
+        int n = itens.size();
+        while (true) {
+            int menor = i;
+            int esq = 2 * i + 1;
+            int dir = esq + 1;
+            if (esq < n && ordem.compare(itens.get(esq), itens.get(menor)) < 0) menor = esq;
+            if (dir < n && ordem.compare(itens.get(dir), itens.get(menor)) < 0) menor = dir;
+            if (menor == i) return;
+            trocar(i, menor);
+            i = menor;
+        }
+    }
+
+    private void trocar(int a, int b) {
+        T x = itens.get(a);
+        T y = itens.get(b);
+        itens.set(a, y);
+        itens.set(b, x);
+        posicoes.put(y, a);
+        posicoes.put(x, b);
+    }
+}
@@ -0,0 +1,257 @@
+package br.com.brisabr.helpdesk_api.routing;
+
+import br.com.brisabr.helpdesk_api.ticket.TicketRepository;
+import br.com.brisabr.helpdesk_api.ticket.TicketService;
+import br.com.brisabr.helpdesk_api.user.User;
+import br.com.brisabr.helpdesk_api.user.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Atribuição automática de chamados novos aos técnicos da equipe do solicitante.
+// A carga (chamados "Em Andamento" por técnico) e a afinidade por categoria ficam em memória,
+// alimentadas pelo barramento de eventos e reconciliadas periodicamente com o banco.
+// Cada equipe tem um heap ordenado por carga e, para cada categoria, um heap com os técnicos
+// que já resolveram chamados dela; a escolha compara os dois topos em O(log n).
+@Service
+public class MotorRoteamento {
+
+    private static final Logger log = LoggerFactory.getLogger(MotorRoteamento.class);
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private TicketRepository ticketRepository;
+    @Autowired private TicketService ticketService;
+
+    @Value("${helpdesk.roteamento.ativo:true}")
+    private boolean ativo;
+
+    // Acima disso o chamado espera na fila da equipe (exceto os urgentes)
+    @Value("${helpdesk.roteamento.capacidade-maxima:5}")
+    private int capacidadeMaxima;
+
+    // Chamado com menos que isso até o prazo do SLA (ou já vencido) é urgente
+    @Value("${helpdesk.roteamento.urgencia-minutos:120}")
+    private long urgenciaMinutos;
+
+    // Quantos chamados urgentes um técnico aceita além da capacidade: um acúmulo de chamados vencidos
+    // não cai inteiro em cima da equipe
+    @Value("${helpdesk.roteamento.excedente-urgente:2}")
+    private int excedenteUrgente;
+
+    // Quantos chamados a mais um especialista pode carregar antes de perder para um generalista
+    @Value("${helpdesk.roteamento.peso-afinidade:1.0}")
+    private double pesoAfinidade;
+
+    // Chamados fechados na categoria para atingir a afinidade máxima
+    @Value("${helpdesk.roteamento.limiar-afinidade:10}")
+    private int limiarAfinidade;
+
+    @Value("${helpdesk.roteamento.janela-afinidade-dias:90}")
+    private int janelaAfinidadeDias;
+
+    private Map<Long, CargaTecnico> tecnicos = new HashMap<>();
+    private Map<Long, HeapIndexado<CargaTecnico>> porEquipe = new HashMap<>();
+    private Map<Long, Map<Long, HeapIndexado<CargaTecnico>>> porEquipeCategoria = new HashMap<>();
+    private long sequencia;
+
+    // Chamados atribuídos por esta instância cujo evento ATRIBUIDO ainda não chegou: a carga já entrou na reserva
+    private final Set<Long> atribuidosAqui = new HashSet<>();
+
+    public boolean isAtivo() {
+        return ativo;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        reconciliar();
+    }
+
+    // Corrige desvios dos contadores (reserva sem commit, técnico que mudou de equipe, evento perdido)
+    // e tenta escoar chamados que ficaram na fila enquanto todos estavam na capacidade.
+    @Scheduled(fixedDelayString = "${helpdesk.roteamento.reconciliacao-ms:300000}",
+               initialDelayString = "${helpdesk.roteamento.reconciliacao-ms:300000}")
+    public void reconciliar() {
+        if (!ativo) return;
+
+        List<User> usuarios = userRepository.findAllTechnicians();
+        List<Object[]> cargas = ticketRepository.contarEmAndamentoPorTecnico();
+        List<Object[]> afinidades = ticketRepository.contarFechadosPorTecnicoECategoria(
+                LocalDateTime.now().minusDays(janelaAfinidadeDias));
+
+        List<Long> equipes;
+        synchronized (this) {
+            Map<Long, CargaTecnico> novos = new HashMap<>();
+            for (User u : usuarios) {
+                if (u.getEquipe() == null) continue;
+                CargaTecnico c = new CargaTecnico(u.getId(), u.getEquipe().getId(), u.getNome());
+                CargaTecnico anterior = tecnicos.get(u.getId());
+                if (anterior != null) c.ultimaAtribuicao = anterior.ultimaAtribuicao;
+                novos.put(c.id, c);
+            }
+            for (Object[] row : cargas) {
+                CargaTecnico c = novos.get((Long) row[0]);
+                if (c != null) c.emAndamento = ((Long) row[1]).intValue();
+            }
+            for (Object[] row : afinidades) {
+                CargaTecnico c = novos.get((Long) row[0]);
+                if (c != null) c.fechadosPorCategoria.put((Long) row[1], ((Long) row[2]).intValue());
+            }
+
+            tecnicos = novos;
+            porEquipe = new HashMap<>();
+            porEquipeCategoria = new HashMap<>();
+            novos.values().forEach(this::indexar);
+            equipes = new ArrayList<>(porEquipe.keySet());
+        }
+
+        equipes.forEach(this::rotearFila);
+    }
+
+    // Retorna true se o chamado foi atribuído
+    public boolean rotear(Long ticketId, Long equipeId, Long categoriaId, LocalDateTime prazoSla) {
+        if (!ativo || equipeId == null) return false;
+
+        CargaTecnico escolhido = reservar(equipeId, categoriaId, urgente(prazoSla, LocalDateTime.now()));
+        if (escolhido == null) return false;
+
+        // Antes da atribuição: o evento pode chegar pelo cursor desta instância logo depois do commit
+        synchronized (this) {
+            atribuidosAqui.add(ticketId);
+        }
+        boolean atribuido = false;
+        try {
+            atribuido = ticketService.assignAutomatico(ticketId, escolhido.id);
+        } catch (RuntimeException e) {
+            log.warn("Falha na atribuição automática do chamado {} para {}", ticketId, escolhido.nome, e);
+        }
+        // Chamado já capturado por alguém (ou transação falhou): devolve a reserva
+        if (!atribuido) {
+            contadoNaReserva(ticketId);
+            ajustarCarga(escolhido.id, -1);
+        }
+        return atribuido;
+    }
+
+    // Fila da equipe em ordem de vencimento do SLA
+    public void rotearFila(Long equipeId) {
+        if (!ativo) return;
+        for (Object[] row : ticketRepository.findFilaSemTecnicoPorEquipe(equipeId)) {
+            rotear((Long) row[0], equipeId, (Long) row[1], (LocalDateTime) row[2]);
+        }
+    }
+
+    // Pelo tempo que resta até o prazo do SLA, não pela prioridade: um chamado "Baixa" prestes a vencer
+    // também fura a capacidade. Sem prazo (eventos antigos) não é urgente.
+    boolean urgente(LocalDateTime prazoSla, LocalDateTime agora) {
+        return prazoSla != null && !prazoSla.isAfter(agora.plusMinutes(urgenciaMinutos));
+    }
+
+    synchronized CargaTecnico reservar(Long equipeId, Long categoriaId, boolean urgente) {
+        HeapIndexado<CargaTecnico> equipe = porEquipe.get(equipeId);
+        if (equipe == null || equipe.tamanho() == 0) return null;
+
+        // Urgente: vai para o menos carregado, mesmo acima da capacidade (até o excedente)
+        CargaTecnico escolhido = equipe.topo();
+        if (urgente) {
+            return (escolhido.emAndamento < capacidadeMaxima + excedenteUrgente) ? confirmarReserva(escolhido) : null;
+        }
+
+        if (categoriaId != null) {
+            HeapIndexado<CargaTecnico> especialistas = porEquipeCategoria
+                    .getOrDefault(equipeId, Map.of()).get(categoriaId);
+            CargaTecnico especialista = (especialistas != null) ? especialistas.topo() : null;
+            if (especialista != null && especialista.emAndamento < capacidadeMaxima
+                    && pontuacao(especialista, categoriaId) <= escolhido.emAndamento) {
+                escolhido = especialista;
+            }
+        }
+        if (escolhido.emAndamento >= capacidadeMaxima) return null;
+        return confirmarReserva(escolhido);
+    }
+
+    private CargaTecnico confirmarReserva(CargaTecnico c) {
+        c.emAndamento++;
+        c.ultimaAtribuicao = ++sequencia;
+        reposicionar(c);
+        return c;
+    }
+
+    public synchronized void ajustarCarga(Long tecnicoId, int delta) {
+        CargaTecnico c = tecnicos.get(tecnicoId);
+        if (c == null) return;
+        c.emAndamento = Math.max(0, c.emAndamento + delta);
+        reposicionar(c);
+    }
+
+    // true uma única vez por chamado que esta instância atribuiu (o evento dele não deve somar de novo)
+    public synchronized boolean contadoNaReserva(Long ticketId) {
+        return atribuidosAqui.remove(ticketId);
+    }
+
+    // O técnico que largou um chamado estava no limite (a fila da equipe pode andar). Quem decide roda no anel
+    // do cluster e pode ver o contador antes ou depois de a saída ser descontada, por isso o "- 1".
+    public synchronized boolean estavaNaCapacidade(Long tecnicoId) {
+        CargaTecnico c = tecnicos.get(tecnicoId);
+        return c != null && c.emAndamento >= capacidadeMaxima - 1;
+    }
+
+    public synchronized void registrarFechamento(Long tecnicoId, Long categoriaId) {
+        CargaTecnico c = tecnicos.get(tecnicoId);
+        if (c == null || categoriaId == null) return;
+        c.fechadosPorCategoria.merge(categoriaId, 1, Integer::sum);
+        heapCategoria(c.equipeId, categoriaId).adicionar(c);
+    }
+
+    public synchronized Long getEquipe(Long tecnicoId) {
+        CargaTecnico c = tecnicos.get(tecnicoId);
+        return (c != null) ? c.equipeId : null;
+    }
+
+    private void indexar(CargaTecnico c) {
+        porEquipe.computeIfAbsent(c.equipeId, k -> new HeapIndexado<>(
+                Comparator.comparingInt((CargaTecnico t) -> t.emAndamento)
+                        .thenComparingLong(t -> t.ultimaAtribuicao)
+                        .thenComparing(t -> t.id)))
+                .adicionar(c);
+        c.fechadosPorCategoria.keySet().forEach(cat -> heapCategoria(c.equipeId, cat).adicionar(c));
+    }
+
+    private HeapIndexado<CargaTecnico> heapCategoria(Long equipeId, Long categoriaId) {
+        return porEquipeCategoria.computeIfAbsent(equipeId, k -> new HashMap<>())
+                .computeIfAbsent(categoriaId, cat -> new HeapIndexado<>(
+                        Comparator.comparingDouble((CargaTecnico t) -> pontuacao(t, cat))
+                                .thenComparingLong(t -> t.ultimaAtribuicao)
+                                .thenComparing(t -> t.id)));
+    }
+
+    private void reposicionar(CargaTecnico c) {
+        HeapIndexado<CargaTecnico> equipe = porEquipe.get(c.equipeId);
+        if (equipe != null) equipe.atualizar(c);
+        Map<Long, HeapIndexado<CargaTecnico>> categorias = porEquipeCategoria.get(c.equipeId);
+        if (categorias == null) return;
+        for (Long cat : c.fechadosPorCategoria.keySet()) {
+            HeapIndexado<CargaTecnico> h = categorias.get(cat);
+            if (h != null) h.atualizar(c);
+        }
+    }
+
+    // Menor é melhor: carga atual descontada da afinidade com a categoria
+    private double pontuacao(CargaTecnico c, Long categoriaId) {
+        double afinidade = Math.min(1.0, c.fechados(categoriaId) / (double) Math.max(1, limiarAfinidade));
+        return c.emAndamento - pesoAfinidade * afinidade;
+    }
+}
@@ -0,0 +1,39 @@
+package br.com.brisabr.helpdesk_api.routing;
+
+import br.com.brisabr.helpdesk_api.events.TicketDomainEvent;
+import br.com.brisabr.helpdesk_api.events.TicketEventSubscriber;
+import br.com.brisabr.helpdesk_api.events.TicketEventType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+// Mantém os contadores do MotorRoteamento desta instância em dia; toda réplica recebe todos os eventos.
+// A decisão de atribuir fica com o AtribuicaoAutomaticaSubscriber, que roda uma vez no cluster.
+@Component
+public class RoteamentoSubscriber implements TicketEventSubscriber {
+
+    private static final String EM_ANDAMENTO = "Em Andamento";
+
+    @Autowired
+    private MotorRoteamento motor;
+
+    @Override
+    public void onEvent(TicketDomainEvent e, boolean fimDoLote) {
+        if (!motor.isAtivo()) return;
+
+        Long saiu = EM_ANDAMENTO.equals(e.getStatusAnterior()) ? e.getTecnicoAnteriorId() : null;
+        // Atribuição automática feita por esta instância já foi contada na reserva; a das outras não
+        Long entrou = (EM_ANDAMENTO.equals(e.getStatus()) && !(e.isAutomatico() && motor.contadoNaReserva(e.getTicketId())))
+                ? e.getTecnicoId() : null;
+
+        if (!Objects.equals(saiu, entrou)) {
+            if (saiu != null) motor.ajustarCarga(saiu, -1);
+            if (entrou != null) motor.ajustarCarga(entrou, 1);
+        }
+
+        if (e.getTipo() == TicketEventType.FECHADO && e.getTecnicoId() != null) {
+            motor.registrarFechamento(e.getTecnicoId(), e.getCategoriaId());
+        }
+    }
+}
@@ -79,7 +79,7 @@ public class ReportService {
                                           String categoria, String problema, String tecnico, 
                                           Long equipeId, Long solicitanteId, String solucao) {
         
-        List<Ticket> todos = ticketRepository.findAll();
+        List<Ticket> todos = ticketRepository.findAllParaRelatorio();
         
         return todos.stream()
             .filter(t -> inicio == null || !t.getDataAbertura().toLocalDate().isBefore(inicio))
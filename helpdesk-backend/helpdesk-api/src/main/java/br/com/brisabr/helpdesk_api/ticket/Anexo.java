@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 public class Anexo {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "anexo_seq")
+    @SequenceGenerator(name = "anexo_seq", sequenceName = "anexos_chamados_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "nome_arquivo")
@@ -30,7 +31,7 @@ public class Anexo {
     @Column(name = "data_upload")
     private LocalDateTime dataUpload = LocalDateTime.now(); 
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_chamado") 
     @JsonIgnore
     private Ticket ticket;
@@ -8,7 +8,8 @@ import java.time.ZonedDateTime;
 public class AnexoChamado {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "anexo_chamado_seq")
+    @SequenceGenerator(name = "anexo_chamado_seq", sequenceName = "anexos_chamados_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "nome_arquivo", nullable = false)
@@ -10,19 +10,26 @@ import java.util.List;
 public class CategoriaController {
 
     @Autowired private CategoriaRepository categoriaRepository;
+    @Autowired private ReferenciaCache referenciaCache;
 
     @GetMapping
-    public List<Categoria> getAll() { return categoriaRepository.findAll(); }
+    public ResponseEntity<List<Categoria>> getAll() { return referenciaCache.responder(referenciaCache.getCategorias()); }
 
     @PostMapping
-    public Categoria create(@RequestBody Categoria c) { return categoriaRepository.save(c); }
+    public Categoria create(@RequestBody Categoria c) {
+        Categoria salva = categoriaRepository.save(c);
+        referenciaCache.recarregarCategorias();
+        return salva;
+    }
 
     // EDITAR
     @PutMapping("/{id}")
     public ResponseEntity<Categoria> update(@PathVariable Long id, @RequestBody Categoria updates) {
         return categoriaRepository.findById(id).map(c -> {
             c.setNome(updates.getNome());
-            return ResponseEntity.ok(categoriaRepository.save(c));
+            Categoria salva = categoriaRepository.save(c);
+            referenciaCache.recarregarCategorias();
+            return ResponseEntity.ok(salva);
         }).orElse(ResponseEntity.notFound().build());
     }
 
@@ -31,6 +38,7 @@ public class CategoriaController {
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         if (categoriaRepository.existsById(id)) {
             categoriaRepository.deleteById(id);
+            referenciaCache.recarregarCategorias();
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
@@ -0,0 +1,21 @@
+package br.com.brisabr.helpdesk_api.ticket;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Último sequencial de número de chamado entregue em cada ano (ver NumeroChamadoGenerator)
+@Entity
+@Table(name = "contadores_numero_chamado")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ContadorNumeroChamado {
+
+    @Id
+    private Integer ano;
+
+    @Column(nullable = false)
+    private Integer ultimo;
+}
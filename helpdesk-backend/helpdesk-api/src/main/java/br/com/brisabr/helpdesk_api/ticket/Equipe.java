@@ -2,16 +2,23 @@ package br.com.brisabr.helpdesk_api.ticket;
 
 import br.com.brisabr.helpdesk_api.user.User;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "equipes")
+// User.equipe é LAZY: o Jackson pode receber o proxy do Hibernate
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "equipes")
 @Getter
 @Setter
 @NoArgsConstructor
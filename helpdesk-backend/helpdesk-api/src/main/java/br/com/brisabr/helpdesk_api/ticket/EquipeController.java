@@ -10,19 +10,26 @@ import java.util.List;
 public class EquipeController {
 
     @Autowired private EquipeRepository equipeRepository;
+    @Autowired private ReferenciaCache referenciaCache;
 
     @GetMapping
-    public List<Equipe> getAllEquipes() { return equipeRepository.findAll(); }
+    public ResponseEntity<List<Equipe>> getAllEquipes() { return referenciaCache.responder(referenciaCache.getEquipes()); }
 
     @PostMapping
-    public Equipe createEquipe(@RequestBody Equipe equipe) { return equipeRepository.save(equipe); }
+    public Equipe createEquipe(@RequestBody Equipe equipe) {
+        Equipe salva = equipeRepository.save(equipe);
+        referenciaCache.recarregarEquipes();
+        return salva;
+    }
 
     // EDITAR
     @PutMapping("/{id}")
     public ResponseEntity<Equipe> updateEquipe(@PathVariable Long id, @RequestBody Equipe updates) {
         return equipeRepository.findById(id).map(eq -> {
             eq.setNomeEquipe(updates.getNomeEquipe());
-            return ResponseEntity.ok(equipeRepository.save(eq));
+            Equipe salva = equipeRepository.save(eq);
+            referenciaCache.recarregarEquipes();
+            return ResponseEntity.ok(salva);
         }).orElse(ResponseEntity.notFound().build());
     }
 
@@ -31,6 +38,7 @@ public class EquipeController {
     public ResponseEntity<Void> deleteEquipe(@PathVariable Long id) {
         if (equipeRepository.existsById(id)) {
             equipeRepository.deleteById(id);
+            referenciaCache.recarregarEquipes();
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
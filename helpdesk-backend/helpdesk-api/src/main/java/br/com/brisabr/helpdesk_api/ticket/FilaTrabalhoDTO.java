@@ -0,0 +1,60 @@
+package br.com.brisabr.helpdesk_api.ticket;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+public class FilaTrabalhoDTO {
+
+    // Faixas de tempo restante até o vencimento do SLA, na ordem em que aparecem na fila
+    public static final String VENCIDO = "VENCIDO";
+    public static final String ATE_1H = "ATE_1H";
+    public static final String ATE_4H = "ATE_4H";
+    public static final String ATE_24H = "ATE_24H";
+    public static final String MAIS_24H = "MAIS_24H";
+
+    private LocalDateTime geradoEm;
+    private Map<String, Long> totaisPorFaixa = new LinkedHashMap<>();
+    private List<ItemDTO> itens = new ArrayList<>();
+
+    public FilaTrabalhoDTO(List<Ticket> tickets, LocalDateTime agora) {
+        this.geradoEm = agora;
+        for (String faixa : List.of(VENCIDO, ATE_1H, ATE_4H, ATE_24H, MAIS_24H)) totaisPorFaixa.put(faixa, 0L);
+        for (Ticket t : tickets) {
+            ItemDTO item = new ItemDTO(t, agora);
+            itens.add(item);
+            totaisPorFaixa.merge(item.getFaixa(), 1L, Long::sum);
+        }
+    }
+
+    @Data
+    public static class ItemDTO {
+        private TicketResponseDTO ticket;
+        private LocalDateTime prazoSla;
+        private long minutosRestantes; // Negativo quando já venceu
+        private String faixa;
+
+        public ItemDTO(Ticket t, LocalDateTime agora) {
+            this.ticket = new TicketResponseDTO(t);
+            this.prazoSla = t.getPrazoSla();
+            this.minutosRestantes = Duration.between(agora, t.getPrazoSla()).toMinutes();
+            this.faixa = faixa(minutosRestantes);
+        }
+
+        private static String faixa(long minutos) {
+            if (minutos < 0) return VENCIDO;
+            if (minutos <= 60) return ATE_1H;
+            if (minutos <= 240) return ATE_4H;
+            if (minutos <= 1440) return ATE_24H;
+            return MAIS_24H;
+        }
+    }
+}
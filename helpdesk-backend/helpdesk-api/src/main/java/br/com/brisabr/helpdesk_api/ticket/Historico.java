@@ -17,15 +17,16 @@ import java.time.LocalDateTime;
 public class Historico {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "historico_seq")
+    @SequenceGenerator(name = "historico_seq", sequenceName = "historico_chamados_id_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_chamado") // CORREÇÃO VITAL: O banco usa id_chamado
     @JsonIgnore
     private Ticket ticket;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_autor") // CORREÇÃO: O banco usa id_autor
     private User usuario;
 
@@ -36,4 +37,8 @@ public class Historico {
     
     @Column(columnDefinition = "TEXT")
     private String comentario; 
+
+    // Evento da outbox que originou a entrada (write-behind); índice único parcial em schema-postgresql.sql
+    @Column(name = "id_evento")
+    private Long eventoId;
 }
\ No newline at end of file
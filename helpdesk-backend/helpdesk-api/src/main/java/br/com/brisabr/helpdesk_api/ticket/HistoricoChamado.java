@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 public class HistoricoChamado {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "historico_chamado_seq")
+    @SequenceGenerator(name = "historico_chamado_seq", sequenceName = "historico_chamados_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
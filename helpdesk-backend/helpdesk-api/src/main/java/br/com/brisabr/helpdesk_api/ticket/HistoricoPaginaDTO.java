@@ -0,0 +1,16 @@
+package br.com.brisabr.helpdesk_api.ticket;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Página da linha do tempo, do mais recente para o mais antigo
+@Data
+@NoArgsConstructor
+public class HistoricoPaginaDTO {
+    private List<TicketResponseDTO.HistoricoDTO> itens = new ArrayList<>();
+    private String proximoCursor; // null na última página
+    private long total;
+}
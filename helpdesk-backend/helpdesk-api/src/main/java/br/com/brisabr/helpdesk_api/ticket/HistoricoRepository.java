@@ -1,8 +1,30 @@
 package br.com.brisabr.helpdesk_api.ticket;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface HistoricoRepository extends JpaRepository<Historico, Long> {
-}
\ No newline at end of file
+
+    // Linha do tempo do chamado, do mais recente para o mais antigo (índice idx_historico_chamado_data)
+    @Query("SELECT h FROM Historico h LEFT JOIN FETCH h.usuario " +
+           "WHERE h.ticket.id = :ticketId ORDER BY h.dataHora DESC, h.id DESC")
+    List<Historico> findRecentes(@Param("ticketId") Long ticketId, Pageable pageable);
+
+    // Paginação por cursor (keyset): continua logo depois do último item da página anterior
+    @Query("SELECT h FROM Historico h LEFT JOIN FETCH h.usuario " +
+           "WHERE h.ticket.id = :ticketId AND (h.dataHora < :dataHora OR (h.dataHora = :dataHora AND h.id < :id)) " +
+           "ORDER BY h.dataHora DESC, h.id DESC")
+    List<Historico> findAnteriores(@Param("ticketId") Long ticketId, @Param("dataHora") LocalDateTime dataHora,
+                                   @Param("id") Long id, Pageable pageable);
+
+    long countByTicketId(Long ticketId);
+
+    boolean existsByEventoId(Long eventoId);
+}
@@ -0,0 +1,110 @@
+package br.com.brisabr.helpdesk_api.ticket;
+
+import br.com.brisabr.helpdesk_api.events.ReparoOutbox;
+import br.com.brisabr.helpdesk_api.events.TicketDomainEvent;
+import br.com.brisabr.helpdesk_api.events.TicketEventSubscriber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Grava em lote (write-behind) as entradas de histórico que viajam nos eventos das transições.
+// A outbox é o log durável: se o lote falhar ou a aplicação cair antes de gravar, o reparo
+// periódico recria as entradas a partir dos eventos já publicados. O id do evento torna tudo idempotente.
+@Component
+public class HistoricoSubscriber implements TicketEventSubscriber {
+
+    private static final Logger log = LoggerFactory.getLogger(HistoricoSubscriber.class);
+    private static final int TENTATIVAS = 3;
+
+    private static final String INSERT =
+            "INSERT INTO historico_chamados (id, id_chamado, id_autor, data_ocorrencia, acao, comentario, id_evento) " +
+            "VALUES (nextval('historico_chamados_id_seq'), ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (id_evento) WHERE id_evento IS NOT NULL DO NOTHING";
+
+    // Eventos publicados há algum tempo cuja entrada de histórico não chegou ao banco
+    private static final String REPARO =
+            "INSERT INTO historico_chamados (id, id_chamado, id_autor, data_ocorrencia, acao, comentario, id_evento) " +
+            "SELECT nextval('historico_chamados_id_seq'), o.id_chamado, CAST(p ->> 'autorId' AS BIGINT), " +
+            "CAST(p ->> 'dataOcorrencia' AS TIMESTAMP), p ->> 'historicoAcao', " +
+            "COALESCE(p ->> 'historicoComentario', p ->> 'historicoAcao'), o.id " +
+            "FROM (SELECT e.*, CAST(e.payload AS JSONB) AS p FROM eventos_outbox e " +
+            "      WHERE e.id > ? AND e.data_publicacao IS NOT NULL AND e.data_publicacao < ?) o " +
+            "WHERE p ->> 'historicoAcao' IS NOT NULL " +
+            "AND NOT EXISTS (SELECT 1 FROM historico_chamados h WHERE h.id_evento = o.id) " +
+            "ON CONFLICT (id_evento) WHERE id_evento IS NOT NULL DO NOTHING";
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private ReparoOutbox reparoOutbox;
+
+    @Value("${helpdesk.historico.reparo-atraso-segundos:60}")
+    private long atrasoReparoSegundos;
+
+    private final List<TicketDomainEvent> pendentes = new ArrayList<>();
+
+    // Antes dos demais assinantes do cluster: nenhuma notificação sai antes da entrada de histórico dela
+    @Override
+    public int fase() {
+        return 0;
+    }
+
+    @Override
+    public boolean unicoNoCluster() {
+        return true;
+    }
+
+    @Override
+    public void onEvent(TicketDomainEvent e, boolean fimDoLote) {
+        if (e.getHistoricoAcao() != null && e.getOutboxId() != null) pendentes.add(e);
+        if (!fimDoLote || pendentes.isEmpty()) return;
+
+        try {
+            gravar();
+        } finally {
+            pendentes.clear();
+        }
+    }
+
+    private void gravar() {
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                jdbcTemplate.batchUpdate(INSERT, pendentes, pendentes.size(), (ps, e) -> {
+                    ps.setLong(1, e.getTicketId());
+                    ps.setObject(2, e.getAutorId());
+                    ps.setObject(3, e.getDataOcorrencia());
+                    ps.setString(4, e.getHistoricoAcao());
+                    ps.setString(5, e.getHistoricoComentario() != null ? e.getHistoricoComentario() : e.getHistoricoAcao());
+                    ps.setLong(6, e.getOutboxId());
+                });
+                return;
+            } catch (DataAccessException ex) {
+                if (tentativa >= TENTATIVAS) {
+                    log.error("Falha ao gravar {} entrada(s) de histórico; ficam para o reparo", pendentes.size(), ex);
+                    return;
+                }
+                try {
+                    Thread.sleep(100L * tentativa);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // Precisa rodar com folga dentro da retenção da outbox (helpdesk.outbox.retencao-horas).
+    // Uma réplica por vez, a partir da marca gravada no banco (ver ReparoOutbox).
+    @Scheduled(fixedDelayString = "${helpdesk.historico.reparo-ms:60000}")
+    public void reparar() {
+        int recriadas = reparoOutbox.executar("historico", atrasoReparoSegundos,
+                (conferidoAte, limite) -> jdbcTemplate.update(REPARO, conferidoAte, limite));
+        if (recriadas > 0) log.warn("{} entrada(s) de histórico recriadas a partir da outbox", recriadas);
+    }
+}
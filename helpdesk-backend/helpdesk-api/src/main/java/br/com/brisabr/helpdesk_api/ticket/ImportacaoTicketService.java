@@ -0,0 +1,386 @@
+package br.com.brisabr.helpdesk_api.ticket;
+
+import br.com.brisabr.helpdesk_api.analytics.PercentilAtendimentoService;
+import br.com.brisabr.helpdesk_api.analytics.TempoAtendimentoChamado;
+import br.com.brisabr.helpdesk_api.events.TicketDomainEvent;
+import br.com.brisabr.helpdesk_api.events.TicketEventRecorder;
+import br.com.brisabr.helpdesk_api.events.TicketEventType;
+import br.com.brisabr.helpdesk_api.user.User;
+import br.com.brisabr.helpdesk_api.user.UserRepository;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Importação de chamados em massa (migração do sistema antigo, alertas de monitoramento).
+// O arquivo é lido registro a registro; referências são resolvidas em mapas carregados uma vez;
+// números e ids são reservados em bloco e cada lote vai ao banco em batch JDBC, na sua própria transação.
+@Service
+public class ImportacaoTicketService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportacaoTicketService.class);
+
+    private static final int MAX_TAMANHO_LOTE = 5000;
+    private static final List<String> PRIORIDADES = List.of("Crítica", "Elevada", "Média", "Baixa");
+    private static final List<String> STATUS = List.of("Aberto", "Em Andamento", "Fechado", "Resolvido", "Encerrado");
+    private static final Set<String> FECHADOS = Set.of("Fechado", "Resolvido", "Encerrado");
+    private static final DateTimeFormatter DATA_BR = DateTimeFormatter.ofPattern("dd/MM/yyyy[ HH:mm[:ss]]");
+
+    @Autowired private ReferenciaCache referenciaCache;
+    @Autowired private UserRepository userRepository;
+    @Autowired private NumeroChamadoGenerator numeroChamadoGenerator;
+    @Autowired private TicketRepository ticketRepository;
+    @Autowired private TicketEventRecorder eventRecorder;
+    @Autowired private PercentilAtendimentoService percentilService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private ObjectMapper objectMapper;
+
+    @Value("${helpdesk.importacao.tamanho-lote:500}")
+    private int tamanhoLotePadrao;
+
+    private final Map<String, Long> incrementos = new ConcurrentHashMap<>();
+
+    // Linha já validada, pronta para o INSERT
+    private static class Pendente {
+        long registro;
+        Long id;
+        long idHistorico;
+        String numeroChamado;
+        String descricao;
+        String status;
+        String prioridade;
+        Long categoriaId;
+        Long problemaId;
+        Long solicitanteId;
+        Long tecnicoId;
+        LocalDateTime dataAbertura;
+        LocalDateTime dataFechamento;
+        String solucao;
+    }
+
+    private static class Referencias {
+        final Map<String, Long> categorias = new HashMap<>();
+        final Map<String, Problema> problemas = new HashMap<>();
+        final Map<String, Long> usuarios = new HashMap<>();
+        final Map<Long, Long> equipes = new HashMap<>(); // usuário -> equipe, para os percentis dos fechados
+    }
+
+    public ResultadoImportacaoDTO importar(InputStream entrada, boolean ndjson, char separador,
+                                           Integer tamanhoLote, User autor) throws IOException {
+        long inicio = System.nanoTime();
+        int lote = Math.max(1, Math.min(tamanhoLote != null ? tamanhoLote : tamanhoLotePadrao, MAX_TAMANHO_LOTE));
+        Referencias refs = carregarReferencias();
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+
+        ResultadoImportacaoDTO resultado = new ResultadoImportacaoDTO();
+        List<Pendente> buffer = new ArrayList<>(lote);
+        Set<String> numerosNoArquivo = new HashSet<>();
+        long registro = 0;
+
+        try (MappingIterator<LinhaImportacaoDTO> linhas = leitor(ndjson, separador).readValues(entrada)) {
+            while (true) {
+                LinhaImportacaoDTO linha;
+                try {
+                    if (!linhas.hasNextValue()) break;
+                    linha = linhas.nextValue();
+                } catch (IOException | RuntimeException e) {
+                    // Depois de um registro malformado o parser não tem como se reposicionar com segurança
+                    resultado.erro(++registro, "Registro malformado: " + e.getMessage());
+                    resultado.setInterrompido(true);
+                    break;
+                }
+                registro++;
+
+                try {
+                    buffer.add(converter(linha, registro, refs, numerosNoArquivo));
+                } catch (IllegalArgumentException e) {
+                    resultado.erro(registro, e.getMessage());
+                }
+
+                if (buffer.size() >= lote) gravar(buffer, autor, refs, transacao, resultado);
+            }
+        }
+        if (!buffer.isEmpty()) gravar(buffer, autor, refs, transacao, resultado);
+
+        resultado.setRegistrosLidos(registro);
+        long duracaoNs = System.nanoTime() - inicio;
+        resultado.setDuracaoMs(duracaoNs / 1_000_000);
+        resultado.setRegistrosPorSegundo(duracaoNs > 0 ? resultado.getImportados() * 1e9 / duracaoNs : 0);
+        log.info("Importação de chamados: {} lidos, {} importados, {} com erro em {} ms ({} registros/s)",
+                registro, resultado.getImportados(), resultado.getComErro(), resultado.getDuracaoMs(),
+                Math.round(resultado.getRegistrosPorSegundo()));
+        return resultado;
+    }
+
+    private ObjectReader leitor(boolean ndjson, char separador) {
+        if (ndjson) return objectMapper.readerFor(LinhaImportacaoDTO.class);
+        CsvMapper csv = CsvMapper.builder()
+                .enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES)
+                .enable(CsvParser.Feature.TRIM_SPACES)
+                .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+                .build();
+        return csv.readerFor(LinhaImportacaoDTO.class)
+                .with(CsvSchema.emptySchema().withHeader().withColumnSeparator(separador));
+    }
+
+    private Referencias carregarReferencias() {
+        Referencias refs = new Referencias();
+        // A importação resolve pelos nomes do snapshot: recarrega antes para ver o que outra instância criou
+        referenciaCache.recarregarCategorias();
+        referenciaCache.recarregarProblemas();
+        referenciaCache.getCategorias().itens().forEach(c -> refs.categorias.put(chave(c.getNome()), c.getId()));
+        referenciaCache.getProblemas().itens().forEach(p -> refs.problemas.put(chave(p.getNome()), p));
+        userRepository.findAll().forEach(u -> {
+            if (u.getLogin() != null) refs.usuarios.put(u.getLogin().toLowerCase(), u.getId());
+            if (u.getEquipe() != null) refs.equipes.put(u.getId(), u.getEquipe().getId());
+        });
+        return refs;
+    }
+
+    private Pendente converter(LinhaImportacaoDTO l, long registro, Referencias refs, Set<String> numerosNoArquivo) {
+        Pendente p = new Pendente();
+        p.registro = registro;
+
+        if (vazio(l.getDescricao())) throw new IllegalArgumentException("Descrição é obrigatória");
+        p.descricao = l.getDescricao();
+
+        if (vazio(l.getSolicitante())) throw new IllegalArgumentException("Solicitante é obrigatório");
+        p.solicitanteId = refs.usuarios.get(l.getSolicitante().trim().toLowerCase());
+        if (p.solicitanteId == null) throw new IllegalArgumentException("Solicitante '" + l.getSolicitante() + "' não encontrado");
+
+        if (!vazio(l.getTecnico())) {
+            p.tecnicoId = refs.usuarios.get(l.getTecnico().trim().toLowerCase());
+            if (p.tecnicoId == null) throw new IllegalArgumentException("Técnico '" + l.getTecnico() + "' não encontrado");
+        }
+
+        if (!vazio(l.getCategoria())) {
+            p.categoriaId = refs.categorias.get(chave(l.getCategoria()));
+            if (p.categoriaId == null) throw new IllegalArgumentException("Categoria '" + l.getCategoria() + "' não encontrada");
+        }
+
+        Problema problema = null;
+        if (!vazio(l.getProblema())) {
+            problema = refs.problemas.get(chave(l.getProblema()));
+            if (problema == null) throw new IllegalArgumentException("Problema '" + l.getProblema() + "' não encontrado");
+            p.problemaId = problema.getId();
+        }
+
+        if (!vazio(l.getPrioridade())) {
+            p.prioridade = normalizar(l.getPrioridade(), PRIORIDADES, "Prioridade");
+        } else {
+            p.prioridade = (problema != null && problema.getPrioridadePadrao() != null) ? problema.getPrioridadePadrao() : "Média";
+        }
+
+        p.dataAbertura = vazio(l.getDataAbertura()) ? LocalDateTime.now() : data(l.getDataAbertura(), "dataAbertura");
+        p.dataFechamento = vazio(l.getDataFechamento()) ? null : data(l.getDataFechamento(), "dataFechamento");
+        if (p.dataFechamento != null && p.dataFechamento.isBefore(p.dataAbertura)) {
+            throw new IllegalArgumentException("dataFechamento anterior à dataAbertura");
+        }
+
+        if (!vazio(l.getStatus())) {
+            p.status = normalizar(l.getStatus(), STATUS, "Status");
+        } else {
+            p.status = (p.dataFechamento != null) ? "Fechado" : (p.tecnicoId != null ? "Em Andamento" : "Aberto");
+        }
+        if (FECHADOS.contains(p.status) && p.dataFechamento == null) {
+            throw new IllegalArgumentException("Chamado fechado sem dataFechamento");
+        }
+        if ("Em Andamento".equals(p.status) && p.tecnicoId == null) {
+            throw new IllegalArgumentException("Chamado em andamento sem técnico");
+        }
+        p.solucao = vazio(l.getSolucao()) ? null : l.getSolucao();
+
+        if (!vazio(l.getNumeroChamado())) {
+            p.numeroChamado = l.getNumeroChamado().trim();
+            if (!numerosNoArquivo.add(p.numeroChamado)) {
+                throw new IllegalArgumentException("Número " + p.numeroChamado + " repetido no arquivo");
+            }
+        }
+        return p;
+    }
+
+    private void gravar(List<Pendente> buffer, User autor, Referencias refs, TransactionTemplate transacao,
+                        ResultadoImportacaoDTO resultado) {
+        List<Pendente> lote = new ArrayList<>(buffer);
+        buffer.clear();
+
+        // Números vindos do sistema antigo que já existem aqui
+        String[] informados = lote.stream().filter(p -> p.numeroChamado != null).map(p -> p.numeroChamado).toArray(String[]::new);
+        if (informados.length > 0) {
+            Set<String> existentes = new HashSet<>(jdbcTemplate.queryForList(
+                    "SELECT numero_chamado FROM chamados WHERE numero_chamado = ANY(?)", String.class, (Object) informados));
+            lote.removeIf(p -> {
+                if (p.numeroChamado == null || !existentes.contains(p.numeroChamado)) return false;
+                resultado.erro(p.registro, "Número " + p.numeroChamado + " já existe");
+                return true;
+            });
+        }
+        if (lote.isEmpty()) return;
+
+        LocalDateTime agora = LocalDateTime.now();
+        String comentario = "Importado por " + (autor != null ? autor.getNome() : "Sistema");
+
+        try {
+            transacao.executeWithoutResult(status -> {
+                // Numeração dentro da transação do lote: se ele falhar, os contadores voltam junto
+                // (e ficam travados até o commit, como em qualquer abertura de chamado).
+                // Antes da reserva dos blocos, para nenhum número gerado cair sobre um informado
+                numeroChamadoGenerator.avancarAte(lote.stream().map(p -> p.numeroChamado).filter(Objects::nonNull).toList());
+
+                // Um bloco de números por ano de abertura
+                Map<Integer, List<Pendente>> semNumero = new LinkedHashMap<>();
+                lote.stream().filter(p -> p.numeroChamado == null)
+                        .forEach(p -> semNumero.computeIfAbsent(p.dataAbertura.getYear(), a -> new ArrayList<>()).add(p));
+                semNumero.forEach((ano, pendentes) -> {
+                    int sequencial = numeroChamadoGenerator.reservarBloco(ano, pendentes.size());
+                    for (Pendente p : pendentes) p.numeroChamado = NumeroChamadoGenerator.formatar(ano, sequencial++);
+                });
+
+                long[] ids = reservarIds("chamados_id_seq", lote.size());
+                long[] idsHistorico = reservarIds("historico_chamados_id_seq", lote.size());
+                for (int i = 0; i < lote.size(); i++) {
+                    lote.get(i).id = ids[i];
+                    lote.get(i).idHistorico = idsHistorico[i];
+                }
+
+                // Os que têm data de fechamento entram nos percentis junto com o lote (mesmo critério da reconstrução),
+                // mexendo só nas chaves que eles tocam
+                List<TempoAtendimentoChamado> tempos = lote.stream()
+                        .filter(p -> p.dataFechamento != null)
+                        .map(p -> PercentilAtendimentoService.novoTempo(p.id, p.categoriaId,
+                                (p.tecnicoId != null) ? refs.equipes.get(p.tecnicoId) : null, p.dataAbertura, p.dataFechamento, null))
+                        .toList();
+
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO chamados (id, numero_chamado, descricao, status, prioridade, id_categoria, id_problema, " +
+                        "id_solicitante, id_tecnico_atribuido, data_abertura, data_fechamento, solucao, foi_reaberto, " +
+                        "prazo_sla, versao) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, false, ?, 0)",
+                        lote, lote.size(), (ps, p) -> {
+                            ps.setLong(1, p.id);
+                            ps.setString(2, p.numeroChamado);
+                            ps.setString(3, p.descricao);
+                            ps.setString(4, p.status);
+                            ps.setString(5, p.prioridade);
+                            ps.setObject(6, p.categoriaId);
+                            ps.setObject(7, p.problemaId);
+                            ps.setLong(8, p.solicitanteId);
+                            ps.setObject(9, p.tecnicoId);
+                            ps.setObject(10, p.dataAbertura);
+                            ps.setObject(11, p.dataFechamento);
+                            ps.setString(12, p.solucao);
+                            ps.setObject(13, Ticket.calculateSlaDeadline(p.dataAbertura, p.prioridade));
+                        });
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO historico_chamados (id, id_chamado, id_autor, data_ocorrencia, acao, comentario) " +
+                        "VALUES (?, ?, ?, ?, 'Chamado Importado', ?)",
+                        lote, lote.size(), (ps, p) -> {
+                            ps.setLong(1, p.idHistorico);
+                            ps.setLong(2, p.id);
+                            ps.setObject(3, autor != null ? autor.getId() : null);
+                            ps.setObject(4, agora);
+                            ps.setString(5, comentario);
+                        });
+                percentilService.registrarImportados(tempos);
+                registrarAbertos(lote, autor);
+            });
+            resultado.setImportados(resultado.getImportados() + lote.size());
+            resultado.setLotesGravados(resultado.getLotesGravados() + 1);
+        } catch (DataAccessException e) {
+            String motivo = "Falha ao gravar o lote: " + e.getMostSpecificCause().getMessage();
+            lote.forEach(p -> resultado.erro(p.registro, motivo));
+        }
+    }
+
+    // Importados em aberto entram no fluxo de um chamado novo (roteamento, SSE, painel) pela outbox.
+    // O histórico já foi gravado acima: o evento vai sem entrada de histórico
+    private void registrarAbertos(List<Pendente> lote, User autor) {
+        List<Long> abertos = lote.stream().filter(p -> !FECHADOS.contains(p.status)).map(p -> p.id).toList();
+        if (abertos.isEmpty()) return;
+        List<TicketDomainEvent> eventos = new ArrayList<>();
+        for (Ticket t : ticketRepository.findAllParaLote(abertos)) {
+            eventos.add(eventRecorder.novoEvento(TicketEventType.CRIADO, t, null, null, autor));
+        }
+        eventRecorder.registrarEmLote(eventos);
+    }
+
+    // Ids no esquema do otimizador pooled das entidades (allocationSize 50): cada nextval devolve o fim de um
+    // bloco de 'incremento' ids, o mesmo cálculo do Hibernate, então um nextval atende 50 linhas
+    private long[] reservarIds(String sequencia, int quantidade) {
+        long incremento = incrementos.computeIfAbsent(sequencia, s -> jdbcTemplate.queryForObject(
+                "SELECT increment_by FROM pg_sequences WHERE schemaname = current_schema() AND sequencename = ?",
+                Long.class, s));
+        long[] ids = new long[quantidade];
+        int i = 0;
+        while (i < quantidade) {
+            // Sequência recém-criada: o primeiro bloco vem incompleto (ids a partir de 1) e falta pedir mais
+            long blocos = (quantidade - i + incremento - 1) / incremento;
+            for (Long hi : jdbcTemplate.queryForList("SELECT nextval(?::regclass) FROM generate_series(1, ?)",
+                    Long.class, sequencia, blocos)) {
+                for (long id = Math.max(1, hi - incremento + 1); id <= hi && i < quantidade; id++) ids[i++] = id;
+            }
+        }
+        return ids;
+    }
+
+    private static LocalDateTime data(String valor, String campo) {
+        String v = valor.trim();
+        try {
+            return v.contains("T") ? LocalDateTime.parse(v) : LocalDate.parse(v).atStartOfDay();
+        } catch (DateTimeParseException ignored) {
+            // Formato brasileiro
+        }
+        try {
+            TemporalAccessor t = DATA_BR.parseBest(v, LocalDateTime::from, LocalDate::from);
+            return (t instanceof LocalDateTime dt) ? dt : ((LocalDate) t).atStartOfDay();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(campo + " inválida: " + valor);
+        }
+    }
+
+    // Aceita variações de caixa e acentuação ("critica" -> "Crítica")
+    private static String normalizar(String valor, List<String> permitidos, String campo) {
+        String k = chave(valor);
+        for (String p : permitidos) if (chave(p).equals(k)) return p;
+        throw new IllegalArgumentException(campo + " inválido(a): " + valor);
+    }
+
+    private static String chave(String texto) {
+        String semAcento = Normalizer.normalize(texto.trim(), Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return semAcento.toLowerCase();
+    }
+
+    private static boolean vazio(String s) {
+        return s == null || s.isBlank();
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.brisabr.helpdesk_api.ticket;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+// Uma linha do CSV (cabeçalho com estes nomes) ou um objeto por linha do NDJSON.
+// Tudo como texto: a validação e a conversão ficam no ImportacaoTicketService, com erro por linha.
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class LinhaImportacaoDTO {
+    private String numeroChamado;   // Opcional: número do sistema antigo; gerado se vazio
+    private String descricao;
+    private String status;          // Aberto | Em Andamento | Fechado (padrão pelo preenchimento das datas)
+    private String prioridade;      // Padrão: prioridade do problema ou "Média"
+    private String categoria;       // Nome
+    private String problema;        // Nome
+    private String solicitante;     // Login
+    private String tecnico;         // Login
+    private String dataAbertura;    // ISO (2024-03-01T10:15:00) ou dd/MM/yyyy [HH:mm[:ss]]
+    private String dataFechamento;
+    private String solucao;
+}
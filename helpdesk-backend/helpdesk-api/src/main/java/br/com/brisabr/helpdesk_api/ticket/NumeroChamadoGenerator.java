@@ -0,0 +1,69 @@
+package br.com.brisabr.helpdesk_api.ticket;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Numeração "AAAA-NNN" por ano. O contador é uma linha por ano no banco, avançada com UPDATE ... RETURNING:
+// vale para todas as instâncias, e a linha fica travada até o commit de quem reservou, então a abertura
+// de chamados e a importação em lote nunca geram o mesmo número.
+@Component
+public class NumeroChamadoGenerator {
+
+    private static final Pattern NUMERO = Pattern.compile("^(\\d{4})-(\\d{1,9})$");
+
+    @Autowired private TicketRepository ticketRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    public String proximo(int ano) {
+        return formatar(ano, reservarBloco(ano, 1));
+    }
+
+    // Reserva 'quantidade' números consecutivos e devolve o primeiro sequencial do bloco
+    public int reservarBloco(int ano, int quantidade) {
+        String sql = "UPDATE contadores_numero_chamado SET ultimo = ultimo + ? WHERE ano = ? RETURNING ultimo";
+        List<Integer> ultimo = jdbcTemplate.queryForList(sql, Integer.class, quantidade, ano);
+        if (ultimo.isEmpty()) {
+            semear(ano);
+            ultimo = jdbcTemplate.queryForList(sql, Integer.class, quantidade, ano);
+        }
+        return ultimo.get(0) - quantidade + 1;
+    }
+
+    // Números informados na importação (sistema antigo): o contador pula para depois do maior deles
+    public void avancarAte(Collection<String> numeros) {
+        String sql = "UPDATE contadores_numero_chamado SET ultimo = GREATEST(ultimo, ?) WHERE ano = ?";
+        maioresPorAno(numeros).forEach((ano, maior) -> {
+            if (jdbcTemplate.update(sql, maior, ano) > 0) return;
+            semear(ano);
+            jdbcTemplate.update(sql, maior, ano);
+        });
+    }
+
+    // Primeiro uso do ano: começa do maior número já gravado
+    private void semear(int ano) {
+        Integer maior = ticketRepository.findMaiorSequencialDoAno(ano + "-%");
+        jdbcTemplate.update("INSERT INTO contadores_numero_chamado (ano, ultimo) VALUES (?, ?) ON CONFLICT (ano) DO NOTHING",
+                ano, (maior != null) ? maior : 0);
+    }
+
+    private static Map<Integer, Integer> maioresPorAno(Collection<String> numeros) {
+        Map<Integer, Integer> maiores = new HashMap<>();
+        for (String numero : numeros) {
+            Matcher m = NUMERO.matcher(numero);
+            if (m.matches()) maiores.merge(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)), Math::max);
+        }
+        return maiores;
+    }
+
+    public static String formatar(int ano, int sequencial) {
+        return ano + "-" + String.format("%03d", sequencial);
+    }
+}
@@ -0,0 +1,15 @@
+package br.com.brisabr.helpdesk_api.ticket;
+
+import lombok.Data;
+
+import java.util.List;
+
+// Corpo dos endpoints /api/tickets/bulk/*; cada operação usa só os campos que lhe dizem respeito
+@Data
+public class OperacaoEmLoteDTO {
+    private List<Long> ids;
+    private Long tecnicoId;    // assign
+    private String solucao;    // close
+    private String categoria;  // classification
+    private String prioridade; // classification
+}
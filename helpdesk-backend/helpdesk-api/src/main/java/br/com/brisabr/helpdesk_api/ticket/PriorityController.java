@@ -14,14 +14,19 @@ public class PriorityController {
     @Autowired
     private PriorityRepository priorityRepository;
 
+    @Autowired
+    private ReferenciaCache referenciaCache;
+
     @GetMapping
     public ResponseEntity<List<Priority>> getAll() {
-        return ResponseEntity.ok(priorityRepository.findAll());
+        return referenciaCache.responder(referenciaCache.getPrioridades());
     }
 
     @PostMapping
     @PreAuthorize("hasAuthority('admin') or hasAuthority('manager')")
     public ResponseEntity<Priority> create(@RequestBody Priority priority) {
-        return ResponseEntity.ok(priorityRepository.save(priority));
+        Priority salva = priorityRepository.save(priority);
+        referenciaCache.recarregarPrioridades();
+        return ResponseEntity.ok(salva);
     }
 }
\ No newline at end of file
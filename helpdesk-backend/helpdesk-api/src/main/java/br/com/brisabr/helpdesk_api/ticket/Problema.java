@@ -3,9 +3,13 @@ package br.com.brisabr.helpdesk_api.ticket;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "problemas")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "problemas")
 @Data
 @NoArgsConstructor
 public class Problema {
@@ -11,9 +11,10 @@ import java.util.Map;
 public class ProblemaController {
 
     @Autowired private ProblemaRepository problemaRepository;
+    @Autowired private ReferenciaCache referenciaCache;
 
     @GetMapping
-    public List<Problema> getAll() { return problemaRepository.findAll(); }
+    public ResponseEntity<List<Problema>> getAll() { return referenciaCache.responder(referenciaCache.getProblemas()); }
 
     @PostMapping
     public ResponseEntity<Problema> create(@RequestBody Map<String, String> payload) {
@@ -24,7 +25,9 @@ public class ProblemaController {
         Problema p = new Problema();
         p.setNome(nome);
         p.setPrioridadePadrao(prioridade);
-        return ResponseEntity.ok(problemaRepository.save(p));
+        Problema salvo = problemaRepository.save(p);
+        referenciaCache.recarregarProblemas();
+        return ResponseEntity.ok(salvo);
     }
 
     // EDITAR
@@ -33,7 +36,9 @@ public class ProblemaController {
         return problemaRepository.findById(id).map(p -> {
             p.setNome(updates.getNome());
             if (updates.getPrioridadePadrao() != null) p.setPrioridadePadrao(updates.getPrioridadePadrao());
-            return ResponseEntity.ok(problemaRepository.save(p));
+            Problema salvo = problemaRepository.save(p);
+            referenciaCache.recarregarProblemas();
+            return ResponseEntity.ok(salvo);
         }).orElse(ResponseEntity.notFound().build());
     }
 
@@ -42,6 +47,7 @@ public class ProblemaController {
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         if (problemaRepository.existsById(id)) {
             problemaRepository.deleteById(id);
+            referenciaCache.recarregarProblemas();
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
@@ -0,0 +1,202 @@
+package br.com.brisabr.helpdesk_api.ticket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+// Cache em memória dos dados de referência (categorias, problemas, equipes e prioridades).
+// Cada tabela é um snapshot imutável trocado por inteiro a cada escrita: as leituras não tomam lock
+// e nunca enxergam um estado pela metade. Os objetos são cópias desanexadas e não devem ser alterados.
+@Component
+public class ReferenciaCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenciaCache.class);
+
+    @Autowired private CategoriaRepository categoriaRepository;
+    @Autowired private ProblemaRepository problemaRepository;
+    @Autowired private EquipeRepository equipeRepository;
+    @Autowired private PriorityRepository priorityRepository;
+    @Autowired private ObjectMapper objectMapper;
+
+    @Value("${helpdesk.referencias.max-age-segundos:60}")
+    private long maxAgeSegundos;
+
+    private volatile Tabela<Categoria> categorias;
+    private volatile Tabela<Problema> problemas;
+    private volatile Tabela<Equipe> equipes;
+    private volatile Tabela<Priority> prioridades;
+
+    // Snapshot de uma tabela: lista ordenada para os GETs, índices para o TicketService e ETag do conteúdo
+    public record Tabela<T>(List<T> itens, Map<Long, T> porId, Map<String, T> porNome, String etag) {
+
+        static <T> Tabela<T> de(List<T> itens, Function<T, Long> id, Function<T, String> nome, ObjectMapper json) {
+            List<T> ordenados = itens.stream()
+                    .sorted(Comparator.comparing(id, Comparator.nullsLast(Comparator.naturalOrder())))
+                    .toList();
+            Map<Long, T> porId = new HashMap<>();
+            Map<String, T> porNome = new HashMap<>();
+            for (T item : ordenados) {
+                porId.put(id.apply(item), item);
+                if (nome.apply(item) != null) porNome.put(nome.apply(item), item);
+            }
+            // ETag derivada do JSON que vai na resposta (todos os campos, não só id e nome):
+            // igual em todas as instâncias e entre reinícios, e muda com qualquer campo que o cliente vê
+            CRC32 crc = new CRC32();
+            try {
+                crc.update(json.writeValueAsBytes(ordenados));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Falha ao serializar dados de referência", e);
+            }
+            String etag = "\"" + Long.toHexString(crc.getValue()) + "-" + ordenados.size() + "\"";
+            return new Tabela<>(ordenados, Map.copyOf(porId), Map.copyOf(porNome), etag);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        recarregarCategorias();
+        recarregarProblemas();
+        recarregarEquipes();
+        recarregarPrioridades();
+        log.info("Dados de referência em cache: {} categorias, {} problemas, {} equipes, {} prioridades",
+                categorias.itens().size(), problemas.itens().size(), equipes.itens().size(), prioridades.itens().size());
+    }
+
+    // Pega alterações feitas direto no banco ou por outra instância da API
+    @Scheduled(fixedDelayString = "${helpdesk.referencias.recarga-ms:300000}",
+               initialDelayString = "${helpdesk.referencias.recarga-ms:300000}")
+    public void recarregarPeriodicamente() {
+        recarregarCategorias();
+        recarregarProblemas();
+        recarregarEquipes();
+        recarregarPrioridades();
+    }
+
+    public synchronized void recarregarCategorias() {
+        categorias = Tabela.de(categoriaRepository.findAll().stream().map(ReferenciaCache::copiar).toList(),
+                Categoria::getId, Categoria::getNome, objectMapper);
+    }
+
+    public synchronized void recarregarProblemas() {
+        problemas = Tabela.de(problemaRepository.findAll().stream().map(ReferenciaCache::copiar).toList(),
+                Problema::getId, Problema::getNome, objectMapper);
+    }
+
+    public synchronized void recarregarEquipes() {
+        equipes = Tabela.de(equipeRepository.findAll().stream().map(ReferenciaCache::copiar).toList(),
+                Equipe::getId, Equipe::getNomeEquipe, objectMapper);
+    }
+
+    public synchronized void recarregarPrioridades() {
+        prioridades = Tabela.de(priorityRepository.findAll().stream().map(ReferenciaCache::copiar).toList(),
+                Priority::getId, Priority::getNome, objectMapper);
+    }
+
+    public Tabela<Categoria> getCategorias() {
+        if (categorias == null) recarregarCategorias();
+        return categorias;
+    }
+
+    public Tabela<Problema> getProblemas() {
+        if (problemas == null) recarregarProblemas();
+        return problemas;
+    }
+
+    public Tabela<Equipe> getEquipes() {
+        if (equipes == null) recarregarEquipes();
+        return equipes;
+    }
+
+    public Tabela<Priority> getPrioridades() {
+        if (prioridades == null) recarregarPrioridades();
+        return prioridades;
+    }
+
+    public Optional<Categoria> findCategoria(Long id) {
+        return buscar(id, () -> getCategorias().porId(), categoriaRepository::existsById, this::recarregarCategorias);
+    }
+
+    public Optional<Categoria> findCategoriaPorNome(String nome) {
+        return buscar(nome, () -> getCategorias().porNome(), n -> categoriaRepository.findByNome(n).isPresent(),
+                this::recarregarCategorias);
+    }
+
+    public Optional<Problema> findProblema(Long id) {
+        return buscar(id, () -> getProblemas().porId(), problemaRepository::existsById, this::recarregarProblemas);
+    }
+
+    public Optional<Equipe> findEquipe(Long id) {
+        return buscar(id, () -> getEquipes().porId(), equipeRepository::existsById, this::recarregarEquipes);
+    }
+
+    // Falta no snapshot pode ser um item criado em outra instância depois da última recarga: confere no banco
+    // e, se ele existir, recarrega a tabela antes de dar o item como ausente
+    private static <K, T> Optional<T> buscar(K chave, Supplier<Map<K, T>> indice, Predicate<K> existeNoBanco,
+                                             Runnable recarregar) {
+        if (chave == null) return Optional.empty();
+        T item = indice.get().get(chave);
+        if (item == null && existeNoBanco.test(chave)) {
+            recarregar.run();
+            item = indice.get().get(chave);
+        }
+        return Optional.ofNullable(item);
+    }
+
+    // GET com ETag: o Spring responde 304 sozinho quando o If-None-Match bate
+    public <T> ResponseEntity<List<T>> responder(Tabela<T> tabela) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(maxAgeSegundos, TimeUnit.SECONDS).cachePrivate().mustRevalidate())
+                .eTag(tabela.etag())
+                .body(tabela.itens());
+    }
+
+    // Cópias desanexadas: o Hibernate só precisa do id para gravar a FK no chamado
+    private static Categoria copiar(Categoria c) {
+        Categoria copia = new Categoria();
+        copia.setId(c.getId());
+        copia.setNome(c.getNome());
+        return copia;
+    }
+
+    private static Problema copiar(Problema p) {
+        Problema copia = new Problema();
+        copia.setId(p.getId());
+        copia.setNome(p.getNome());
+        copia.setPrioridadePadrao(p.getPrioridadePadrao());
+        return copia;
+    }
+
+    private static Equipe copiar(Equipe e) {
+        Equipe copia = new Equipe();
+        copia.setId(e.getId());
+        copia.setNomeEquipe(e.getNomeEquipe());
+        return copia;
+    }
+
+    private static Priority copiar(Priority p) {
+        Priority copia = new Priority();
+        copia.setId(p.getId());
+        copia.setNome(p.getNome());
+        return copia;
+    }
+}
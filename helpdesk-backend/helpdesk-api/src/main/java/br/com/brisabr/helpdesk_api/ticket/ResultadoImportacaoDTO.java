@@ -0,0 +1,36 @@
+package br.com.brisabr.helpdesk_api.ticket;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class ResultadoImportacaoDTO {
+    private static final int MAX_ERROS = 1000; // O restante só entra na contagem
+
+    private long registrosLidos;
+    private long importados;
+    private long comErro;
+    private long lotesGravados;
+    private long duracaoMs;
+    private double registrosPorSegundo;
+    private boolean interrompido; // Arquivo malformado: a leitura parou no registro com erro
+    private List<ErroDTO> erros = new ArrayList<>();
+
+    public void erro(long registro, String mensagem) {
+        comErro++;
+        if (erros.size() < MAX_ERROS) erros.add(new ErroDTO(registro, mensagem));
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ErroDTO {
+        private long registro; // 1 = primeiro registro de dados (após o cabeçalho, no CSV)
+        private String mensagem;
+    }
+}
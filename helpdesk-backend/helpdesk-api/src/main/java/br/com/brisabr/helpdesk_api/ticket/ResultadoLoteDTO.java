@@ -0,0 +1,35 @@
+package br.com.brisabr.helpdesk_api.ticket;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class ResultadoLoteDTO {
+    private int sucesso;
+    private int falhas;
+    private List<ItemDTO> itens = new ArrayList<>();
+
+    public void ok(Long id) {
+        itens.add(new ItemDTO(id, true, null));
+        sucesso++;
+    }
+
+    public void falha(Long id, String mensagem) {
+        itens.add(new ItemDTO(id, false, mensagem));
+        falhas++;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemDTO {
+        private Long id;
+        private boolean sucesso;
+        private String mensagem;
+    }
+}
@@ -11,16 +11,54 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "chamados") // CORREÇÃO: Nome da tabela alinhado com o banco
+@Table(name = "chamados", // CORREÇÃO: Nome da tabela alinhado com o banco
+       indexes = @Index(name = "idx_chamados_ultima_modificacao", columnList = "ultima_modificacao"))
+// Relacionamentos são LAZY; cada caso de uso pede o grafo que precisa (ver TicketRepository).
+// O que ficar de fora é carregado em lotes (hibernate.default_batch_fetch_size) ou vem do cache L2.
+@NamedEntityGraph(name = "Ticket.linha",
+        attributeNodes = {
+                @NamedAttributeNode("categoria"),
+                @NamedAttributeNode("problema"),
+                @NamedAttributeNode(value = "solicitante", subgraph = "usuario"),
+                @NamedAttributeNode(value = "tecnicoAtribuido", subgraph = "usuario")
+        },
+        subgraphs = @NamedSubgraph(name = "usuario", attributeNodes = @NamedAttributeNode("equipe")))
+@NamedEntityGraph(name = "Ticket.detalhe",
+        attributeNodes = {
+                @NamedAttributeNode("categoria"),
+                @NamedAttributeNode("problema"),
+                @NamedAttributeNode(value = "solicitante", subgraph = "usuario"),
+                @NamedAttributeNode(value = "tecnicoAtribuido", subgraph = "usuario"),
+                @NamedAttributeNode("anexos")
+        },
+        subgraphs = @NamedSubgraph(name = "usuario", attributeNodes = @NamedAttributeNode("equipe")))
+@NamedEntityGraph(name = "Ticket.dashboard",
+        attributeNodes = @NamedAttributeNode(value = "tecnicoAtribuido", subgraph = "usuario"),
+        subgraphs = @NamedSubgraph(name = "usuario", attributeNodes = @NamedAttributeNode("equipe")))
+@NamedEntityGraph(name = "Ticket.relatorio",
+        attributeNodes = {
+                @NamedAttributeNode("categoria"),
+                @NamedAttributeNode(value = "tecnicoAtribuido", subgraph = "usuario")
+        },
+        subgraphs = @NamedSubgraph(name = "usuario", attributeNodes = @NamedAttributeNode("equipe")))
 @Getter
 @Setter
 @NoArgsConstructor
 public class Ticket {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequência com pool de 50 ids (em vez de IDENTITY) para o Hibernate poder agrupar os inserts em batch.
+    // A sequência legada do SERIAL é ajustada no startup por db/sequencias-postgresql.sql.
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_seq")
+    @SequenceGenerator(name = "ticket_seq", sequenceName = "chamados_id_seq", allocationSize = 50)
     private Long id;
 
+    // Lock otimista: duas capturas simultâneas do mesmo chamado não se sobrescrevem (a segunda recebe 409).
+    // O default preenche as linhas já existentes quando o ddl-auto cria a coluna.
+    @Version
+    @Column(name = "versao", nullable = false, columnDefinition = "bigint default 0")
+    private Long versao;
+
     @Column(name = "numero_chamado", unique = true, nullable = false)
     private String numeroChamado;
 
@@ -30,19 +68,19 @@ public class Ticket {
     private String status; 
     private String prioridade; 
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_categoria")
     private Categoria categoria;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_problema")
     private Problema problema;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_solicitante")
     private User solicitante;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_tecnico_atribuido") // Nome da coluna alinhado
     private User tecnicoAtribuido;
 
@@ -52,12 +90,26 @@ public class Ticket {
     @Column(name = "data_fechamento")
     private LocalDateTime dataFechamento;
 
+    // Primeiro atendimento de um técnico (captura, atribuição ou comentário)
+    @Column(name = "data_primeira_resposta")
+    private LocalDateTime dataPrimeiraResposta;
+
     @Column(columnDefinition = "TEXT")
     private String solucao;
 
     @Column(name = "foi_reaberto")
     private boolean foiReaberto = false;
 
+    // Vencimento do SLA (abertura + janela da prioridade), gravado para a fila de trabalho
+    // ser lida em ordem pelo índice parcial idx_chamados_fila_sla (schema-postgresql.sql)
+    @Column(name = "prazo_sla")
+    private LocalDateTime prazoSla;
+
+    // Marca d'água da sincronização incremental (GET /api/tickets/changes). No banco vale a hora do início
+    // da transação, gravada por gatilho (schema-postgresql.sql); o valor da JVM só marca a entidade como alterada.
+    @Column(name = "ultima_modificacao")
+    private LocalDateTime ultimaModificacao;
+
     // Relacionamentos com listas
     @OneToMany(mappedBy = "ticket", cascade = CascadeType.ALL)
     private List<Anexo> anexos = new ArrayList<>();
@@ -65,6 +117,17 @@ public class Ticket {
     @OneToMany(mappedBy = "ticket", cascade = CascadeType.ALL)
     private List<Historico> historico = new ArrayList<>();
 
+    @PrePersist
+    @PreUpdate
+    public void antesDeGravar() {
+        marcarModificado();
+        this.prazoSla = calculateSlaDeadline(dataAbertura, prioridade);
+    }
+
+    public void marcarModificado() {
+        this.ultimaModificacao = LocalDateTime.now();
+    }
+
     public static LocalDateTime calculateSlaDeadline(LocalDateTime dataAbertura, String prioridade) {
         if (dataAbertura == null) return null;
         int hoursToAdd = 48;
@@ -78,4 +141,12 @@ public class Ticket {
         }
         return dataAbertura.plusHours(hoursToAdd);
     }
+
+    // Usa o prazo gravado; chamados anteriores à coluna prazo_sla caem no cálculo pela prioridade
+    public boolean isSlaViolado(LocalDateTime agora) {
+        LocalDateTime deadline = (prazoSla != null)
+                ? prazoSla
+                : calculateSlaDeadline(dataAbertura, prioridade != null ? prioridade : "Média");
+        return deadline != null && agora.isAfter(deadline);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,171 @@
+package br.com.brisabr.helpdesk_api.ticket;
+
+import br.com.brisabr.helpdesk_api.analytics.PercentilAtendimentoService;
+import br.com.brisabr.helpdesk_api.events.TicketDomainEvent;
+import br.com.brisabr.helpdesk_api.events.TicketEventRecorder;
+import br.com.brisabr.helpdesk_api.events.TicketEventType;
+import br.com.brisabr.helpdesk_api.user.User;
+import br.com.brisabr.helpdesk_api.user.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+// Fechamento, atribuição e reclassificação de muitos chamados numa única transação:
+// um SELECT ... FOR UPDATE, um UPDATE em conjunto (na reclassificação, um batch JDBC) e um insert em batch
+// JDBC na outbox (o histórico vai nos eventos), em vez de findById + save + insert por chamado. Os sketches de percentis também
+// são atualizados uma vez por chave, com as contribuições do lote somadas.
+@Service
+public class TicketBulkService {
+
+    private static final int MAX_IDS = 1000;
+    private static final Set<String> FECHADOS = Set.of("Resolvido", "Fechado", "Encerrado");
+
+    // O prazo do SLA muda por chamado (depende da abertura): vai em batch JDBC, calculado em Java
+    private static final String RECLASSIFICAR =
+            "UPDATE chamados SET id_categoria = ?, prioridade = ?, prazo_sla = ?, versao = versao + 1 WHERE id = ?";
+
+    @Autowired private TicketRepository ticketRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ReferenciaCache referenciaCache;
+    @Autowired private PercentilAtendimentoService percentilService;
+    @Autowired private TicketEventRecorder eventRecorder;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional
+    public ResultadoLoteDTO fecharEmLote(List<Long> ids, String solucao, User autor) {
+        ResultadoLoteDTO resultado = new ResultadoLoteDTO();
+        List<Ticket> elegiveis = validar(ids, resultado,
+                t -> FECHADOS.contains(t.getStatus()) ? "Chamado já está fechado" : null);
+        if (elegiveis.isEmpty()) return resultado;
+
+        LocalDateTime agora = LocalDateTime.now();
+        ticketRepository.fecharEmLote(idsDe(elegiveis), solucao, agora);
+
+        List<TicketDomainEvent> eventos = new ArrayList<>();
+        for (Ticket t : elegiveis) {
+            String statusAnterior = t.getStatus();
+            t.setStatus("Fechado");
+            t.setSolucao(solucao);
+            t.setDataFechamento(agora);
+            eventos.add(eventRecorder.novoEvento(TicketEventType.FECHADO, t, statusAnterior, t.getTecnicoAtribuido(), autor,
+                    "Fechado", "Solução: " + solucao));
+        }
+        percentilService.registrarFechamentos(elegiveis);
+        eventRecorder.registrarEmLote(eventos);
+        return resultado;
+    }
+
+    @Transactional
+    public ResultadoLoteDTO atribuirEmLote(List<Long> ids, Long tecnicoId, User autor) {
+        if (tecnicoId == null) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Informe o técnico");
+        User tecnico = userRepository.findById(tecnicoId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Técnico não encontrado"));
+
+        ResultadoLoteDTO resultado = new ResultadoLoteDTO();
+        List<Ticket> elegiveis = validar(ids, resultado,
+                t -> FECHADOS.contains(t.getStatus()) ? "Chamado fechado não pode ser atribuído" : null);
+        if (elegiveis.isEmpty()) return resultado;
+
+        LocalDateTime agora = LocalDateTime.now();
+        ticketRepository.atribuirEmLote(idsDe(elegiveis), tecnico, agora);
+
+        List<TicketDomainEvent> eventos = new ArrayList<>();
+        for (Ticket t : elegiveis) {
+            String statusAnterior = t.getStatus();
+            User tecnicoAnterior = t.getTecnicoAtribuido();
+            t.setTecnicoAtribuido(tecnico);
+            t.setStatus("Em Andamento");
+            eventos.add(eventRecorder.novoEvento(TicketEventType.ATRIBUIDO, t, statusAnterior, tecnicoAnterior, autor,
+                    "Atribuído para: " + tecnico.getNome(), null));
+        }
+        eventRecorder.registrarEmLote(eventos);
+        return resultado;
+    }
+
+    @Transactional
+    public ResultadoLoteDTO reclassificarEmLote(List<Long> ids, String categoriaNome, String prioridade, User autor) {
+        Categoria categoria = null;
+        if (categoriaNome != null && !categoriaNome.isEmpty()) {
+            categoria = referenciaCache.findCategoriaPorNome(categoriaNome)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Categoria não encontrada"));
+        }
+        if (categoria == null && prioridade == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Informe a categoria e/ou a prioridade");
+        }
+
+        ResultadoLoteDTO resultado = new ResultadoLoteDTO();
+        List<Ticket> elegiveis = validar(ids, resultado, t -> null);
+        if (elegiveis.isEmpty()) return resultado;
+
+        List<TicketDomainEvent> eventos = new ArrayList<>();
+        for (Ticket t : elegiveis) {
+            if (categoria != null) t.setCategoria(categoria);
+            if (prioridade != null) t.setPrioridade(prioridade);
+            // Mesma regra das gravações pela entidade (Ticket.antesDeGravar)
+            t.setPrazoSla(Ticket.calculateSlaDeadline(t.getDataAbertura(), t.getPrioridade()));
+            eventos.add(eventRecorder.novoEvento(TicketEventType.RECLASSIFICADO, t, t.getStatus(), t.getTecnicoAtribuido(), autor,
+                    "Classificação: " + t.getPrioridade(), null));
+        }
+        // As linhas estão travadas desde o validar: gravar os valores da entidade equivale a só trocar o que veio
+        jdbcTemplate.batchUpdate(RECLASSIFICAR, elegiveis, elegiveis.size(), (ps, t) -> {
+            ps.setObject(1, t.getCategoria() != null ? t.getCategoria().getId() : null);
+            ps.setString(2, t.getPrioridade());
+            ps.setObject(3, t.getPrazoSla());
+            ps.setLong(4, t.getId());
+        });
+        eventRecorder.registrarEmLote(eventos);
+        return resultado;
+    }
+
+    // Trava e carrega os chamados; os que não passam na regra entram no resultado como falha
+    private List<Ticket> validar(List<Long> ids, ResultadoLoteDTO resultado, Function<Ticket, String> motivoRecusa) {
+        if (ids == null || ids.isEmpty()) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Informe ao menos um chamado");
+        List<Long> distintos = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distintos.size() > MAX_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Máximo de " + MAX_IDS + " chamados por operação");
+        }
+
+        ticketRepository.bloquearParaAtualizacao(distintos);
+        Map<Long, Ticket> porId = new HashMap<>();
+        for (Ticket t : ticketRepository.findAllParaLote(distintos)) {
+            // Desanexado: o estado novo é aplicado em memória só para montar eventos e resposta,
+            // quem grava é o UPDATE em conjunto
+            entityManager.detach(t);
+            porId.put(t.getId(), t);
+        }
+
+        List<Ticket> elegiveis = new ArrayList<>();
+        for (Long id : distintos) {
+            Ticket t = porId.get(id);
+            String motivo = (t == null) ? "Chamado não encontrado" : motivoRecusa.apply(t);
+            if (motivo != null) {
+                resultado.falha(id, motivo);
+            } else {
+                elegiveis.add(t);
+                resultado.ok(id);
+            }
+        }
+        return elegiveis;
+    }
+
+    private static List<Long> idsDe(List<Ticket> tickets) {
+        return tickets.stream().map(Ticket::getId).toList();
+    }
+}
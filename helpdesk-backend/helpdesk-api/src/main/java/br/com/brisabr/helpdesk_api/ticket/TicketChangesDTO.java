@@ -0,0 +1,18 @@
+package br.com.brisabr.helpdesk_api.ticket;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class TicketChangesDTO {
+    private List<TicketResponseDTO> alterados = new ArrayList<>();
+    private List<Long> removidos = new ArrayList<>();
+    private LocalDateTime watermark; // Enviar de volta como ?since= na próxima sincronização
+    // true quando 'alterados' é a lista inteira (sem ?since= ou marca d'água além da retenção da outbox):
+    // o cliente substitui o que tem em vez de aplicar por cima
+    private boolean cargaCompleta;
+}
@@ -1,15 +1,18 @@
 package br.com.brisabr.helpdesk_api.ticket;
 
 import br.com.brisabr.helpdesk_api.user.User;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -20,6 +23,12 @@ public class TicketController {
     @Autowired
     private TicketService ticketService;
 
+    @Autowired
+    private TicketBulkService ticketBulkService;
+
+    @Autowired
+    private ImportacaoTicketService importacaoTicketService;
+
     // Rota Principal (Admin, Gestor, Técnico)
     @GetMapping
     public List<TicketResponseDTO> getAllTickets(
@@ -58,19 +67,47 @@ public class TicketController {
         );
     }
 
+    // Sincronização incremental: somente chamados alterados desde a marca d'água (+ ids removidos da visão)
+    @GetMapping("/changes")
+    public TicketChangesDTO getTicketChanges(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @AuthenticationPrincipal User user
+    ) {
+        return ticketService.getTicketChanges(since, user);
+    }
+
+    // Fila de trabalho ordenada pelo vencimento do SLA, com o tempo restante em faixas
+    @GetMapping("/work-queue")
+    public FilaTrabalhoDTO getWorkQueue(
+            @RequestParam(defaultValue = "100") int limit,
+            @AuthenticationPrincipal User user
+    ) {
+        return ticketService.getWorkQueue(user, Math.max(1, Math.min(limit, 500)));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<TicketResponseDTO> getTicketById(@PathVariable Long id) {
         return ResponseEntity.ok(ticketService.findTicketById(id));
     }
 
     @PostMapping
-    public ResponseEntity<Ticket> createTicket(
+    public ResponseEntity<TicketResponseDTO> createTicket(
             @RequestPart("ticket") TicketCreateDTO dto,
             @RequestPart(value = "anexos", required = false) List<MultipartFile> files,
             @AuthenticationPrincipal User user
     ) throws IOException {
         Ticket created = ticketService.createTicket(dto, user, files);
-        return ResponseEntity.ok(created);
+        return ResponseEntity.ok(ticketService.findTicketById(created.getId()));
+    }
+
+    // Linha do tempo paginada: ?cursor= vem de cursorHistorico (detalhe) ou proximoCursor (página anterior)
+    @GetMapping("/{id}/historico")
+    public ResponseEntity<HistoricoPaginaDTO> getHistorico(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        return ResponseEntity.ok(ticketService.getHistorico(id, cursor, Math.max(1, Math.min(limit, 200))));
     }
 
     @PutMapping("/{id}/classification")
@@ -102,6 +139,15 @@ public class TicketController {
         return ResponseEntity.ok(ticketService.addComment(id, data, user));
     }
 
+    // Captura o chamado mais urgente da fila da equipe; 204 quando a fila está vazia, 409 se o usuário não tem equipe
+    @PostMapping("/claim-next")
+    @PreAuthorize("hasAnyRole('TECHNICIAN', 'TECNICO', 'ADMIN')")
+    public ResponseEntity<TicketResponseDTO> claimNext(@AuthenticationPrincipal User user) {
+        return ticketService.claimNextTicket(user)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
     @PostMapping("/{id}/assign-self")
     public ResponseEntity<TicketResponseDTO> assignToSelf(
             @PathVariable Long id,
@@ -136,4 +182,46 @@ public class TicketController {
     ) {
         return ResponseEntity.ok(ticketService.reopenTicket(id, data, user));
     }
-}
\ No newline at end of file
+
+    // --- OPERAÇÕES EM LOTE (ex.: fechar duplicados de uma queda) ---
+    @PostMapping("/bulk/close")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'GESTOR')")
+    public ResponseEntity<ResultadoLoteDTO> bulkClose(
+            @RequestBody OperacaoEmLoteDTO data,
+            @AuthenticationPrincipal User user
+    ) {
+        return ResponseEntity.ok(ticketBulkService.fecharEmLote(data.getIds(), data.getSolucao(), user));
+    }
+
+    @PostMapping("/bulk/assign")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'GESTOR')")
+    public ResponseEntity<ResultadoLoteDTO> bulkAssign(
+            @RequestBody OperacaoEmLoteDTO data,
+            @AuthenticationPrincipal User user
+    ) {
+        return ResponseEntity.ok(ticketBulkService.atribuirEmLote(data.getIds(), data.getTecnicoId(), user));
+    }
+
+    @PutMapping("/bulk/classification")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'GESTOR')")
+    public ResponseEntity<ResultadoLoteDTO> bulkClassification(
+            @RequestBody OperacaoEmLoteDTO data,
+            @AuthenticationPrincipal User user
+    ) {
+        return ResponseEntity.ok(ticketBulkService.reclassificarEmLote(
+                data.getIds(), data.getCategoria(), data.getPrioridade(), user));
+    }
+
+    // --- IMPORTAÇÃO EM MASSA (CSV com cabeçalho ou NDJSON, lido em streaming) ---
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'GESTOR')")
+    public ResponseEntity<ResultadoImportacaoDTO> importTickets(
+            HttpServletRequest request,
+            @RequestParam(required = false) Integer lote,
+            @RequestParam(defaultValue = ",") char separador,
+            @AuthenticationPrincipal User user
+    ) throws IOException {
+        boolean ndjson = request.getContentType().startsWith("application/x-ndjson");
+        return ResponseEntity.ok(importacaoTicketService.importar(request.getInputStream(), ndjson, separador, lote, user));
+    }
+}
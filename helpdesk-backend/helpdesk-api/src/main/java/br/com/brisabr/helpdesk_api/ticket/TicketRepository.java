@@ -1,29 +1,127 @@
 package br.com.brisabr.helpdesk_api.ticket;
 
 import br.com.brisabr.helpdesk_api.user.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TicketRepository extends JpaRepository<Ticket, Long>, JpaSpecificationExecutor<Ticket> {
 
     // --- Buscas Padrão ---
+    // Grafos de Ticket.java: linha (listagens), detalhe, dashboard e relatorio
+    @Override
+    @EntityGraph("Ticket.linha")
+    List<Ticket> findAll(Specification<Ticket> spec, Sort sort);
+
+    @EntityGraph("Ticket.linha")
     List<Ticket> findBySolicitanteLoginIgnoreCase(String login);
+
+    @EntityGraph("Ticket.detalhe")
+    @Query("SELECT t FROM Ticket t WHERE t.id = :id")
+    Optional<Ticket> findDetalheById(@Param("id") Long id);
+
     List<Ticket> findBySolicitanteLogin(String login);
     List<Ticket> findBySolicitanteId(Long solicitanteId);
     List<Ticket> findBySolicitante(User solicitante);
     Optional<Ticket> findTopByNumeroChamadoStartingWithOrderByIdDesc(String prefixo);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Ticket t WHERE t.id = :id")
+    Optional<Ticket> findByIdParaAtualizacao(@Param("id") Long id);
+
+    // Próximo da fila pelo vencimento do SLA. SKIP LOCKED: cada técnico que chama ao mesmo tempo
+    // recebe um chamado diferente, sem esperar nem repetir.
+    @Query(value = "SELECT t.* FROM chamados t JOIN usuarios s ON s.id = t.id_solicitante " +
+                   "WHERE t.status = 'Aberto' AND t.id_tecnico_atribuido IS NULL " +
+                   "AND s.id_equipe = :equipeId " +
+                   "ORDER BY t.prazo_sla, t.id " +
+                   "LIMIT 1 FOR UPDATE OF t SKIP LOCKED", nativeQuery = true)
+    Optional<Ticket> findProximoDaFilaParaCaptura(@Param("equipeId") Long equipeId);
+
+    // --- OPERAÇÕES EM LOTE ---
+    // Trava as linhas em ordem de id (dois lotes sobrepostos não entram em deadlock)
+    @Query(value = "SELECT id FROM chamados WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> bloquearParaAtualizacao(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT t FROM Ticket t " +
+           "LEFT JOIN FETCH t.categoria LEFT JOIN FETCH t.problema " +
+           "LEFT JOIN FETCH t.solicitante s LEFT JOIN FETCH s.equipe " +
+           "LEFT JOIN FETCH t.tecnicoAtribuido u LEFT JOIN FETCH u.equipe " +
+           "WHERE t.id IN :ids")
+    List<Ticket> findAllParaLote(@Param("ids") Collection<Long> ids);
+
+    // UPDATEs em conjunto não passam pelos callbacks da entidade: a versão vai explícita
+    // (a marca d'água ultima_modificacao é gravada pelo gatilho do banco, ver schema-postgresql.sql)
+    @Modifying
+    @Query("UPDATE Ticket t SET t.status = 'Fechado', t.solucao = :solucao, t.dataFechamento = :agora, " +
+           "t.versao = t.versao + 1 WHERE t.id IN :ids")
+    int fecharEmLote(@Param("ids") Collection<Long> ids, @Param("solucao") String solucao,
+                     @Param("agora") LocalDateTime agora);
+
+    @Modifying
+    @Query("UPDATE Ticket t SET t.tecnicoAtribuido = :tecnico, t.status = 'Em Andamento', " +
+           "t.dataPrimeiraResposta = COALESCE(t.dataPrimeiraResposta, :agora), " +
+           "t.versao = t.versao + 1 WHERE t.id IN :ids")
+    int atribuirEmLote(@Param("ids") Collection<Long> ids, @Param("tecnico") User tecnico,
+                       @Param("agora") LocalDateTime agora);
+
+    // Maior sequencial numérico já usado no ano ("2025-%"), ignorando números fora do padrão
+    @Query(value = "SELECT MAX(CAST(split_part(numero_chamado, '-', 2) AS INTEGER)) FROM chamados " +
+                   "WHERE numero_chamado LIKE :prefixo AND split_part(numero_chamado, '-', 2) ~ '^[0-9]{1,9}$'",
+           nativeQuery = true)
+    Integer findMaiorSequencialDoAno(@Param("prefixo") String prefixo);
+
+    // Marca d'água do /changes: o início da transação aberta mais antiga do banco (ou o agora, sem nenhuma).
+    // Toda gravação ainda sem commit tem ultima_modificacao >= o início da própria transação, então fica acima dela.
+    // Enxerga as sessões do mesmo usuário do banco, que é o de todas as instâncias da API.
+    @Query(value = "SELECT CAST(LEAST(clock_timestamp(), MIN(xact_start)) AS TIMESTAMP) FROM pg_stat_activity " +
+                   "WHERE datname = current_database() AND xact_start IS NOT NULL", nativeQuery = true)
+    LocalDateTime findWatermark();
+
+    @Query("SELECT t.id FROM Ticket t WHERE t.ultimaModificacao >= :desde")
+    List<Long> findIdsModificadosDesde(@Param("desde") LocalDateTime desde);
+
     @Query("SELECT t FROM Ticket t WHERE t.solicitante.equipe.id = :equipeId")
     List<Ticket> findByEquipeDoSolicitante(@Param("equipeId") Long equipeId);
 
+    // --- ROTEAMENTO AUTOMÁTICO ---
+    @Query("SELECT t.tecnicoAtribuido.id, COUNT(t) FROM Ticket t " +
+           "WHERE t.status = 'Em Andamento' AND t.tecnicoAtribuido IS NOT NULL GROUP BY t.tecnicoAtribuido.id")
+    List<Object[]> contarEmAndamentoPorTecnico();
+
+    @Query("SELECT t.tecnicoAtribuido.id, t.categoria.id, COUNT(t) FROM Ticket t " +
+           "WHERE t.dataFechamento >= :desde AND t.tecnicoAtribuido IS NOT NULL AND t.categoria IS NOT NULL " +
+           "GROUP BY t.tecnicoAtribuido.id, t.categoria.id")
+    List<Object[]> contarFechadosPorTecnicoECategoria(@Param("desde") LocalDateTime desde);
+
+    @Query("SELECT t.id, c.id, t.prazoSla FROM Ticket t LEFT JOIN t.categoria c " +
+           "WHERE t.status = 'Aberto' AND t.tecnicoAtribuido IS NULL AND t.solicitante.equipe.id = :equipeId " +
+           "ORDER BY t.prazoSla, t.id")
+    List<Object[]> findFilaSemTecnicoPorEquipe(@Param("equipeId") Long equipeId);
+
     // --- CARDS DO DASHBOARD (Mantidos) ---
+    @EntityGraph("Ticket.dashboard")
+    @Query("SELECT t FROM Ticket t")
+    List<Ticket> findAllParaDashboard();
+
     long countByStatusNot(String status);
 
     @Query("SELECT COUNT(t) FROM Ticket t WHERE t.solicitante.equipe.id = :equipeId AND t.status <> :status")
@@ -70,4 +168,15 @@ public interface TicketRepository extends JpaRepository<Ticket, Long>, JpaSpecif
                    "AND (:equipeId IS NULL OR :equipeId = -1 OR u.id_equipe = CAST(:equipeId AS BIGINT)) " +
                    "GROUP BY CAST(EXTRACT(MONTH FROM t.data_abertura) AS INTEGER)", nativeQuery = true)
     List<Object[]> getChamadosPorMes(@Param("ano") Integer ano, @Param("equipeId") Long equipeId);
+
+    @EntityGraph("Ticket.relatorio")
+    @Query("SELECT t FROM Ticket t")
+    List<Ticket> findAllParaRelatorio();
+
+    // 4. Tempos de atendimento dos chamados fechados (reconstrução dos sketches de percentis)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.id, e.id, t.dataAbertura, t.dataFechamento, t.dataPrimeiraResposta, t.id " +
+           "FROM Ticket t LEFT JOIN t.categoria c LEFT JOIN t.tecnicoAtribuido u LEFT JOIN u.equipe e " +
+           "WHERE t.dataFechamento IS NOT NULL")
+    Stream<Object[]> streamTemposFechamento();
 }
\ No newline at end of file
@@ -28,7 +28,11 @@ public class TicketResponseDTO {
     private boolean foiReaberto;
     
     private List<AnexoDTO> anexos = new ArrayList<>();
+
+    // Só no detalhe: as últimas entradas em ordem cronológica; o restante vem de GET /api/tickets/{id}/historico
     private List<HistoricoDTO> historico = new ArrayList<>();
+    private long totalHistorico;
+    private String cursorHistorico; // null quando 'historico' já traz tudo
 
     public TicketResponseDTO(Ticket t) {
         this.id = t.getId();
@@ -77,10 +81,19 @@ public class TicketResponseDTO {
         if (t.getAnexos() != null) {
             this.anexos = t.getAnexos().stream().map(AnexoDTO::new).collect(Collectors.toList());
         }
-        
-        if (t.getHistorico() != null) {
-            this.historico = t.getHistorico().stream().map(HistoricoDTO::new).collect(Collectors.toList());
-        }
+    }
+
+    public TicketResponseDTO(Ticket t, List<Historico> recentes, long totalHistorico, String cursorHistorico) {
+        this(t);
+        this.historico = recentes.stream().map(HistoricoDTO::new).collect(Collectors.toList());
+        this.totalHistorico = totalHistorico;
+        this.cursorHistorico = cursorHistorico;
+    }
+
+    // Entrada que ainda não foi gravada (vem no evento da transição); o fim da lista é o mais recente
+    public void adicionarHistoricoPendente(String acao, String nomeUsuario, LocalDateTime dataHora, String comentario) {
+        this.historico.add(new HistoricoDTO(null, acao, nomeUsuario != null ? nomeUsuario : "Sistema", dataHora, comentario));
+        this.totalHistorico++;
     }
 
     @Data
@@ -105,15 +118,24 @@ public class TicketResponseDTO {
 
     @Data
     public static class HistoricoDTO {
+        private Long id;
         private String acao;
         private String nomeUsuario;
         private LocalDateTime dataHora;
         private String comentario;
         public HistoricoDTO(Historico h) {
+            this.id = h.getId();
             this.acao = h.getAcao();
             this.nomeUsuario = h.getUsuario() != null ? h.getUsuario().getNome() : "Sistema";
             this.dataHora = h.getDataHora();
             this.comentario = h.getComentario();
         }
+        public HistoricoDTO(Long id, String acao, String nomeUsuario, LocalDateTime dataHora, String comentario) {
+            this.id = id;
+            this.acao = acao;
+            this.nomeUsuario = nomeUsuario;
+            this.dataHora = dataHora;
+            this.comentario = comentario;
+        }
     }
 }
\ No newline at end of file
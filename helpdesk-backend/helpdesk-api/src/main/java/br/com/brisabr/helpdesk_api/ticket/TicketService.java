@@ -1,22 +1,34 @@
 package br.com.brisabr.helpdesk_api.ticket;
 
+import br.com.brisabr.helpdesk_api.analytics.PercentilAtendimentoService;
 import br.com.brisabr.helpdesk_api.dto.DashboardStatsDTO;
+import br.com.brisabr.helpdesk_api.events.TicketDomainEvent;
+import br.com.brisabr.helpdesk_api.events.TicketEventRecorder;
+import br.com.brisabr.helpdesk_api.events.TicketEventType;
 import br.com.brisabr.helpdesk_api.user.User;
 import br.com.brisabr.helpdesk_api.user.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,10 +36,18 @@ public class TicketService {
 
     @Autowired private TicketRepository ticketRepository;
     @Autowired private UserRepository userRepository;
-    @Autowired private CategoriaRepository categoriaRepository;
-    @Autowired private ProblemaRepository problemaRepository;
+    @Autowired private ReferenciaCache referenciaCache;
     @Autowired private AnexoRepository anexoRepository;
     @Autowired private HistoricoRepository historicoRepository;
+    @Autowired private PercentilAtendimentoService percentilService;
+    @Autowired private TicketEventRecorder eventRecorder;
+    @Autowired private NumeroChamadoGenerator numeroChamadoGenerator;
+
+    @Value("${helpdesk.historico.itens-detalhe:20}")
+    private int itensHistoricoDetalhe;
+
+    @Value("${helpdesk.outbox.retencao-horas:24}")
+    private long retencaoOutboxHoras;
 
     @Transactional(readOnly = true)
     public List<TicketResponseDTO> getAllTickets(java.time.LocalDate dataInicial, java.time.LocalDate dataFinal, String tipoData,
@@ -44,6 +64,65 @@ public class TicketService {
                 .map(TicketResponseDTO::new).collect(Collectors.toList());
     }
 
+    // Fila de trabalho: mais próximo de vencer primeiro, com as mesmas regras de visibilidade da listagem
+    @Transactional(readOnly = true)
+    public FilaTrabalhoDTO getWorkQueue(User user, int limite) {
+        User userAtualizado = userRepository.findById(user.getId()).orElse(user);
+        Specification<Ticket> spec = TicketSpecification.withFilters(
+                null, null, null, null, null, null, null, null, null, null, null, userAtualizado)
+                .and(TicketSpecification.naFilaDeTrabalho());
+        // Mesmos atributos do grafo Ticket.linha (a consulta fluente não aceita grafo nomeado)
+        List<Ticket> tickets = ticketRepository.findBy(spec, q -> q
+                .sortBy(Sort.by(Sort.Order.asc("prazoSla"), Sort.Order.asc("id")))
+                .limit(limite)
+                .project("categoria", "problema", "solicitante.equipe", "tecnicoAtribuido.equipe")
+                .all());
+        return new FilaTrabalhoDTO(tickets, LocalDateTime.now());
+    }
+
+    // A marca d'água é lida antes dos chamados: o que ainda não tinha commit nesse momento fica acima dela
+    // e volta na próxima sincronização (um chamado pode vir duas vezes, nunca nenhuma)
+    @Transactional(readOnly = true)
+    public TicketChangesDTO getTicketChanges(LocalDateTime desde, User user) {
+        LocalDateTime watermark = ticketRepository.findWatermark();
+        User userAtualizado = userRepository.findById(user.getId()).orElse(user);
+        Specification<Ticket> spec = TicketSpecification.withFilters(
+                null, null, null, null, null, null, null, null, null, null, null, userAtualizado);
+
+        TicketChangesDTO changes = new TicketChangesDTO();
+        changes.setWatermark(watermark);
+        if (desde == null || desde.isBefore(LocalDateTime.now().minusHours(retencaoOutboxHoras))) {
+            // Sem marca d'água (ou velha demais para os tombstones): carga completa, igual a GET /api/tickets
+            changes.setAlterados(ticketRepository.findAll(spec, Sort.by(Sort.Direction.DESC, "id")).stream()
+                    .map(TicketResponseDTO::new).collect(Collectors.toList()));
+            changes.setCargaCompleta(true);
+            return changes;
+        }
+
+        List<Ticket> visiveis = ticketRepository.findAll(spec.and(TicketSpecification.modificadoDesde(desde)),
+                Sort.by(Sort.Direction.DESC, "id"));
+        changes.setAlterados(visiveis.stream().map(TicketResponseDTO::new).collect(Collectors.toList()));
+        changes.setRemovidos(removidosDaVisao(desde, visiveis, userAtualizado));
+        return changes;
+    }
+
+    // Tombstones: só chamados que o usuário via em 'desde' e deixaram de ver, para não vazar ids que ele nunca viu.
+    // O estado naquele instante é o "anterior" do primeiro evento do chamado depois dele (mesma regra do
+    // ticket-removed do SSE). Sem evento no período a visibilidade não mudou; criado depois de 'desde', nunca foi vista.
+    private List<Long> removidosDaVisao(LocalDateTime desde, List<Ticket> visiveis, User user) {
+        Set<Long> idsVisiveis = visiveis.stream().map(Ticket::getId).collect(Collectors.toSet());
+        List<Long> candidatos = ticketRepository.findIdsModificadosDesde(desde).stream()
+                .filter(id -> !idsVisiveis.contains(id)).collect(Collectors.toList());
+        if (candidatos.isEmpty()) return new ArrayList<>();
+
+        return eventRecorder.primeirosEventosDesde(candidatos, desde).stream()
+                .filter(e -> e.getStatusAnterior() != null && TicketSpecification.isVisivel(user, e.getSolicitanteLogin(),
+                        e.getEquipeSolicitanteId(), e.getTecnicoLoginAnterior(), e.getStatusAnterior()))
+                .map(TicketDomainEvent::getTicketId)
+                .sorted(Comparator.reverseOrder())
+                .collect(Collectors.toList());
+    }
+
     @Transactional(readOnly = true)
     public List<TicketResponseDTO> getTicketsByLoggedUser(User user) {
         User userAtualizado = userRepository.findById(user.getId()).orElse(user);
@@ -54,7 +133,80 @@ public class TicketService {
 
     @Transactional(readOnly = true)
     public TicketResponseDTO findTicketById(Long id) {
-        return new TicketResponseDTO(ticketRepository.findById(id).orElseThrow());
+        return detalhar(ticketRepository.findDetalheById(id).orElseThrow());
+    }
+
+    // Detalhe para o SSE: o histórico é gravado em outra instância (ou fase) e pode ainda não estar no banco
+    // quando o evento chega aqui; enquanto não estiver, a entrada do evento vai como pendente
+    @Transactional(readOnly = true)
+    public TicketResponseDTO findTicketById(Long id, TicketDomainEvent evento) {
+        Ticket t = ticketRepository.findDetalheById(id).orElseThrow();
+        boolean gravado = evento.getHistoricoAcao() == null
+                || (evento.getOutboxId() != null && historicoRepository.existsByEventoId(evento.getOutboxId()));
+        return gravado ? detalhar(t) : detalhar(t, evento);
+    }
+
+    // Detalhe devolvido pela própria transição: a entrada de histórico dela só é gravada depois do commit
+    // (HistoricoSubscriber), então entra no fim da lista com os dados que já estão no evento
+    private TicketResponseDTO detalhar(Ticket t, TicketDomainEvent evento) {
+        TicketResponseDTO dto = detalhar(t);
+        if (evento.getHistoricoAcao() != null) {
+            dto.adicionarHistoricoPendente(evento.getHistoricoAcao(), evento.getAutorNome(), evento.getDataOcorrencia(),
+                    evento.getHistoricoComentario());
+        }
+        return dto;
+    }
+
+    // Detalhe leva só as últimas entradas do histórico, em ordem cronológica, e o cursor para as anteriores
+    private TicketResponseDTO detalhar(Ticket t) {
+        List<Historico> recentes = new ArrayList<>(
+                historicoRepository.findRecentes(t.getId(), PageRequest.of(0, itensHistoricoDetalhe)));
+        long total = historicoRepository.countByTicketId(t.getId());
+        String cursor = (total > recentes.size() && !recentes.isEmpty())
+                ? codificarCursor(recentes.get(recentes.size() - 1)) : null;
+        Collections.reverse(recentes);
+        return new TicketResponseDTO(t, recentes, total, cursor);
+    }
+
+    // Linha do tempo paginada por cursor (data_ocorrencia, id), do mais recente para o mais antigo
+    @Transactional(readOnly = true)
+    public HistoricoPaginaDTO getHistorico(Long ticketId, String cursor, int limite) {
+        if (!ticketRepository.existsById(ticketId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Chamado não encontrado");
+        }
+        // Um a mais para saber se existe próxima página
+        PageRequest pagina = PageRequest.of(0, limite + 1);
+        List<Historico> itens;
+        if (cursor == null || cursor.isBlank()) {
+            itens = historicoRepository.findRecentes(ticketId, pagina);
+        } else {
+            String[] partes = decodificarCursor(cursor);
+            itens = historicoRepository.findAnteriores(ticketId, LocalDateTime.parse(partes[0]), Long.valueOf(partes[1]), pagina);
+        }
+
+        HistoricoPaginaDTO dto = new HistoricoPaginaDTO();
+        boolean haMais = itens.size() > limite;
+        if (haMais) itens = itens.subList(0, limite);
+        dto.setItens(itens.stream().map(TicketResponseDTO.HistoricoDTO::new).collect(Collectors.toList()));
+        dto.setProximoCursor(haMais ? codificarCursor(itens.get(itens.size() - 1)) : null);
+        dto.setTotal(historicoRepository.countByTicketId(ticketId));
+        return dto;
+    }
+
+    private static String codificarCursor(Historico h) {
+        String valor = h.getDataHora() + "|" + h.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodificarCursor(String cursor) {
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            LocalDateTime.parse(partes[0]);
+            Long.valueOf(partes[1]);
+            return partes;
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido");
+        }
     }
 
     @Transactional(readOnly = true)
@@ -64,7 +216,7 @@ public class TicketService {
 
         if (equipeId != null && equipeId > 0) {
              // CORREÇÃO: Filtragem por equipe deve considerar o TÉCNICO, não o Solicitante.
-             List<Ticket> all = ticketRepository.findAll();
+             List<Ticket> all = ticketRepository.findAllParaDashboard();
              ticketsRelevantes = all.stream().filter(t -> {
                  // Verifica se o chamado tem técnico e se o técnico pertence à equipe filtrada
                  return t.getTecnicoAtribuido() != null 
@@ -72,7 +224,7 @@ public class TicketService {
                         && t.getTecnicoAtribuido().getEquipe().getId().equals(equipeId);
              }).collect(Collectors.toList());
         } else {
-            ticketsRelevantes = ticketRepository.findAll();
+            ticketsRelevantes = ticketRepository.findAllParaDashboard();
         }
 
         stats.setAbertos(ticketsRelevantes.stream().filter(t -> "Aberto".equalsIgnoreCase(t.getStatus())).count());
@@ -82,9 +234,10 @@ public class TicketService {
                 .filter(t -> !List.of("Resolvido", "Fechado", "Encerrado").contains(t.getStatus()))
                 .count());
 
+        LocalDateTime agora = LocalDateTime.now();
         List<Ticket> ticketsSlaViolado = ticketsRelevantes.stream()
             .filter(t -> !"Fechado".equals(t.getStatus()) && !"Resolvido".equals(t.getStatus()) && !"Encerrado".equals(t.getStatus()))
-            .filter(this::isSlaViolado)
+            .filter(t -> t.isSlaViolado(agora))
             .collect(Collectors.toList());
         stats.setSlaViolado(ticketsSlaViolado.size());
         
@@ -109,22 +262,8 @@ public class TicketService {
         return getDashboardStats(null);
     }
 
-    private boolean isSlaViolado(Ticket t) {
-        if (t.getDataAbertura() == null) return false;
-        int horasLimite = 48;
-        String p = t.getPrioridade() != null ? t.getPrioridade() : "Média";
-        switch (p) {
-            case "Crítica": horasLimite = 2; break;
-            case "Elevada": horasLimite = 8; break;
-            case "Média": horasLimite = 24; break;
-            default: horasLimite = 48;
-        }
-        LocalDateTime deadline = t.getDataAbertura().plusHours(horasLimite);
-        return LocalDateTime.now().isAfter(deadline);
-    }
-
     @Transactional
-    public synchronized Ticket createTicket(TicketCreateDTO dto, User solicitante, List<MultipartFile> files) throws IOException {
+    public Ticket createTicket(TicketCreateDTO dto, User solicitante, List<MultipartFile> files) throws IOException {
         Ticket ticket = new Ticket();
         ticket.setSolicitante(solicitante);
         ticket.setDescricao(dto.getDescricao());
@@ -132,73 +271,138 @@ public class TicketService {
         ticket.setDataAbertura(LocalDateTime.now());
         ticket.setNumeroChamado(gerarProximoNumeroChamado());
         
-        if (dto.getIdCategoria() != null) categoriaRepository.findById(dto.getIdCategoria()).ifPresent(ticket::setCategoria);
-        if (dto.getIdProblema() != null) problemaRepository.findById(dto.getIdProblema()).ifPresent(ticket::setProblema);
+        referenciaCache.findCategoria(dto.getIdCategoria()).ifPresent(ticket::setCategoria);
+        referenciaCache.findProblema(dto.getIdProblema()).ifPresent(ticket::setProblema);
 
         ticket.setPrioridade("Média");
         if(ticket.getProblema() != null && ticket.getProblema().getPrioridadePadrao() != null) ticket.setPrioridade(ticket.getProblema().getPrioridadePadrao());
         else if (dto.getPrioridade() != null) ticket.setPrioridade(dto.getPrioridade());
 
         Ticket saved = ticketRepository.save(ticket);
-        registrarHistorico(saved, solicitante, "Chamado Aberto");
         if (files != null) for (MultipartFile f : files) if(!f.isEmpty()) saveAttachment(saved, f);
+        registrarEvento(TicketEventType.CRIADO, saved, null, null, solicitante, "Chamado Aberto", null);
         return saved;
     }
     
     private String gerarProximoNumeroChamado() {
-        int anoAtual = java.time.LocalDate.now().getYear();
-        String prefixo = anoAtual + "-";
-        Optional<Ticket> ultimoTicket = ticketRepository.findTopByNumeroChamadoStartingWithOrderByIdDesc(prefixo);
-        int proximoSequencial = 1;
-        if (ultimoTicket.isPresent()) {
-            try {
-                String[] partes = ultimoTicket.get().getNumeroChamado().split("-");
-                if (partes.length == 2) proximoSequencial = Integer.parseInt(partes[1]) + 1;
-            } catch (Exception e) { proximoSequencial = 1;
-            }
-        }
-        return prefixo + String.format("%03d", proximoSequencial);
+        return numeroChamadoGenerator.proximo(java.time.LocalDate.now().getYear());
     }
     
     @Transactional
     public TicketResponseDTO assignTicketToSelf(Long id, User user) {
         Ticket ticket = ticketRepository.findById(id).orElseThrow();
+        // Capturado por outro técnico entre a listagem e o clique
+        if (ticket.getTecnicoAtribuido() != null && !ticket.getTecnicoAtribuido().getId().equals(user.getId())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Chamado já atribuído a " + ticket.getTecnicoAtribuido().getNome());
+        }
+        String statusAnterior = ticket.getStatus();
+        User tecnicoAnterior = ticket.getTecnicoAtribuido();
         ticket.setTecnicoAtribuido(user);
         ticket.setStatus("Em Andamento");
-        registrarHistorico(ticket, user, "Chamado capturado");
-        return new TicketResponseDTO(ticketRepository.save(ticket));
+        registrarPrimeiraResposta(ticket);
+        Ticket saved = ticketRepository.save(ticket);
+        TicketDomainEvent evento = registrarEvento(TicketEventType.ATRIBUIDO, saved, statusAnterior, tecnicoAnterior, user, "Chamado capturado", null);
+        return detalhar(saved, evento);
     }
 
     @Transactional
     public TicketResponseDTO assignTicketToTechnician(Long tId, Long techId, User user) {
         Ticket ticket = ticketRepository.findById(tId).orElseThrow();
         User tecnico = userRepository.findById(techId).orElseThrow();
+        String statusAnterior = ticket.getStatus();
+        User tecnicoAnterior = ticket.getTecnicoAtribuido();
         ticket.setTecnicoAtribuido(tecnico);
         ticket.setStatus("Em Andamento");
-        registrarHistorico(ticket, user, "Atribuído para: " + tecnico.getNome());
-        return new TicketResponseDTO(ticketRepository.save(ticket));
+        registrarPrimeiraResposta(ticket);
+        Ticket saved = ticketRepository.save(ticket);
+        TicketDomainEvent evento = registrarEvento(TicketEventType.ATRIBUIDO, saved, statusAnterior, tecnicoAnterior, user,
+                "Atribuído para: " + tecnico.getNome(), null);
+        return detalhar(saved, evento);
+    }
+    
+    // Fila da equipe do técnico; vazio quando não há nada a capturar. Sem equipe não há fila (409)
+    @Transactional
+    public Optional<TicketResponseDTO> claimNextTicket(User user) {
+        if (user.getEquipe() == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Usuário sem equipe não tem fila para capturar");
+        }
+        Optional<Ticket> proximo = ticketRepository.findProximoDaFilaParaCaptura(user.getEquipe().getId());
+        if (proximo.isEmpty()) return Optional.empty();
+
+        Ticket ticket = proximo.get();
+        String statusAnterior = ticket.getStatus();
+        ticket.setTecnicoAtribuido(user);
+        ticket.setStatus("Em Andamento");
+        registrarPrimeiraResposta(ticket);
+        Ticket saved = ticketRepository.save(ticket);
+        TicketDomainEvent evento = registrarEvento(TicketEventType.ATRIBUIDO, saved, statusAnterior, null, user, "Chamado capturado", null);
+        return Optional.of(detalhar(saved, evento));
+    }
+
+    // Usado pelo MotorRoteamento; false se o chamado já saiu da fila (capturado ou fechado)
+    @Transactional
+    public boolean assignAutomatico(Long ticketId, Long tecnicoId) {
+        Ticket ticket = ticketRepository.findByIdParaAtualizacao(ticketId).orElse(null);
+        if (ticket == null || !"Aberto".equals(ticket.getStatus()) || ticket.getTecnicoAtribuido() != null) return false;
+        User tecnico = userRepository.findById(tecnicoId).orElse(null);
+        if (tecnico == null) return false;
+
+        String statusAnterior = ticket.getStatus();
+        ticket.setTecnicoAtribuido(tecnico);
+        ticket.setStatus("Em Andamento");
+        Ticket saved = ticketRepository.save(ticket);
+        TicketDomainEvent e = eventRecorder.novoEvento(TicketEventType.ATRIBUIDO, saved, statusAnterior, null, null,
+                "Atribuído automaticamente para: " + tecnico.getNome(), null);
+        e.setAutomatico(true);
+        eventRecorder.registrar(e);
+        return true;
     }
     
     @Transactional
     public TicketResponseDTO closeTicket(Long id, CloseTicketDTO data, User user) {
         Ticket ticket = ticketRepository.findById(id).orElseThrow();
+        String statusAnterior = ticket.getStatus();
         ticket.setStatus("Fechado");
         ticket.setSolucao(data.getSolucao());
         ticket.setDataFechamento(LocalDateTime.now());
-        registrarHistoricoComentario(ticket, user, "Fechado", "Solução: " + data.getSolucao());
-        return new TicketResponseDTO(ticketRepository.save(ticket));
+        Ticket saved = ticketRepository.save(ticket);
+        percentilService.registrarFechamento(saved);
+        TicketDomainEvent evento = registrarEvento(TicketEventType.FECHADO, saved, statusAnterior, saved.getTecnicoAtribuido(), user,
+                "Fechado", "Solução: " + data.getSolucao());
+        return detalhar(saved, evento);
     }
 
     @Transactional
     public TicketResponseDTO reopenTicket(Long id, TicketReopenDTO data, User user) {
         Ticket ticket = ticketRepository.findById(id).orElseThrow();
+        String statusAnterior = ticket.getStatus();
         ticket.setStatus("Aberto");
         ticket.setDataFechamento(null);
         ticket.setFoiReaberto(true);
-        registrarHistoricoComentario(ticket, user, "Reaberto", "Motivo: " + data.getMotivo());
-        return new TicketResponseDTO(ticketRepository.save(ticket));
+        Ticket saved = ticketRepository.save(ticket);
+        percentilService.registrarReabertura(saved);
+        TicketDomainEvent evento = registrarEvento(TicketEventType.REABERTO, saved, statusAnterior, saved.getTecnicoAtribuido(), user,
+                "Reaberto", "Motivo: " + data.getMotivo());
+        return detalhar(saved, evento);
     }
     
+    // Vai para a outbox na mesma transação; o OutboxPublisher entrega ao barramento após o commit
+    private void registrarEvento(TicketEventType tipo, Ticket t, String statusAnterior, User tecnicoAnterior, User autor) {
+        eventRecorder.registrar(tipo, t, statusAnterior, tecnicoAnterior, autor);
+    }
+
+    // Transições: a entrada de histórico vai no evento e é gravada em lote pelo HistoricoSubscriber (write-behind).
+    // Só o comentário, que é o próprio conteúdo da ação, continua sendo gravado aqui dentro da transação.
+    private TicketDomainEvent registrarEvento(TicketEventType tipo, Ticket t, String statusAnterior, User tecnicoAnterior,
+                                              User autor, String acao, String comentario) {
+        return eventRecorder.registrar(eventRecorder.novoEvento(tipo, t, statusAnterior, tecnicoAnterior, autor, acao, comentario));
+    }
+
+    private void registrarPrimeiraResposta(Ticket t) {
+        if (t.getDataPrimeiraResposta() == null) t.setDataPrimeiraResposta(LocalDateTime.now());
+    }
+
     private void saveAttachment(Ticket t, MultipartFile f) throws IOException {
         Anexo a = new Anexo();
         a.setTicket(t);
@@ -208,9 +412,6 @@ public class TicketService {
         anexoRepository.save(a);
     }
 
-    private Historico registrarHistorico(Ticket t, User u, String acao) { 
-        return registrarHistoricoComentario(t, u, acao, acao);
-    }
 
     private Historico registrarHistoricoComentario(Ticket t, User u, String acao, String comentario) {
         Historico h = new Historico();
@@ -227,20 +428,30 @@ public class TicketService {
     
     @Transactional public TicketResponseDTO updateTicketClassification(Long id, String c, String p, User u) {
         Ticket t = ticketRepository.findById(id).orElseThrow();
-        if(c!=null && !c.isEmpty()) categoriaRepository.findByNome(c).ifPresent(t::setCategoria);
+        if(c!=null && !c.isEmpty()) referenciaCache.findCategoriaPorNome(c).ifPresent(t::setCategoria);
         if(p!=null) t.setPrioridade(p);
-        registrarHistorico(ticketRepository.save(t), u, "Classificação: "+p);
-        return new TicketResponseDTO(t);
+        ticketRepository.save(t);
+        TicketDomainEvent evento = registrarEvento(TicketEventType.RECLASSIFICADO, t, t.getStatus(), t.getTecnicoAtribuido(), u, "Classificação: " + p, null);
+        return detalhar(t, evento);
     }
     
     @Transactional public TicketResponseDTO addAttachment(Long id, MultipartFile f, User u) throws IOException {
         Ticket t = ticketRepository.findById(id).orElseThrow();
         saveAttachment(t, f);
-        registrarHistorico(t, u, "Anexo: "+f.getOriginalFilename());
-        return new TicketResponseDTO(ticketRepository.save(t));
+        t.marcarModificado();
+        Ticket saved = ticketRepository.save(t);
+        TicketDomainEvent evento = registrarEvento(TicketEventType.ANEXO_ADICIONADO, saved, saved.getStatus(), saved.getTecnicoAtribuido(), u,
+                "Anexo: " + f.getOriginalFilename(), null);
+        return detalhar(saved, evento);
     }
     
     @Transactional public HistoricoItemDTO addComment(Long id, CommentCreateDTO d, User u) {
-        return new HistoricoItemDTO(registrarHistoricoComentario(ticketRepository.findById(id).orElseThrow(), u, "Comentário", d.getComentario()));
+        Ticket t = ticketRepository.findById(id).orElseThrow();
+        // Comentário de quem não é o solicitante conta como primeira resposta
+        if (t.getSolicitante() == null || !t.getSolicitante().getId().equals(u.getId())) registrarPrimeiraResposta(t);
+        Historico h = registrarHistoricoComentario(t, u, "Comentário", d.getComentario());
+        t.marcarModificado();
+        registrarEvento(TicketEventType.COMENTADO, t, t.getStatus(), t.getTecnicoAtribuido(), u);
+        return new HistoricoItemDTO(h);
     }
 }
\ No newline at end of file
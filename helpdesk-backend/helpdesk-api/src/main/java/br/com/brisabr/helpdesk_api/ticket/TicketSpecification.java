@@ -6,6 +6,7 @@ import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Predicate;
 import org.springframework.data.jpa.domain.Specification;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -121,4 +122,35 @@ public class TicketSpecification {
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
     }
+
+    // Chamados ainda em atendimento; casa com o predicado do índice parcial idx_chamados_fila_sla
+    public static Specification<Ticket> naFilaDeTrabalho() {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.and(
+                root.get("status").in("Aberto", "Em Andamento"),
+                criteriaBuilder.isNotNull(root.get("prazoSla")));
+    }
+
+    public static Specification<Ticket> modificadoDesde(LocalDateTime desde) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.greaterThanOrEqualTo(root.get("ultimaModificacao"), desde);
+    }
+
+    // Mesmas regras de perfil do item 1 acima, avaliadas em memória (usado pelo stream de eventos)
+    public static boolean isVisivel(User userLogado, String solicitanteLogin, Long equipeSolicitanteId,
+                                    String tecnicoLogin, String status) {
+        String loginLogado = userLogado.getLogin().toLowerCase();
+        String perfil = userLogado.getPerfil() != null ? userLogado.getPerfil().toLowerCase() : "";
+        Long equipeLogado = userLogado.getEquipe() != null ? userLogado.getEquipe().getId() : null;
+
+        if (perfil.equals("user")) {
+            return solicitanteLogin != null && solicitanteLogin.equalsIgnoreCase(loginLogado);
+        } else if (perfil.equals("manager")) {
+            return equipeLogado == null || equipeLogado.equals(equipeSolicitanteId);
+        } else if (perfil.equals("technician") || perfil.equals("tecnico")) {
+            boolean meusChamados = tecnicoLogin != null && tecnicoLogin.equalsIgnoreCase(loginLogado);
+            boolean naFilaGeral = "Aberto".equals(status) && tecnicoLogin == null;
+            boolean daMinhaEquipe = equipeLogado == null || equipeLogado.equals(equipeSolicitanteId);
+            return meusChamados || (naFilaGeral && daMinhaEquipe);
+        }
+        return true;
+    }
 }
\ No newline at end of file
@@ -1,7 +1,7 @@
 package br.com.brisabr.helpdesk_api.user;
 
 import br.com.brisabr.helpdesk_api.ticket.Equipe;
-import br.com.brisabr.helpdesk_api.ticket.EquipeRepository;
+import br.com.brisabr.helpdesk_api.ticket.ReferenciaCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -15,7 +15,7 @@ public class UserService {
     private UserRepository userRepository;
 
     @Autowired
-    private EquipeRepository equipeRepository;
+    private ReferenciaCache referenciaCache;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
@@ -44,14 +44,14 @@ public class UserService {
         user.setPerfil(data.getPerfil());
 
         if (data.getEquipeId() != null) {
-            equipeRepository.findById(data.getEquipeId()).ifPresent(user::setEquipe);
+            referenciaCache.findEquipe(data.getEquipeId()).ifPresent(user::setEquipe);
         }
 
         return userRepository.save(user);
     }
 
     public List<Equipe> getAllEquipes() {
-        return equipeRepository.findAll();
+        return referenciaCache.getEquipes().itens();
     }
 
     public List<User> findTechnicians() {
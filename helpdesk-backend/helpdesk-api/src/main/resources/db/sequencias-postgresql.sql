@@ -0,0 +1,27 @@
+-- Executado antes do Hibernate subir (config/SequenciasIdConfig).
+-- As tabelas foram criadas com SERIAL/IDENTITY (incremento 1); as entidades agora usam sequência com
+-- allocationSize = 50 (otimizador pooled), então a sequência precisa andar de 50 em 50 e nunca ficar
+-- abaixo do maior id existente. Idempotente; em banco vazio não faz nada (o Hibernate cria as sequências).
+DO $$
+DECLARE
+    tabela TEXT;
+    sequencia TEXT;
+    maior BIGINT;
+    atual BIGINT;
+BEGIN
+    FOREACH tabela IN ARRAY ARRAY['chamados', 'historico_chamados', 'anexos_chamados', 'usuarios'] LOOP
+        sequencia := tabela || '_id_seq';
+        CONTINUE WHEN to_regclass(tabela) IS NULL OR to_regclass(sequencia) IS NULL;
+
+        IF (SELECT increment_by FROM pg_sequences
+            WHERE schemaname = current_schema() AND sequencename = sequencia) <> 50 THEN
+            EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50', sequencia);
+        END IF;
+
+        EXECUTE format('SELECT COALESCE(MAX(id), 0) FROM %I', tabela) INTO maior;
+        EXECUTE format('SELECT last_value FROM %I', sequencia) INTO atual;
+        IF atual < maior THEN
+            PERFORM setval(sequencia, maior);
+        END IF;
+    END LOOP;
+END $$
@@ -0,0 +1,49 @@
+-- Executado a cada inicialização, depois do ddl-auto do Hibernate (spring.jpa.defer-datasource-initialization).
+-- Somente comandos idempotentes: o que o JPA não consegue expressar (índices parciais, carga de colunas novas).
+
+-- Fila de trabalho por vencimento do SLA (GET /api/tickets/work-queue, claim-next, roteamento).
+-- O prazo_sla de chamados anteriores à coluna é preenchido pelo DataInitializer (regra em Ticket.calculateSlaDeadline)
+CREATE INDEX IF NOT EXISTS idx_chamados_fila_sla ON chamados (prazo_sla, id)
+    WHERE status IN ('Aberto', 'Em Andamento');
+
+-- Linha do tempo paginada do chamado (GET /api/tickets/{id}/historico): cursor por (data_ocorrencia, id)
+UPDATE historico_chamados h SET data_ocorrencia = c.data_abertura
+    FROM chamados c
+    WHERE h.id_chamado = c.id AND h.data_ocorrencia IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_historico_chamado_data ON historico_chamados (id_chamado, data_ocorrencia, id);
+
+-- Histórico gravado em segundo plano a partir da outbox: reentrega do mesmo evento não duplica a entrada
+CREATE UNIQUE INDEX IF NOT EXISTS uk_historico_chamados_evento ON historico_chamados (id_evento)
+    WHERE id_evento IS NOT NULL;
+
+-- Marca d'água do GET /api/tickets/changes no relógio do banco: ultima_modificacao e a data dos eventos da outbox
+-- valem o início da transação que gravou (localtimestamp), nunca a hora de uma JVM. Assim a marca d'água, tirada
+-- do início da transação aberta mais antiga (TicketRepository.findWatermark), fica abaixo de tudo que ainda não
+-- tinha commit. A carga de massa sintética (GeradorDados) mantém as datas do passado com helpdesk.carga_massa.
+-- Corpos entre aspas simples: o inicializador do Spring separa os comandos em ';' fora de aspas.
+CREATE OR REPLACE FUNCTION chamados_marcar_modificacao() RETURNS trigger LANGUAGE plpgsql AS '
+BEGIN
+    IF coalesce(current_setting(''helpdesk.carga_massa'', true), '''') <> ''on'' THEN
+        NEW.ultima_modificacao := localtimestamp;
+    END IF;
+    RETURN NEW;
+END';
+
+CREATE OR REPLACE FUNCTION eventos_outbox_marcar_criacao() RETURNS trigger LANGUAGE plpgsql AS '
+BEGIN
+    NEW.data_criacao := localtimestamp;
+    RETURN NEW;
+END';
+
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_trigger WHERE tgname = ''trg_chamados_ultima_modificacao'') THEN
+        CREATE TRIGGER trg_chamados_ultima_modificacao BEFORE INSERT OR UPDATE ON chamados
+            FOR EACH ROW EXECUTE FUNCTION chamados_marcar_modificacao();
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_trigger WHERE tgname = ''trg_eventos_outbox_data_criacao'') THEN
+        CREATE TRIGGER trg_eventos_outbox_data_criacao BEFORE INSERT ON eventos_outbox
+            FOR EACH ROW EXECUTE FUNCTION eventos_outbox_marcar_criacao();
+    END IF;
+END';
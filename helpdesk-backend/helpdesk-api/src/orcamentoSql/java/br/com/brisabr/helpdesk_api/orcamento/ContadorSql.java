@@ -0,0 +1,73 @@
+package br.com.brisabr.helpdesk_api.orcamento;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Conta os comandos SQL que a thread corrente executa entre iniciar() e encerrar(). O DataSource da API passa
+// pelo datasource-proxy (ContadorSqlConfig); cada execução conta uma vez — um executeBatch é um comando só.
+// O que roda em outras threads (publicador da outbox, assinantes do barramento) fica de fora da conta.
+public class ContadorSql implements QueryExecutionListener {
+
+    private static final ThreadLocal<List<String>> ATUAL = new ThreadLocal<>();
+
+    // Medições das requisições HTTP, na ordem em que terminam (o filtro publica depois da resposta)
+    private static final BlockingQueue<List<String>> CONCLUIDAS = new LinkedBlockingQueue<>();
+    private static final AtomicInteger EM_ANDAMENTO = new AtomicInteger();
+
+    public static void iniciar() {
+        ATUAL.set(new ArrayList<>());
+    }
+
+    public static List<String> encerrar() {
+        List<String> comandos = ATUAL.get();
+        ATUAL.remove();
+        return comandos != null ? comandos : List.of();
+    }
+
+    static void requisicaoIniciada() {
+        EM_ANDAMENTO.incrementAndGet();
+        iniciar();
+    }
+
+    static void requisicaoConcluida() {
+        CONCLUIDAS.add(encerrar());
+        EM_ANDAMENTO.decrementAndGet();
+    }
+
+    // O cliente recebe o corpo antes de o filtro publicar: espera as requisições anteriores (login etc.)
+    // fecharem e descarta as medições delas, para a próxima da fila ser a da chamada medida
+    static void descartarAnteriores(Duration limite) throws InterruptedException {
+        long fim = System.nanoTime() + limite.toNanos();
+        while (EM_ANDAMENTO.get() > 0 && System.nanoTime() < fim) {
+            Thread.sleep(1);
+        }
+        CONCLUIDAS.clear();
+    }
+
+    static List<String> proximaRequisicao(Duration limite) throws InterruptedException {
+        List<String> comandos = CONCLUIDAS.poll(limite.toMillis(), TimeUnit.MILLISECONDS);
+        if (comandos == null) throw new IllegalStateException("Requisição não passou pelo contador de SQL");
+        return comandos;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        List<String> comandos = ATUAL.get();
+        if (comandos != null) {
+            comandos.add(queryInfoList.isEmpty() ? "?" : queryInfoList.get(0).getQuery());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.brisabr.helpdesk_api.orcamento;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+
+// Só entra com @Import (OrcamentoSqlTest): @TestConfiguration fica fora do component scan dos outros testes.
+// Fica por cima ou por baixo do proxy do SqlMonitoradoConfig, tanto faz: os dois veem todos os comandos.
+@TestConfiguration
+public class ContadorSqlConfig {
+
+    @Bean
+    static BeanPostProcessor contadorSqlDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource ds) {
+                    return ProxyDataSourceBuilder.create(ds).name(beanName).listener(new ContadorSql()).build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Antes de tudo, inclusive do Spring Security: a busca do usuário do token entra na conta da requisição
+    @Bean
+    FilterRegistrationBean<OncePerRequestFilter> contadorSqlFiltro() {
+        FilterRegistrationBean<OncePerRequestFilter> registro = new FilterRegistrationBean<>(new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                    throws ServletException, IOException {
+                ContadorSql.requisicaoIniciada();
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    ContadorSql.requisicaoConcluida();
+                }
+            }
+        });
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registro;
+    }
+}
@@ -0,0 +1,249 @@
+package br.com.brisabr.helpdesk_api.orcamento;
+
+import br.com.brisabr.helpdesk_api.analytics.PercentilAtendimentoService;
+import br.com.brisabr.helpdesk_api.loadtest.ClienteApi;
+import br.com.brisabr.helpdesk_api.loadtest.GeradorDados;
+import br.com.brisabr.helpdesk_api.loadtest.Metricas;
+import br.com.brisabr.helpdesk_api.loadtest.Parametros;
+import br.com.brisabr.helpdesk_api.service.ReportService;
+import br.com.brisabr.helpdesk_api.ticket.ReferenciaCache;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Orçamento de comandos SQL por endpoint: sobe a API com Postgres embutido e uma massa fixa, chama cada
+// endpoint duas vezes (a primeira só aquece caches) e compara quantos comandos a segunda executou com o
+// orçamento em orcamento-sql.properties. Um N+1 faz a conta crescer com o tamanho da massa e estoura o orçamento.
+// O Postgres embutido não roda como root: nesse caso a classe é pulada. A mensagem de cada caso traz o valor
+// medido, para ajustar o arquivo. Roda pela tarefa orcamentoSql, fora do ./gradlew test.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "helpdesk.log.formato=texto",
+        "logging.level.root=WARN",
+        // Os chamados abertos da massa já venceram o SLA: o roteamento atribuiria todos e o ciclo do técnico
+        // ficaria sem chamado livre para capturar
+        "helpdesk.roteamento.ativo=false"})
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+@Import(ContadorSqlConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisabledIfSystemProperty(named = "user.name", matches = "root",
+        disabledReason = "Postgres embutido não roda como root")
+class OrcamentoSqlTest {
+
+    private static final Duration LIMITE = Duration.ofSeconds(30);
+    // Padrões do GeradorDados
+    private static final String PREFIXO = "carga";
+    private static final String SENHA = "Carga@123";
+
+    // Massa pequena, mas com chamados suficientes por usuário/equipe para um N+1 aparecer na conta
+    private static final String[] MASSA = {
+            "--chamados=3000", "--historico-medio=6", "--anexos=0.2", "--equipes=4", "--tecnicos=16",
+            "--gestores=4", "--solicitantes=150", "--categorias=8", "--problemas=20", "--semente=42"};
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReferenciaCache referenciaCache;
+
+    @Autowired
+    private PercentilAtendimentoService percentilService;
+
+    @Autowired
+    private ReportService reportService;
+
+    @LocalServerPort
+    private int porta;
+
+    private final Properties orcamento = new Properties();
+    private final List<String> casos = new ArrayList<>();
+
+    private ClienteApi admin;
+    private ClienteApi gestor;
+    private ClienteApi tecnico;
+    private ClienteApi solicitante;
+
+    // 'vez' é 0 no aquecimento e 1 na medição: operações que alteram o chamado usam um chamado diferente em cada
+    interface Chamada {
+        ClienteApi.Resposta executar(int vez) throws Exception;
+    }
+
+    @BeforeAll
+    void prepararMassa() throws Exception {
+        try (InputStream in = getClass().getResourceAsStream("/orcamento-sql.properties")) {
+            assertNotNull(in, "orcamento-sql.properties não está no classpath");
+            orcamento.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+        try (Connection c = dataSource.getConnection()) {
+            new GeradorDados(new Parametros(MASSA)).gerar(c);
+        }
+        // A massa entrou por fora da API: recarrega caches e estado em memória montados na subida
+        referenciaCache.carregar();
+        percentilService.reconstruir();
+
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        admin = logar(http, "admin", "admin");
+        gestor = logar(http, PREFIXO + ".ges01", SENHA);
+        tecnico = logar(http, PREFIXO + ".tec0001", SENHA);
+        solicitante = logar(http, PREFIXO + ".sol00001", SENHA);
+    }
+
+    // Em ordem: as escritas consomem chamados livres da massa
+    @TestFactory
+    Stream<DynamicTest> endpointsDentroDoOrcamento() {
+        // Chamado com anexo e o maior histórico: o detalhe que mais carrega associações
+        Long detalhe = jdbc.queryForObject(
+                "SELECT h.id_chamado FROM historico_chamados h WHERE EXISTS " +
+                "(SELECT 1 FROM anexos_chamados a WHERE a.id_chamado = h.id_chamado) " +
+                "GROUP BY h.id_chamado ORDER BY count(*) DESC, h.id_chamado LIMIT 1", Long.class);
+        // Dentro da retenção da outbox: mais antigo que isso o /changes devolve a carga completa
+        String desde = LocalDateTime.now().minusHours(1).withNano(0).toString();
+        // Ciclo do técnico: dois chamados livres da equipe, um para o aquecimento e outro para a medição
+        List<Long> livres = jdbc.queryForList(
+                "SELECT c.id FROM chamados c JOIN usuarios s ON s.id = c.id_solicitante " +
+                "WHERE c.status = 'Aberto' AND c.id_tecnico_atribuido IS NULL " +
+                "AND s.id_equipe = (SELECT id_equipe FROM usuarios WHERE login = ?) ORDER BY c.id LIMIT 2",
+                Long.class, PREFIXO + ".tec0001");
+        assertEquals(2, livres.size(), "A equipe do técnico não tem dois chamados livres");
+
+        Stream<DynamicTest> medicoes = Stream.of(
+                // --- Listagens (TicketResponseDTO) ---
+                http("tickets.listar.gestor", v -> gestor.get("", "/api/tickets", Map.of("status", "Aberto"))),
+                http("tickets.meus.solicitante", v -> solicitante.get("", "/api/tickets/me", Map.of())),
+                http("tickets.busca.solicitante", v -> solicitante.get("", "/api/tickets",
+                        Map.of("search", "impressora", "searchType", "descricao"))),
+                http("tickets.mudancas.gestor", v -> gestor.get("", "/api/tickets/changes", Map.of("since", desde))),
+                http("tickets.detalhe", v -> admin.get("", "/api/tickets/" + detalhe, Map.of())),
+                http("tickets.historico", v -> admin.get("", "/api/tickets/" + detalhe + "/historico", Map.of())),
+                http("tickets.fila.tecnico", v -> tecnico.get("", "/api/tickets/work-queue", Map.of("limit", "100"))),
+
+                // --- Escrita ---
+                http("tickets.capturar.tecnico", v -> tecnico.postJson("", "/api/tickets/" + livres.get(v) + "/assign-self", Map.of())),
+                http("tickets.comentar.tecnico", v -> tecnico.postJson("", "/api/tickets/" + livres.get(v) + "/comments",
+                        Map.of("comentario", "Verificando o equipamento"))),
+                http("tickets.fechar.tecnico", v -> tecnico.postJson("", "/api/tickets/" + livres.get(v) + "/close",
+                        Map.of("solucao", "Equipamento reiniciado"))),
+                http("tickets.criar.solicitante", v -> solicitante.postMultipart("", "/api/tickets", "ticket",
+                        Map.of("descricao", "Impressora do setor sem conexão"))),
+
+                // --- Painel e relatórios ---
+                http("dashboard.stats.admin", v -> admin.get("", "/api/dashboard/stats", Map.of())),
+                http("dashboard.stats.gestor", v -> gestor.get("", "/api/dashboard/stats", Map.of())),
+                http("relatorios.analistas", v -> gestor.get("", "/api/reports/analistas", Map.of())),
+                http("relatorios.categorias", v -> gestor.get("", "/api/reports/categorias", Map.of())),
+                http("relatorios.mensal", v -> gestor.get("", "/api/reports/mensal", Map.of())),
+                http("relatorios.percentis", v -> gestor.get("", "/api/reports/percentis", Map.of())),
+
+                // Sem endpoint: chamado direto no serviço, numa transação só leitura como a sessão aberta na view
+                noProcesso("relatorios.detalhado", () -> reportService.getDetailedReport(
+                        null, null, null, null, null, null, null, null, null, null).size()));
+
+        TreeSet<String> semCaso = new TreeSet<>(orcamento.stringPropertyNames());
+        casos.forEach(semCaso::remove);
+        return Stream.concat(medicoes, Stream.of(DynamicTest.dynamicTest("orcamento.sem-caso",
+                () -> assertTrue(semCaso.isEmpty(), "Orçamento sem caso correspondente: " + semCaso))));
+    }
+
+    private ClienteApi logar(HttpClient http, String login, String senha) {
+        ClienteApi cliente = new ClienteApi(http, "http://localhost:" + porta, LIMITE, new Metricas());
+        assertTrue(cliente.login(login, senha), "Login de " + login + " falhou");
+        return cliente;
+    }
+
+    private DynamicTest http(String caso, Chamada chamada) {
+        casos.add(caso);
+        return DynamicTest.dynamicTest(caso, () -> {
+            List<String> sql = List.of();
+            for (int vez = 0; vez < 2; vez++) {
+                ContadorSql.descartarAnteriores(LIMITE);
+                ClienteApi.Resposta r = chamada.executar(vez);
+                assertTrue(r.status() != 0, caso + ": sem resposta");
+                sql = ContadorSql.proximaRequisicao(LIMITE);
+                assertTrue(r.ok(), caso + ": HTTP " + r.status() + (r.corpo() != null ? " " + r.corpo() : ""));
+            }
+            conferir(caso, sql);
+        });
+    }
+
+    private DynamicTest noProcesso(String caso, Runnable chamada) {
+        casos.add(caso);
+        return DynamicTest.dynamicTest(caso, () -> {
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+            tx.setReadOnly(true);
+            List<String> sql = List.of();
+            for (int vez = 0; vez < 2; vez++) {
+                ContadorSql.iniciar();
+                try {
+                    tx.executeWithoutResult(s -> chamada.run());
+                } finally {
+                    sql = ContadorSql.encerrar();
+                }
+            }
+            conferir(caso, sql);
+        });
+    }
+
+    private void conferir(String caso, List<String> sql) {
+        String valor = orcamento.getProperty(caso);
+        if (valor == null) fail("Sem orçamento: " + caso + "=" + sql.size());
+        int limite = Integer.parseInt(valor.trim());
+        if (sql.size() > limite) {
+            // Os comandos mais repetidos costumam apontar direto para o N+1
+            String repetidos = repetidos(sql).entrySet().stream().limit(3)
+                    .map(e -> String.format("%n    %5dx %s", e.getValue(), resumir(e.getKey())))
+                    .collect(Collectors.joining());
+            fail(caso + ": " + sql.size() + " comandos, orçamento " + limite + repetidos);
+        }
+    }
+
+    private static Map<String, Long> repetidos(List<String> sql) {
+        return sql.stream()
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
+                .entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    private static String resumir(String sql) {
+        String linha = sql.replaceAll("\\s+", " ").trim();
+        return linha.length() > 160 ? linha.substring(0, 157) + "..." : linha;
+    }
+}
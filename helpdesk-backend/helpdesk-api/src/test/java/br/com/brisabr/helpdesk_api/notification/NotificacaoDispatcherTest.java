@@ -0,0 +1,215 @@
+package br.com.brisabr.helpdesk_api.notification;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Ciclo reserva/envio/nova tentativa do NotificacaoService com o WebhookNotificacaoTransport de verdade,
+// contra um servidor HTTP local. A fila fica em memória no lugar do NotificacaoRepository.
+class NotificacaoDispatcherTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper().findAndRegisterModules();
+
+    private HttpServer stub;
+    private final ConcurrentLinkedQueue<Integer> respostas = new ConcurrentLinkedQueue<>();
+    private final List<JsonNode> recebidos = new ArrayList<>();
+
+    private final List<Notificacao> fila = new ArrayList<>();
+    private final AtomicLong ids = new AtomicLong();
+    private NotificacaoService service;
+    private NotificacaoDispatcher dispatcher;
+    private String url;
+
+    @BeforeEach
+    void subir() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stub.createContext("/notificacoes", troca -> {
+            synchronized (recebidos) {
+                recebidos.add(JSON.readTree(troca.getRequestBody()));
+            }
+            Integer status = respostas.poll();
+            byte[] corpo = "{}".getBytes(StandardCharsets.UTF_8);
+            troca.sendResponseHeaders(status != null ? status : 200, corpo.length);
+            try (OutputStream out = troca.getResponseBody()) {
+                out.write(corpo);
+            }
+        });
+        stub.start();
+        url = "http://localhost:" + stub.getAddress().getPort() + "/notificacoes";
+
+        WebhookNotificacaoTransport webhook = new WebhookNotificacaoTransport();
+        ReflectionTestUtils.setField(webhook, "objectMapper", JSON);
+        ReflectionTestUtils.setField(webhook, "timeoutMs", 2000L);
+
+        service = new NotificacaoService();
+        ReflectionTestUtils.setField(service, "notificacaoRepository", repositorioEmMemoria());
+        ReflectionTestUtils.setField(service, "transports", List.of(webhook));
+        ReflectionTestUtils.setField(service, "janelaSegundos", 0L);
+        ReflectionTestUtils.setField(service, "reservaSegundos", 300L);
+        ReflectionTestUtils.setField(service, "maxTentativas", 3);
+        ReflectionTestUtils.setField(service, "backoffInicialSegundos", 30L);
+        ReflectionTestUtils.setField(service, "backoffMaxSegundos", 3600L);
+        service.registrarTransports();
+
+        dispatcher = new NotificacaoDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "notificacaoService", service);
+        ReflectionTestUtils.setField(dispatcher, "lote", 200);
+    }
+
+    @AfterEach
+    void derrubar() {
+        stub.stop(0);
+    }
+
+    @Test
+    void falhaDoWebhookReagendaComBackoffESucessoConclui() {
+        fila.add(nova("Chamado 2024-1 atribuído a Ana"));
+        fila.add(nova("Chamado 2024-1 fechado por Ana"));
+
+        respostas.add(500);
+        dispatcher.despachar();
+
+        // Um POST só para o destinatário, com as duas notificações agrupadas
+        assertEquals(1, recebidos.size());
+        assertEquals(2, recebidos.get(0).get("notificacoes").size());
+        assertEquals("Chamado 2024-1 atribuído a Ana", recebidos.get(0).get("notificacoes").get(0).get("titulo").asText());
+        for (Notificacao n : fila) {
+            assertEquals(StatusNotificacao.PENDENTE, n.getStatus());
+            assertEquals(1, n.getTentativas());
+            assertTrue(n.getUltimoErro().contains("HTTP 500"), n.getUltimoErro());
+            assertDaquiA(n.getProximaTentativa(), Duration.ofSeconds(30));
+        }
+
+        // Antes do backoff vencer nada é reenviado
+        dispatcher.despachar();
+        assertEquals(1, recebidos.size());
+
+        vencer();
+        dispatcher.despachar();
+        assertEquals(2, recebidos.size());
+        for (Notificacao n : fila) {
+            assertEquals(StatusNotificacao.ENVIADA, n.getStatus());
+            assertNull(n.getUltimoErro());
+        }
+    }
+
+    @Test
+    void esperaDobraACadaFalhaEDesisteNoLimite() {
+        Notificacao n = nova("Chamado 2024-2 atribuído a Bia");
+        fila.add(n);
+
+        respostas.add(503);
+        dispatcher.despachar();
+        assertDaquiA(n.getProximaTentativa(), Duration.ofSeconds(30));
+
+        vencer();
+        respostas.add(503);
+        dispatcher.despachar();
+        assertEquals(2, n.getTentativas());
+        assertDaquiA(n.getProximaTentativa(), Duration.ofSeconds(60));
+
+        vencer();
+        respostas.add(503);
+        dispatcher.despachar();
+        assertEquals(3, n.getTentativas());
+        assertEquals(StatusNotificacao.FALHA, n.getStatus());
+
+        vencer();
+        dispatcher.despachar();
+        assertEquals(3, recebidos.size());
+    }
+
+    @Test
+    void reservaTiraALinhaDaFilaPeloPrazoDaReserva() {
+        Notificacao n = nova("Chamado 2024-3 fechado por Caio");
+        fila.add(n);
+
+        assertEquals(List.of(n), service.reservar(10));
+        assertDaquiA(n.getProximaTentativa(), Duration.ofSeconds(300));
+        // Reservada e não concluída (queda no meio do envio): outra rodada não a pega antes do prazo
+        assertTrue(service.reservar(10).isEmpty());
+    }
+
+    @Test
+    void destinatarioForaDoArReagenda() {
+        Notificacao n = nova("Chamado 2024-4 atribuído a Duda");
+        n.setDestinatario("http://localhost:1/notificacoes");
+        fila.add(n);
+
+        dispatcher.despachar();
+
+        assertEquals(StatusNotificacao.PENDENTE, n.getStatus());
+        assertEquals(1, n.getTentativas());
+        assertTrue(n.getUltimoErro().startsWith("ConnectException"), n.getUltimoErro());
+    }
+
+    private Notificacao nova(String titulo) {
+        Notificacao n = new Notificacao();
+        n.setId(ids.incrementAndGet());
+        n.setEventoId(n.getId());
+        n.setCanal(CanalNotificacao.WEBHOOK);
+        n.setDestinatario(url);
+        n.setTipoEvento("ATRIBUIDO");
+        n.setTitulo(titulo);
+        n.setProximaTentativa(LocalDateTime.now().minusSeconds(1));
+        return n;
+    }
+
+    // O tempo "passa" até a próxima tentativa de todas as linhas pendentes
+    private void vencer() {
+        fila.forEach(n -> n.setProximaTentativa(LocalDateTime.now().minusSeconds(1)));
+    }
+
+    private static void assertDaquiA(LocalDateTime quando, Duration espera) {
+        LocalDateTime esperado = LocalDateTime.now().plus(espera);
+        assertTrue(Math.abs(Duration.between(esperado, quando).toSeconds()) <= 5,
+                "próxima tentativa em " + quando + ", esperado perto de " + esperado);
+    }
+
+    private NotificacaoRepository repositorioEmMemoria() {
+        NotificacaoRepository repositorio = mock(NotificacaoRepository.class);
+        when(repositorio.findVencidasParaEnvio(any(), anyInt())).thenAnswer(inv -> {
+            LocalDateTime agora = inv.getArgument(0);
+            int limite = inv.getArgument(1);
+            return fila.stream()
+                    .filter(n -> n.getStatus() == StatusNotificacao.PENDENTE && !n.getProximaTentativa().isAfter(agora))
+                    .limit(limite)
+                    .toList();
+        });
+        when(repositorio.marcarEnviadas(anyList(), any(), any())).thenAnswer(inv -> {
+            List<Long> marcadas = inv.getArgument(0);
+            fila.stream().filter(n -> marcadas.contains(n.getId())).forEach(n -> {
+                n.setStatus(inv.getArgument(2));
+                n.setDataEnvio(inv.getArgument(1));
+                n.setUltimoErro(null);
+            });
+            return marcadas.size();
+        });
+        when(repositorio.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+        return repositorio;
+    }
+}
@@ -0,0 +1,161 @@
+package br.com.brisabr.helpdesk_api.routing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Propriedade de heap e índice de posições depois de inserções, mudanças de chave e remoções no meio
+class HeapIndexadoTest {
+
+    // Chave mutável, identidade por objeto, como CargaTecnico
+    private static final class Item {
+        final int id;
+        int chave;
+
+        Item(int id, int chave) {
+            this.id = id;
+            this.chave = chave;
+        }
+    }
+
+    private final HeapIndexado<Item> heap = new HeapIndexado<>(
+            Comparator.comparingInt((Item i) -> i.chave).thenComparingInt(i -> i.id));
+
+    @Test
+    void topoEOMenorEReinsercaoNaoDuplica() {
+        Item a = new Item(1, 5);
+        Item b = new Item(2, 3);
+        Item c = new Item(3, 8);
+        assertNull(heap.topo());
+
+        heap.adicionar(a);
+        heap.adicionar(b);
+        heap.adicionar(c);
+        heap.adicionar(b);
+
+        assertEquals(3, heap.tamanho());
+        assertSame(b, heap.topo());
+        verificarInvariantes();
+    }
+
+    @Test
+    void chaveQueSobeOuDesceReposicionaOItem() {
+        List<Item> itens = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            Item it = new Item(i, i * 10);
+            itens.add(it);
+            heap.adicionar(it);
+        }
+
+        // Folha passa a ser o menor: sobe até a raiz
+        Item folha = itens.get(14);
+        folha.chave = -1;
+        heap.atualizar(folha);
+        assertSame(folha, heap.topo());
+        verificarInvariantes();
+
+        // Raiz passa a ser o maior: desce e o segundo menor assume
+        folha.chave = 1000;
+        heap.atualizar(folha);
+        assertSame(itens.get(0), heap.topo());
+        verificarInvariantes();
+
+        // Item que não está no heap é ignorado
+        heap.atualizar(new Item(99, -5));
+        assertSame(itens.get(0), heap.topo());
+        assertEquals(15, heap.tamanho());
+    }
+
+    @Test
+    void remocaoNoMeioMantemHeapEIndice() {
+        // Inseridos já em ordem de heap (nenhum sobe): posição i recebe chaves[i]
+        int[] chaves = {0, 50, 10, 60, 70, 20, 30, 80, 90, 100, 110, 40, 45, 35, 55};
+        List<Item> itens = new ArrayList<>();
+        for (int i = 0; i < chaves.length; i++) {
+            Item it = new Item(i, chaves[i]);
+            itens.add(it);
+            heap.adicionar(it);
+        }
+
+        // O último (55, subárvore direita) ocupa a vaga do 90, filho do 60: precisa subir
+        heap.remover(itens.get(8));
+        assertFalse(heap.contem(itens.get(8)));
+        assertEquals(3, posicao(itens.get(14)));
+        verificarInvariantes();
+
+        // Remover o último só encurta a lista
+        heap.remover(itens.get(13));
+        verificarInvariantes();
+
+        // O novo último (45) ocupa a vaga do 10, logo abaixo da raiz, com filhos 20 e 30: desce duas vezes
+        heap.remover(itens.get(2));
+        assertEquals(11, posicao(itens.get(12)));
+        verificarInvariantes();
+
+        heap.remover(itens.get(0));
+        assertSame(itens.get(5), heap.topo());
+        assertEquals(11, heap.tamanho());
+        verificarInvariantes();
+    }
+
+    @Test
+    void operacoesAleatoriasPreservamInvariantes() {
+        Random r = new Random(42);
+        List<Item> dentro = new ArrayList<>();
+        for (int passo = 0; passo < 5000; passo++) {
+            int op = r.nextInt(3);
+            if (op == 0 || dentro.isEmpty()) {
+                Item it = new Item(passo, r.nextInt(50));
+                dentro.add(it);
+                heap.adicionar(it);
+            } else if (op == 1) {
+                Item it = dentro.get(r.nextInt(dentro.size()));
+                it.chave += r.nextInt(21) - 10;
+                heap.atualizar(it);
+            } else {
+                Item it = dentro.remove(r.nextInt(dentro.size()));
+                heap.remover(it);
+                assertFalse(heap.contem(it));
+            }
+            if (passo % 50 == 0) verificarInvariantes();
+
+            Item menor = dentro.stream().min(Comparator.comparingInt((Item i) -> i.chave).thenComparingInt(i -> i.id)).orElse(null);
+            assertSame(menor, heap.topo());
+        }
+        assertEquals(dentro.size(), heap.tamanho());
+        verificarInvariantes();
+    }
+
+    @SuppressWarnings("unchecked")
+    private int posicao(Item item) {
+        return ((Map<Item, Integer>) ReflectionTestUtils.getField(heap, "posicoes")).get(item);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void verificarInvariantes() {
+        List<Item> itens = (List<Item>) ReflectionTestUtils.getField(heap, "itens");
+        Map<Item, Integer> posicoes = (Map<Item, Integer>) ReflectionTestUtils.getField(heap, "posicoes");
+
+        assertEquals(itens.size(), posicoes.size());
+        for (int i = 0; i < itens.size(); i++) {
+            assertEquals(i, posicoes.get(itens.get(i)), "posição do item " + itens.get(i).id);
+            if (i > 0) {
+                Item pai = itens.get((i - 1) / 2);
+                Item filho = itens.get(i);
+                assertTrue(pai.chave < filho.chave || (pai.chave == filho.chave && pai.id < filho.id),
+                        "pai " + pai.id + " maior que o filho " + filho.id);
+            }
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package br.com.brisabr.helpdesk_api.routing;
+
+import br.com.brisabr.helpdesk_api.ticket.Equipe;
+import br.com.brisabr.helpdesk_api.ticket.TicketRepository;
+import br.com.brisabr.helpdesk_api.ticket.TicketService;
+import br.com.brisabr.helpdesk_api.user.User;
+import br.com.brisabr.helpdesk_api.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Escolha do técnico, reserva/devolução da carga e urgência pelo prazo do SLA.
+// Os repositórios são mocks: o estado vem de reconciliar() e as atribuições do TicketService mockado.
+class MotorRoteamentoTest {
+
+    private static final Long EQUIPE = 1L;
+    private static final Long REDES = 10L;
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final TicketRepository ticketRepository = mock(TicketRepository.class);
+    private final TicketService ticketService = mock(TicketService.class);
+
+    private final List<User> usuarios = new ArrayList<>();
+    private final List<Object[]> cargas = new ArrayList<>();
+    private final List<Object[]> afinidades = new ArrayList<>();
+    private MotorRoteamento motor;
+
+    @BeforeEach
+    void montar() {
+        when(userRepository.findAllTechnicians()).thenReturn(usuarios);
+        when(ticketRepository.contarEmAndamentoPorTecnico()).thenReturn(cargas);
+        when(ticketRepository.contarFechadosPorTecnicoECategoria(any())).thenReturn(afinidades);
+        when(ticketRepository.findFilaSemTecnicoPorEquipe(anyLong())).thenReturn(List.of());
+        when(ticketService.assignAutomatico(anyLong(), anyLong())).thenReturn(true);
+
+        motor = new MotorRoteamento();
+        ReflectionTestUtils.setField(motor, "userRepository", userRepository);
+        ReflectionTestUtils.setField(motor, "ticketRepository", ticketRepository);
+        ReflectionTestUtils.setField(motor, "ticketService", ticketService);
+        ReflectionTestUtils.setField(motor, "ativo", true);
+        ReflectionTestUtils.setField(motor, "capacidadeMaxima", 3);
+        ReflectionTestUtils.setField(motor, "urgenciaMinutos", 120L);
+        ReflectionTestUtils.setField(motor, "excedenteUrgente", 2);
+        ReflectionTestUtils.setField(motor, "pesoAfinidade", 1.0);
+        ReflectionTestUtils.setField(motor, "limiarAfinidade", 10);
+        ReflectionTestUtils.setField(motor, "janelaAfinidadeDias", 90);
+    }
+
+    @Test
+    void menosCarregadoGanhaEEmpateVaiEmRodizio() {
+        tecnico(100L, 2);
+        tecnico(200L, 0);
+        tecnico(300L, 0);
+        motor.reconciliar();
+
+        // 200 e 300 empatados em zero: o de menor id primeiro, depois o que está há mais tempo sem receber
+        assertTrue(motor.rotear(1L, EQUIPE, null, folgado()));
+        verify(ticketService).assignAutomatico(1L, 200L);
+        assertTrue(motor.rotear(2L, EQUIPE, null, folgado()));
+        verify(ticketService).assignAutomatico(2L, 300L);
+        assertTrue(motor.rotear(3L, EQUIPE, null, folgado()));
+        verify(ticketService).assignAutomatico(3L, 200L);
+
+        assertEquals(Map.of(100L, 2, 200L, 2, 300L, 1), cargas());
+    }
+
+    @Test
+    void especialistaGanhaAteOPesoDaAfinidade() {
+        tecnico(100L, 0);
+        tecnico(200L, 1);
+        afinidade(200L, REDES, 10);
+        motor.reconciliar();
+
+        // 200 com um chamado e afinidade máxima pontua 0, empata com a carga do 100
+        assertTrue(motor.rotear(1L, EQUIPE, REDES, folgado()));
+        verify(ticketService).assignAutomatico(1L, 200L);
+
+        // Com dois chamados pontua 1 e perde para o 100, que segue vazio
+        assertTrue(motor.rotear(2L, EQUIPE, REDES, folgado()));
+        verify(ticketService).assignAutomatico(2L, 100L);
+
+        // Categoria sem especialistas: vale só a carga
+        assertTrue(motor.rotear(3L, EQUIPE, 99L, folgado()));
+        verify(ticketService).assignAutomatico(3L, 100L);
+    }
+
+    @Test
+    void registrarFechamentoCriaAfinidadeSemReconciliar() {
+        tecnico(100L, 0);
+        tecnico(200L, 1);
+        motor.reconciliar();
+
+        for (int i = 0; i < 10; i++) motor.registrarFechamento(200L, REDES);
+
+        assertTrue(motor.rotear(1L, EQUIPE, REDES, folgado()));
+        verify(ticketService).assignAutomatico(1L, 200L);
+    }
+
+    @Test
+    void naCapacidadeSoOUrgenteEntra() {
+        tecnico(100L, 3);
+        tecnico(200L, 5);
+        motor.reconciliar();
+
+        // Prazo longe: espera na fila, sem tentar atribuir
+        assertFalse(motor.rotear(1L, EQUIPE, null, folgado()));
+        verify(ticketService, never()).assignAutomatico(eq(1L), anyLong());
+        // Sem prazo gravado: não é urgente
+        assertFalse(motor.rotear(2L, EQUIPE, null, null));
+
+        // Dentro da janela de urgência ou já vencido: vai para o menos carregado acima da capacidade
+        assertTrue(motor.rotear(3L, EQUIPE, null, LocalDateTime.now().plusMinutes(90)));
+        verify(ticketService).assignAutomatico(3L, 100L);
+        assertTrue(motor.rotear(4L, EQUIPE, null, LocalDateTime.now().minusHours(1)));
+        verify(ticketService).assignAutomatico(4L, 100L);
+
+        // Todos no excedente: o urgente também espera
+        assertFalse(motor.rotear(5L, EQUIPE, null, LocalDateTime.now().minusDays(3)));
+        verify(ticketService, never()).assignAutomatico(eq(5L), anyLong());
+
+        assertEquals(Map.of(100L, 5, 200L, 5), cargas());
+    }
+
+    @Test
+    void urgenciaPeloTempoRestanteENaoPelaPrioridade() {
+        LocalDateTime agora = LocalDateTime.of(2024, 5, 10, 12, 0);
+
+        assertTrue(motor.urgente(agora.plusMinutes(120), agora));
+        assertTrue(motor.urgente(agora.minusMinutes(1), agora));
+        assertFalse(motor.urgente(agora.plusMinutes(121), agora));
+        assertFalse(motor.urgente(null, agora));
+    }
+
+    @Test
+    void atribuicaoRecusadaDevolveAReserva() {
+        tecnico(100L, 1);
+        motor.reconciliar();
+        when(ticketService.assignAutomatico(1L, 100L)).thenReturn(false);
+        when(ticketService.assignAutomatico(2L, 100L)).thenThrow(new IllegalStateException("conflito"));
+
+        assertFalse(motor.rotear(1L, EQUIPE, null, folgado()));
+        assertFalse(motor.rotear(2L, EQUIPE, null, folgado()));
+        assertEquals(Map.of(100L, 1), cargas());
+        // Nada ficou marcado como contado: o evento ATRIBUIDO de outro nó soma normalmente
+        assertFalse(motor.contadoNaReserva(1L));
+        assertFalse(motor.contadoNaReserva(2L));
+    }
+
+    @Test
+    void reservaConfirmadaEContadaUmaVez() {
+        tecnico(100L, 0);
+        motor.reconciliar();
+
+        assertTrue(motor.rotear(1L, EQUIPE, null, folgado()));
+        assertEquals(Map.of(100L, 1), cargas());
+        // O evento ATRIBUIDO desta atribuição não soma de novo; um segundo evento do mesmo chamado soma
+        assertTrue(motor.contadoNaReserva(1L));
+        assertFalse(motor.contadoNaReserva(1L));
+    }
+
+    @Test
+    void filaAndaAteACapacidadeMasUrgenteFura() {
+        tecnico(100L, 2);
+        motor.reconciliar();
+        when(ticketRepository.findFilaSemTecnicoPorEquipe(EQUIPE)).thenReturn(List.of(
+                new Object[]{1L, null, LocalDateTime.now().plusMinutes(30)},
+                new Object[]{2L, null, folgado()},
+                new Object[]{3L, null, folgado()},
+                new Object[]{4L, null, LocalDateTime.now().plusMinutes(60)}));
+
+        motor.rotearFila(EQUIPE);
+
+        verify(ticketService).assignAutomatico(1L, 100L);
+        verify(ticketService, never()).assignAutomatico(eq(2L), anyLong());
+        verify(ticketService, never()).assignAutomatico(eq(3L), anyLong());
+        verify(ticketService).assignAutomatico(4L, 100L);
+        assertEquals(Map.of(100L, 4), cargas());
+    }
+
+    @Test
+    void reconciliarCorrigeCargaEPreservaRodizio() {
+        tecnico(100L, 0);
+        tecnico(200L, 0);
+        motor.reconciliar();
+        assertTrue(motor.rotear(1L, EQUIPE, null, folgado()));
+        verify(ticketService).assignAutomatico(1L, 100L);
+
+        // O banco não viu a atribuição (transação desfeita): volta a zero, mas 100 continua como o último a receber
+        motor.reconciliar();
+        assertEquals(Map.of(100L, 0, 200L, 0), cargas());
+        assertTrue(motor.rotear(2L, EQUIPE, null, folgado()));
+        verify(ticketService).assignAutomatico(2L, 200L);
+    }
+
+    private void tecnico(Long id, long emAndamento) {
+        Equipe equipe = new Equipe();
+        equipe.setId(EQUIPE);
+        User u = new User();
+        u.setId(id);
+        u.setNome("Técnico " + id);
+        u.setEquipe(equipe);
+        usuarios.add(u);
+        cargas.add(new Object[]{id, emAndamento});
+    }
+
+    private void afinidade(Long tecnicoId, Long categoriaId, long fechados) {
+        afinidades.add(new Object[]{tecnicoId, categoriaId, fechados});
+    }
+
+    private static LocalDateTime folgado() {
+        return LocalDateTime.now().plusHours(24);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Integer> cargas() {
+        Map<Long, CargaTecnico> tecnicos = (Map<Long, CargaTecnico>) ReflectionTestUtils.getField(motor, "tecnicos");
+        Map<Long, Integer> r = new HashMap<>();
+        tecnicos.forEach((id, c) -> r.put(id, c.emAndamento));
+        return r;
+    }
+}